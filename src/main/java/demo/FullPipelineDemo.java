@@ -9,6 +9,7 @@ import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 import org.apache.commons.io.FileUtils;
 import simplification.SentenceSimplifier;
+import tagging.AnnotationCache;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
@@ -41,8 +42,10 @@ public class FullPipelineDemo {
     private static final String TOPIC_SENTENCES_FILE_NAME = "topic_sentences.txt";
     private static final String OUTPUT_FILE_NAME = "output/demo/pipeline/result_%d.txt";
     private static final String SIMPLIFICATION_OUTPUT_FILE_NAME = "output/demo/simplification/result.ser";
+    private static final String ANNOTATION_STORE_FILE_NAME = "output/demo/annotations/annotations.store";
     private static final String NO_OUTPUT = "no_output";
     private static final String NO_SIMPLIFICATION = "no_simplification";
+    private static final String NO_ANNOTATION_STORE = "no_annotation_store";
     private static final PrintStream OUT = System.out;
     private static final PrintStream ERR = System.err;
     private static final PrintStream DUMMY_STREAM = new PrintStream(new OutputStream() {
@@ -54,6 +57,7 @@ public class FullPipelineDemo {
         final Options options = new Options();
         options.addOption(createOptionalOptionNoArgument(NO_OUTPUT, "disable output to file"));
         options.addOption(createOptionalOptionNoArgument(NO_SIMPLIFICATION, "disable simplification system"));
+        options.addOption(createOptionalOptionNoArgument(NO_ANNOTATION_STORE, "disable persistent annotation store"));
 
         final CommandLineParser clp = new DefaultParser();
         CommandLine cmdLine;
@@ -64,6 +68,12 @@ public class FullPipelineDemo {
             return;
         }
 
+        if (cmdLine.hasOption(NO_ANNOTATION_STORE)) {
+            System.err.println("Not using persistent annotation store.");
+        } else {
+            AnnotationCache.useStore(new File(ANNOTATION_STORE_FILE_NAME));
+        }
+
         final ClassLoader classLoader = SimplificationDemo.class.getClassLoader();
         final TopicSentencesSimplificationAndQuestions result;
         if (cmdLine.hasOption(NO_SIMPLIFICATION)) {
@@ -147,6 +157,10 @@ public class FullPipelineDemo {
             System.setOut(OUT);
             //System.setErr(ERR);
         }
+        System.err.println("Annotation cache: " + AnnotationCache.getStats());
+        System.err.println("Extractors: " + SentenceSimplifier.getStatistics());
+        AnnotationCache.closeStore();
+        SentenceSimplifier.writeCache();
 
         if (cmdLine.hasOption(NO_OUTPUT)) {
             System.err.println("Skipping output to file. Writing to console instead.");
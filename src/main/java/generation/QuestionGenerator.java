@@ -1,6 +1,7 @@
 package generation;
 
 import com.google.common.base.Joiner;
+import edu.stanford.nlp.simple.Sentence;
 import simplenlg.features.Feature;
 import simplenlg.features.InterrogativeType;
 import simplenlg.features.Tense;
@@ -10,15 +11,25 @@ import simplenlg.phrasespec.NPPhraseSpec;
 import simplenlg.phrasespec.SPhraseSpec;
 import simplenlg.phrasespec.VPPhraseSpec;
 import simplenlg.realiser.english.Realiser;
-import tagging.StanfordCoreNlpClient;
+import util.TenseUtil;
 
 public class QuestionGenerator {
     private static final Lexicon lexicon = Lexicon.getDefaultLexicon();
     private static final NLGFactory nlgFactory = new NLGFactory(lexicon);
     private static final Realiser realiser = new Realiser(lexicon);
 
-    public static String generateLocationQuestion(String vp, String subject) {
-        final Tense tense = StanfordCoreNlpClient.calculateTense(vp);
+    /**
+     * Generates a question about where the subject did what the verb phrase says. The tense of the question is the
+     * tense of the verb phrase, from the tags of the sentence that it is part of.
+     *
+     * @param sentence     the annotated sentence that the verb phrase is part of
+     * @param vpStartIndex the index of the first word of the verb phrase in the sentence
+     * @param vp           the verb phrase
+     * @param subject      the subject of the verb phrase
+     * @return the question
+     */
+    public static String generateLocationQuestion(Sentence sentence, int vpStartIndex, String vp, String subject) {
+        final Tense tense = TenseUtil.calculateClauseTense(sentence, vpStartIndex);
         final VPPhraseSpec vpPhraseSpec = nlgFactory.createVerbPhrase(vp);
         vpPhraseSpec.setFeature(Feature.TENSE, tense);
         final NPPhraseSpec npPhraseSpec = nlgFactory.createNounPhrase(subject);
@@ -30,8 +41,19 @@ public class QuestionGenerator {
         return realiser.realiseSentence(sPhraseSpec);
     }
 
-    public static String generateNpVpQuestion(String np, String vp, InterrogativeType type) {
-        final Tense tense = StanfordCoreNlpClient.calculateTense(vp);
+    /**
+     * Generates a question about the noun phrase or the object of the verb phrase, in the tense of the verb phrase.
+     *
+     * @param sentence     the annotated sentence that the verb phrase is part of
+     * @param vpStartIndex the index of the first word of the verb phrase in the sentence
+     * @param np           the noun phrase
+     * @param vp           the verb phrase
+     * @param type         the type of the question
+     * @return the question
+     */
+    public static String generateNpVpQuestion(Sentence sentence, int vpStartIndex, String np, String vp,
+                                              InterrogativeType type) {
+        final Tense tense = TenseUtil.calculateClauseTense(sentence, vpStartIndex);
         final VPPhraseSpec vpPhraseSpec = nlgFactory.createVerbPhrase(vp);
         vpPhraseSpec.setFeature(Feature.TENSE, tense);
         final NPPhraseSpec npPhraseSpec = nlgFactory.createNounPhrase(np);
@@ -42,8 +64,19 @@ public class QuestionGenerator {
         return realiser.realiseSentence(sPhraseSpec);
     }
 
-    public static String generateCopulaQuestion(String np, String vp, InterrogativeType type) {
-        final Tense tense = StanfordCoreNlpClient.calculateTense(vp);
+    /**
+     * Generates a question about one side of a copula, in the tense of the verb phrase.
+     *
+     * @param sentence     the annotated sentence that the verb phrase is part of
+     * @param vpStartIndex the index of the first word of the verb phrase in the sentence
+     * @param np           the noun phrase
+     * @param vp           the verb phrase
+     * @param type         the type of the question
+     * @return the question
+     */
+    public static String generateCopulaQuestion(Sentence sentence, int vpStartIndex, String np, String vp,
+                                                InterrogativeType type) {
+        final Tense tense = TenseUtil.calculateClauseTense(sentence, vpStartIndex);
         final VPPhraseSpec vpPhraseSpec = nlgFactory.createVerbPhrase(vp);
         final NPPhraseSpec npPhraseSpec = nlgFactory.createNounPhrase(np);
 
@@ -2,13 +2,13 @@ package generation;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
-import edu.stanford.nlp.simple.Sentence;
 import simplenlg.features.Feature;
 import simplenlg.features.Tense;
 import simplenlg.framework.NLGFactory;
 import simplenlg.lexicon.Lexicon;
 import simplenlg.phrasespec.VPPhraseSpec;
 import simplenlg.realiser.english.Realiser;
+import tagging.AnnotationCache;
 
 import java.util.Map;
 import java.util.Map.Entry;
@@ -78,7 +78,7 @@ public class TextRealization {
      */
     public static String realizeVerbPhraseWithFeatures(String vp, boolean passiveVoice, Tense tense) {
         final String verb = vp.split(" ")[0];
-        final String lemma = new Sentence(verb).lemma(0);
+        final String lemma = AnnotationCache.annotate(verb).lemma(0);
         System.out.printf("Realizing verb '%s' (lemma '%s')\n", verb, lemma);
         final String[] parts = vp.split(" ");
         parts[0] = lemma;
@@ -104,7 +104,7 @@ public class TextRealization {
      */
     public static String realizeVerbPhraseWithFeatures(String vp, Map<String, Object> features) {
         final String verb = vp.split(" ")[0];
-        final String lemma = new Sentence(verb).lemma(0);
+        final String lemma = AnnotationCache.annotate(verb).lemma(0);
         System.out.printf("Realizing verb '%s' (lemma '%s')\n", verb, lemma);
         final String[] parts = vp.split(" ");
         parts[0] = lemma;
@@ -134,7 +134,7 @@ public class TextRealization {
      */
     public static boolean isIntransitive(String vp) {
         final String verb = vp.split(" ")[0];
-        final String lemma = new Sentence(verb).lemma(0);
+        final String lemma = AnnotationCache.annotate(verb).lemma(0);
         return INTRANSITIVE_VERBS.contains(lemma);
     }
 }
@@ -4,6 +4,8 @@ import com.google.common.base.Joiner;
 import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import generation.TextRealization;
+import util.IndexedTree;
+import util.PennTreebankLabel;
 import util.TreeUtil;
 
 import java.util.HashSet;
@@ -33,7 +35,7 @@ public class EquativeCopulaRule extends Rule {
 
     @Override
     protected void findQuestions(Sentence sentence, Set<String> questions) {
-        final Tree root = sentence.parse();
+        final IndexedTree root = indexParse(sentence);
         final List<String> words = sentence.words();
         final List<String> lemmas = sentence.lemmas();
         for (int i = 1; i < lemmas.size(); i++) {
@@ -41,20 +43,20 @@ public class EquativeCopulaRule extends Rule {
             if (lemma.equals("be")) {
                 final Tree governorTree = TreeUtil.getHighestNpFromWord(root, i - 1);
                 System.out.println(governorTree);
-                final Tree beVpTree = TreeUtil.getVpFromWord(root, root.getLeaves().get(i));
+                final Tree beVpTree = TreeUtil.getVpFromWord(root, root.getLeaf(i));
                 System.out.println(beVpTree);
                 if (governorTree != null && beVpTree != null && beVpTree.numChildren() > 1) {
                     final Tree dependentTree = beVpTree.getChild(1);
-                    if (TreeUtil.labelEquals(dependentTree, "np")) {
-                        final String governorString = TreeUtil.constructPhraseFromTree(governorTree);
+                    if (TreeUtil.labelIs(root, dependentTree, PennTreebankLabel.NP)) {
+                        final String governorString = TreeUtil.constructPhraseFromTree(root, governorTree);
                         final StringBuilder dependentString = new StringBuilder(
-                                TreeUtil.constructPhraseFromTree(dependentTree));
+                                TreeUtil.constructPhraseFromTree(root, dependentTree));
                         for (int k = 2; k < beVpTree.numChildren(); k++) {
                             final Tree child = beVpTree.getChild(k);
-                            if (TreeUtil.labelEquals(child, "vp")) {
+                            if (TreeUtil.labelIs(root, child, PennTreebankLabel.VP)) {
                                 break;
                             }
-                            dependentString.append(" ").append(TreeUtil.constructPhraseFromTree(child));
+                            dependentString.append(" ").append(TreeUtil.constructPhraseFromTree(root, child));
                         }
 
                         final String wh;
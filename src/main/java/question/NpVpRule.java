@@ -1,13 +1,23 @@
 package question;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ComparisonChain;
 import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
+import tagging.AnnotationCache;
+import util.IndexedTree;
 import util.NerUtil;
+import util.PennTreebankLabel;
 import util.PosUtil;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static generation.TextRealization.isIntransitive;
@@ -34,76 +44,88 @@ public class NpVpRule extends Rule {
 
     @Override
     protected void findQuestions(Sentence sentence, Set<String> questions) {
-        final Tree root = sentence.parse();
-        for (int i = 1; i < root.size(); i++) {
-            final Tree node = root.getNodeNumber(i);
-            for (int k = 0; k < node.numChildren() - 1; k++) {
-                final Tree child = node.getChild(k);
-                Tree nextSibling = node.getChild(k + 1);
-                if (TreeUtil.labelEquals(nextSibling, ",") && k + 2 < node.numChildren()) {
-                    System.out.println("Skipping over comma");
-                    nextSibling = node.getChild(k + 2);
-                }
-                if (TreeUtil.labelEquals(child, "np") && TreeUtil.labelEquals(nextSibling, "vp")) {
-                    System.out.printf("Examining NP [%s] and VP [%s]\n", child, nextSibling);
-                    final String wh = NerUtil.getWhFromHead(sentence, root, child);
-                    boolean passive = false;
-                    boolean past = false;
-                    for (final Tree vpLeaf : nextSibling.getLeaves()) {
-                        // If we reach a noun then don't look for 'by' afterwards
-                        if (PosUtil.isNoun(root, vpLeaf)) {
-                            break;
-                        }
-                        // Passive voice is marked by the word 'by'
-                        if (vpLeaf.value().equals("by")) {
-                            passive = true;
-                        }
-                    }
-                    final int verbHeadIndex = TreeUtil.findIndexOfHead(root, nextSibling);
-                    final Tree verbHead = root.getLeaves().get(verbHeadIndex);
-                    if (PosUtil.isPastTenseVerb(sentence, verbHeadIndex)) {
-                        past = true;
-                    }
+        final IndexedTree root = indexParse(sentence);
+        final List<TreeMatch> matches = new ArrayList<>(TreePatterns.findMatches(root, TreePatterns.NP_BEFORE_VP));
+        matches.addAll(TreePatterns.findMatches(root, TreePatterns.NP_BEFORE_COMMA_AND_VP));
+        // Examine the pairs parent by parent in pre-order and then from left to right, so the questions are found in
+        // the same order whether or not there is a comma between the NP and the VP
+        Collections.sort(matches, new Comparator<TreeMatch>() {
+            @Override
+            public int compare(TreeMatch first, TreeMatch second) {
+                final int firstNp = root.getNodeNumber(first.getNode());
+                final int secondNp = root.getNodeNumber(second.getNode());
+                return ComparisonChain.start()
+                        .compare(root.getParent(firstNp), root.getParent(secondNp))
+                        .compare(firstNp, secondNp)
+                        .result();
+            }
+        });
+        for (final TreeMatch match : matches) {
+            if (root.getNextSibling(root.getNodeNumber(match.getNode())) != match.getNodeNumber("vp")) {
+                System.out.println("Skipping over comma");
+            }
+            findQuestions(sentence, root, match.getNode(), match.getNode("vp"), questions);
+        }
+    }
 
-                    final String verbString = TreeUtil.constructPhraseFromTree(nextSibling);
-                    if (passive && !(verbString.startsWith("is") || verbString.startsWith("was"))) {
-                        final String vb;
-                        if (past) {
-                            vb = "was";
-                        } else {
-                            vb = "is";
-                        }
-                        questions.add(realizeQuestion(wh, vb, verbString));
-                    } else {
-                        questions.add(realizeQuestion(wh, verbString));
-                    }
+    private static void findQuestions(Sentence sentence, IndexedTree root, Tree np, Tree vp, Set<String> questions) {
+        System.out.printf("Examining NP [%s] and VP [%s]\n", np, vp);
+        final String wh = NerUtil.getWhFromHead(sentence, root, np);
+        boolean passive = false;
+        boolean past = false;
+        for (final Tree vpLeaf : vp.getLeaves()) {
+            // If we reach a noun then don't look for 'by' afterwards
+            if (PosUtil.isNoun(root, vpLeaf)) {
+                break;
+            }
+            // Passive voice is marked by the word 'by'
+            if (vpLeaf.value().equals("by")) {
+                passive = true;
+            }
+        }
+        final int verbHeadIndex = TreeUtil.findIndexOfHead(root, vp);
+        final Tree verbHead = root.getLeaf(verbHeadIndex);
+        if (PosUtil.isPastTenseVerb(sentence, verbHeadIndex)) {
+            past = true;
+        }
 
-                    Tree npInVp = null;
-                    for (final Tree verbPhraseChild : nextSibling.children()) {
-                        if (TreeUtil.labelEquals(verbPhraseChild, "np")) {
-                            npInVp = verbPhraseChild;
-                            break;
-                        }
-                    }
-                    if (npInVp != null && !isIntransitive(TreeUtil.constructPhraseFromTree(verbHead))) {
-                        System.out.println("NP under VP: " + npInVp);
-                        final String verbLemma = new Sentence(TreeUtil.constructPhraseFromTree(verbHead)).lemma(0);
-                        if (verbLemma.equalsIgnoreCase("be")) {
-                            System.out.println("Ignoring 'be' VP");
-                        } else {
-                            final String whNpInVp = NerUtil.getWhFromHead(sentence, root, npInVp);
-                            final String doString;
-                            if (past) {
-                                doString = "did";
-                            } else {
-                                doString = "does";
-                            }
-                            final String subjectString = TreeUtil.constructPhraseFromTree(child);
+        final String verbString = TreeUtil.constructPhraseFromTree(root, vp);
+        if (passive && !(verbString.startsWith("is") || verbString.startsWith("was"))) {
+            final String vb;
+            if (past) {
+                vb = "was";
+            } else {
+                vb = "is";
+            }
+            questions.add(realizeQuestion(wh, vb, verbString));
+        } else {
+            questions.add(realizeQuestion(wh, verbString));
+        }
 
-                            questions.add(realizeQuestion(whNpInVp, doString, subjectString, verbLemma));
-                        }
-                    }
+        Tree npInVp = null;
+        for (final Tree verbPhraseChild : vp.children()) {
+            if (TreeUtil.labelIs(root, verbPhraseChild, PennTreebankLabel.NP)) {
+                npInVp = verbPhraseChild;
+                break;
+            }
+        }
+        if (npInVp != null && !isIntransitive(TreeUtil.constructPhraseFromTree(root, verbHead))) {
+            System.out.println("NP under VP: " + npInVp);
+            final String verbHeadString = TreeUtil.constructPhraseFromTree(root, verbHead);
+            final String verbLemma = AnnotationCache.annotate(verbHeadString).lemma(0);
+            if (verbLemma.equalsIgnoreCase("be")) {
+                System.out.println("Ignoring 'be' VP");
+            } else {
+                final String whNpInVp = NerUtil.getWhFromHead(sentence, root, npInVp);
+                final String doString;
+                if (past) {
+                    doString = "did";
+                } else {
+                    doString = "does";
                 }
+                final String subjectString = TreeUtil.constructPhraseFromTree(root, np);
+
+                questions.add(realizeQuestion(whNpInVp, doString, subjectString, verbLemma));
             }
         }
     }
@@ -5,8 +5,12 @@ import com.google.common.collect.ImmutableSet;
 import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import simplenlg.features.Tense;
+import util.IndexedTree;
 import util.NerUtil;
+import util.PennTreebankLabel;
 import util.TenseUtil;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 import util.Vp;
 
@@ -15,7 +19,6 @@ import java.util.Set;
 
 import static generation.TextRealization.realizeQuestion;
 import static util.TreeUtil.getLabel;
-import static util.TreeUtil.labelEquals;
 
 public class PpRule extends Rule {
     private static final Set<String> WHERE_PP_BLACKLIST = ImmutableSet.of("by");
@@ -42,82 +45,75 @@ public class PpRule extends Rule {
     @Override
     protected void findQuestions(Sentence sentence, Set<String> questions) {
         System.out.println(sentence);
-        final Tree root = sentence.parse();
-        for (int i = 1; i < root.size(); i++) {
-            final Tree node = root.getNodeNumber(i);
-            if (labelEquals(node, "pp")) {
-                final Tree parent = TreeUtil.getParent(root, node);
-                if (labelEquals(parent, "vp")) {
-                    final Tree ppTree = node;
-                    final Tree secondChildOfPp = ppTree.getChild(1);
-                    if (labelEquals(secondChildOfPp, "np")) {
-                        System.out.println("NP under PP: " + secondChildOfPp);
-
-                        String wh = null;
-                        if (NerUtil.headOfTreeIsLocation(sentence, root, secondChildOfPp)) {
-                            if (WHERE_PP_BLACKLIST.contains(getLabel(node.getLeaves().get(0)))) {
-                                continue;
-                            }
-                            System.out.println("NP under PP is a location");
-                            wh = "where";
-                        } else if (NerUtil.headOfTreeIsTime(sentence, root, secondChildOfPp)) {
-                            if (WHEN_PP_BLACKLIST.contains(getLabel(node.getLeaves().get(0)))) {
-                                continue;
-                            }
-                            System.out.println("NP under PP is a date or time");
-                            wh = "when";
+        final IndexedTree root = indexParse(sentence);
+        for (final TreeMatch match : TreePatterns.findMatches(root, TreePatterns.PP_UNDER_VP)) {
+            final Tree ppTree = match.getNode();
+            final Tree parent = match.getNode("vp");
+            final Tree secondChildOfPp = match.getNode("np");
+            System.out.println("NP under PP: " + secondChildOfPp);
+
+            String wh = null;
+            if (NerUtil.headOfTreeIsLocation(sentence, root, secondChildOfPp)) {
+                if (WHERE_PP_BLACKLIST.contains(getLabel(ppTree.getLeaves().get(0)))) {
+                    continue;
+                }
+                System.out.println("NP under PP is a location");
+                wh = "where";
+            } else if (NerUtil.headOfTreeIsTime(sentence, root, secondChildOfPp)) {
+                if (WHEN_PP_BLACKLIST.contains(getLabel(ppTree.getLeaves().get(0)))) {
+                    continue;
+                }
+                System.out.println("NP under PP is a date or time");
+                wh = "when";
+            }
+
+            if (wh != null) {
+                final Vp fullVp = TreeUtil.getFullVpFromTree(root, ppTree);
+                System.out.println("VP above PP: " + fullVp);
+                final Tense tense = TenseUtil.calculateTense(sentence);
+
+                final Tree firstNp = TreeUtil.getFirstNp(root);
+                if (firstNp == null) {
+                    continue;
+                }
+                final String subject = TreeUtil.constructPhraseFromTree(root, firstNp);
+
+                final StringBuilder lastString = new StringBuilder();
+                for (int k = 1; k < parent.numChildren(); k++) {
+                    final Tree vpChild = parent.getChild(k);
+                    final PennTreebankLabel label = root.getCategory(vpChild);
+                    if (label == PennTreebankLabel.NP || label == PennTreebankLabel.ADJP) {
+                        if (lastString.length() > 0) {
+                            lastString.append(' ');
                         }
+                        lastString.append(TreeUtil.constructPhraseFromTree(root, vpChild));
+                    }
+                }
 
-                        if (wh != null) {
-                            final Vp fullVp = TreeUtil.getFullVpFromTree(root, ppTree);
-                            System.out.println("VP above PP: " + fullVp);
-                            final Tense tense = TenseUtil.calculateTense(sentence);
-
-                            final Tree firstNp = TreeUtil.getFirstNp(root);
-                            if (firstNp == null) {
-                                continue;
-                            }
-                            final String subject = TreeUtil.constructPhraseFromTree(firstNp);
-
-                            final StringBuilder lastString = new StringBuilder();
-                            for (int k = 1; k < parent.numChildren(); k++) {
-                                final Tree vpChild = parent.getChild(k);
-                                if (labelEquals(vpChild, "np") || labelEquals(vpChild, "adjp")) {
-                                    if (lastString.length() > 0) {
-                                        lastString.append(' ');
-                                    }
-                                    lastString.append(TreeUtil.constructPhraseFromTree(vpChild));
-                                }
-                            }
-
-                            final String secondWord;
-                            final String remainingVp;
-                            if (fullVp.hasAuxiliary()) {
-                                secondWord = fullVp.getFirstAuxiliary();
-                                remainingVp = fullVp.getAllButFirstAuxiliary();
-                            } else {
-                                if (tense == Tense.PAST) {
-                                    secondWord = "did";
-                                } else {
-                                    if (TreeUtil.npIsPlural(firstNp)) {
-                                        secondWord = "do";
-                                    } else {
-                                        secondWord = "does";
-                                    }
-                                }
-                                final int vpLeafIndex = TreeUtil.getLeafIndex(root, parent.getLeaves().get(0));
-                                remainingVp = sentence.lemma(vpLeafIndex);
-                            }
-
-                            if (remainingVp.equalsIgnoreCase("be")) {
-                                questions.add(realizeQuestion(wh, fullVp.getAllButFirstAuxiliary(), subject,
-                                        lastString.toString()));
-                            } else {
-                                questions.add(
-                                        realizeQuestion(wh, secondWord, subject, remainingVp, lastString.toString()));
-                            }
+                final String secondWord;
+                final String remainingVp;
+                if (fullVp.hasAuxiliary()) {
+                    secondWord = fullVp.getFirstAuxiliary();
+                    remainingVp = fullVp.getAllButFirstAuxiliary();
+                } else {
+                    if (tense == Tense.PAST) {
+                        secondWord = "did";
+                    } else {
+                        if (TreeUtil.npIsPlural(root, firstNp)) {
+                            secondWord = "do";
+                        } else {
+                            secondWord = "does";
                         }
                     }
+                    final int vpLeafIndex = root.getFirstLeafIndex(parent);
+                    remainingVp = sentence.lemma(vpLeafIndex);
+                }
+
+                if (remainingVp.equalsIgnoreCase("be")) {
+                    questions.add(realizeQuestion(wh, fullVp.getAllButFirstAuxiliary(), subject,
+                            lastString.toString()));
+                } else {
+                    questions.add(realizeQuestion(wh, secondWord, subject, remainingVp, lastString.toString()));
                 }
             }
         }
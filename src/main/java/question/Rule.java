@@ -1,6 +1,9 @@
 package question;
 
 import edu.stanford.nlp.simple.Sentence;
+import tagging.AnnotatedSentence;
+import tagging.AnnotationCache;
+import util.IndexedTree;
 
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -10,7 +13,7 @@ public abstract class Rule {
         final Set<String> questions = new LinkedHashSet<>();
         System.out.println("Starting " + getRuleName() + " scanning\n-----------------------------------");
         System.out.println("Examining: '" + sentence + "'");
-        final Sentence parsedSentence = new Sentence(sentence);
+        final Sentence parsedSentence = AnnotationCache.annotate(sentence);
         findQuestions(parsedSentence, questions);
         System.out.println("\nGenerated Questions:\n" + questions);
         System.out.println("-----------------------------------\nEnding " + getRuleName() + " scanning");
@@ -20,4 +23,18 @@ public abstract class Rule {
     protected abstract void findQuestions(Sentence sentence, Set<String> questions);
 
     protected abstract String getRuleName();
+
+    /**
+     * Returns the index of the constituency parse of the given sentence, shared with other rules if the sentence is an
+     * {@link AnnotatedSentence}.
+     *
+     * @param sentence the given sentence
+     * @return the index of the parse of the given sentence
+     */
+    protected static IndexedTree indexParse(Sentence sentence) {
+        if (sentence instanceof AnnotatedSentence) {
+            return ((AnnotatedSentence) sentence).indexedParse();
+        }
+        return new IndexedTree(sentence.parse());
+    }
 }
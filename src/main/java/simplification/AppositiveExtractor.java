@@ -3,14 +3,15 @@ package simplification;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import edu.stanford.nlp.ling.IndexedWord;
-import edu.stanford.nlp.semgraph.SemanticGraph;
 import edu.stanford.nlp.semgraph.SemanticGraphEdge;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import simplenlg.features.Tense;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.RelationIndex;
+import util.SentenceFeatures;
+import util.SpanMask;
 import util.TreeUtil;
 import util.WordListUtil;
 
@@ -41,18 +42,18 @@ public class AppositiveExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final Tree root = parsed.parse();
-        final List<String> words = parsed.words();
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final IndexedTree root = sentence.indexedParse();
+        final List<String> words = sentence.words();
+        final SentenceFeatures features = sentence.features();
         System.out.println("Original sentence: " + words);
 
-        final SemanticGraph dependencies = parsed.dependencyGraph();
+        final RelationIndex dependencies = sentence.parseDependencyRelations();
         final List<SemanticGraphEdge> appositivesAndRelativeClauses = new ArrayList<>();
-        appositivesAndRelativeClauses.addAll(dependencies.findAllRelns(APPOSITIONAL_MODIFIER));
+        appositivesAndRelativeClauses.addAll(dependencies.getEdges(APPOSITIONAL_MODIFIER));
         System.out.println("Relations: " + appositivesAndRelativeClauses);
 
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new HashSet<>();
         for (final SemanticGraphEdge edge : appositivesAndRelativeClauses) {
             // IndexedWord index is 1-based not 0-based
@@ -60,7 +61,7 @@ public class AppositiveExtractor implements Extractor {
             final Tree governorTree = TreeUtil.getNpFromWord(root, governor);
 
             final IndexedWord dependent = edge.getDependent();
-            final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, parsed);
+            final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, features);
             if (boundedPart != null) {
                 partsToRemove.add(boundedPart);
 
@@ -70,7 +71,7 @@ public class AppositiveExtractor implements Extractor {
                 final String dependentString = WordListUtil.constructPhraseFromWordList(
                         words.subList(boundedPart.lowerEndpoint() + 1, boundedPart.upperEndpoint()));
                 simplifiedSentences.add(realizeSentence(beforeString, dependentString, afterString));
-                simplifiedSentences.addAll(generateSimplifiedSentences(edge, parsed, boundedPart));
+                simplifiedSentences.addAll(generateSimplifiedSentences(edge, sentence, boundedPart));
             }
         }
 
@@ -82,7 +83,8 @@ public class AppositiveExtractor implements Extractor {
         return new SimplificationResult(simplifiedSentences);
     }
 
-    private static Set<String> generateSimplifiedSentences(SemanticGraphEdge edge, Sentence sentence, Range<Integer> dependentRange) {
+    private static Set<String> generateSimplifiedSentences(SemanticGraphEdge edge, AnnotatedSentence sentence,
+                                                           Range<Integer> dependentRange) {
         final List<String> dependentWordList = sentence.words().subList(dependentRange.lowerEndpoint(),
                 dependentRange.upperEndpoint() + 1);
         final List<String> dependentWordListNoPunctuation = new ArrayList<>();
@@ -94,9 +96,9 @@ public class AppositiveExtractor implements Extractor {
         final String dependentString = WordListUtil.constructPhraseFromWordList(dependentWordListNoPunctuation);
 
         final IndexedWord governor = edge.getGovernor();
-        final Tree root = sentence.parse();
+        final IndexedTree root = sentence.indexedParse();
         final Tree governorNp = TreeUtil.getNpFromWord(root, governor);
-        final String governorNpString = TreeUtil.constructPhraseFromTree(governorNp);
+        final String governorNpString = TreeUtil.constructPhraseFromTree(root, governorNp);
 
         final Tense tense = calculateTense(sentence);
         final String be;
@@ -1,20 +1,27 @@
 package simplification;
 
 import com.google.common.base.Joiner;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.PennTreebankLabel;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 import static generation.TextRealization.realizeSentence;
-import static util.TreeUtil.labelEquals;
+import static util.TreeUtil.labelIs;
 import static util.TreeUtil.treeIsAndConjunction;
 
 public class ConjoinedVerbPhraseExtractor implements Extractor {
+    private static final Pattern AND = Pattern.compile("and", Pattern.CASE_INSENSITIVE);
+
     private static ConjoinedVerbPhraseExtractor extractor;
 
     private ConjoinedVerbPhraseExtractor() {
@@ -33,41 +40,42 @@ public class ConjoinedVerbPhraseExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
+    public boolean canSimplify(String sentence) {
+        // The conjoined verbs are found by the conjunction "and" between them
+        return AND.matcher(sentence).find();
+    }
+
+    @Override
+    public SimplificationResult extract(AnnotatedSentence sentence) {
         final Set<String> simplifiedSentences = new HashSet<>();
-        final Sentence parsed = new Sentence(sentence);
-        final Tree root = parsed.parse();
-        for (int i = 1; i < root.size(); i++) {
-            final Tree tree = root.getNodeNumber(i);
-            if (labelEquals(tree, "vp")) {
-                boolean hasConjoinedVpChildren = false;
-                final List<Tree> vps = new ArrayList<>();
-                final StringBuilder nonVps = new StringBuilder();
-                for (final Tree child : tree.children()) {
-                    if (treeIsAndConjunction(child)) {
-                        hasConjoinedVpChildren = true;
-                    } else if (labelEquals(child, "vp")) {
-                        vps.add(child);
-                    } else {
-                        if (nonVps.length() > 0) {
-                            nonVps.append(" ");
-                        }
-                        nonVps.append(TreeUtil.constructPhraseFromTree(child));
-                    }
+        final IndexedTree root = sentence.indexedParse();
+        for (final TreeMatch match : TreePatterns.findMatches(root, TreePatterns.VP_WITH_AND)) {
+            final Tree tree = match.getNode();
+            final List<Tree> vps = new ArrayList<>();
+            final StringBuilder nonVps = new StringBuilder();
+            for (final Tree child : tree.children()) {
+                if (treeIsAndConjunction(child)) {
+                    continue;
                 }
-                if (hasConjoinedVpChildren) {
-                    final String stringBeforeTree = TreeUtil.getStringBeforeTree(root, tree);
-                    final String stringAfterTree = TreeUtil.getStringAfterTree(root, tree);
-                    for (final Tree vp : vps) {
-                        final String vpString = TreeUtil.constructPhraseFromTree(vp);
-                        simplifiedSentences.add(
-                                realizeSentence(stringBeforeTree, vpString, nonVps.toString(), stringAfterTree));
+                if (labelIs(root, child, PennTreebankLabel.VP)) {
+                    vps.add(child);
+                } else {
+                    if (nonVps.length() > 0) {
+                        nonVps.append(" ");
                     }
+                    nonVps.append(TreeUtil.constructPhraseFromTree(root, child));
                 }
             }
+            final String stringBeforeTree = TreeUtil.getStringBeforeTree(root, tree);
+            final String stringAfterTree = TreeUtil.getStringAfterTree(root, tree);
+            for (final Tree vp : vps) {
+                final String vpString = TreeUtil.constructPhraseFromTree(root, vp);
+                simplifiedSentences.add(
+                        realizeSentence(stringBeforeTree, vpString, nonVps.toString(), stringAfterTree));
+            }
         }
         if (simplifiedSentences.isEmpty()) {
-            simplifiedSentences.add(sentence);
+            simplifiedSentences.add(sentence.text());
         }
         return new SimplificationResult(simplifiedSentences);
     }
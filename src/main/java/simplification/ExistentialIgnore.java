@@ -1,13 +1,17 @@
 package simplification;
 
 import com.google.common.collect.ImmutableSet;
-import edu.stanford.nlp.simple.Sentence;
-import edu.stanford.nlp.trees.Tree;
+import tagging.AnnotatedSentence;
+import util.CompactTree;
+import util.PennTreebankLabel;
 import util.TreeUtil;
 
 import java.util.Collections;
+import java.util.regex.Pattern;
 
 public class ExistentialIgnore implements Extractor {
+    private static final Pattern THERE = Pattern.compile("there", Pattern.CASE_INSENSITIVE);
+
     private static ExistentialIgnore extractor;
 
     private ExistentialIgnore() {
@@ -21,16 +25,21 @@ public class ExistentialIgnore implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final Tree root = parsed.parse();
-        for (final Tree leaf : root.getLeaves()) {
-            final Tree posTag = TreeUtil.getParent(root, leaf);
-            if (TreeUtil.labelEquals(posTag, "ex")) {
+    public boolean canSimplify(String sentence) {
+        // Only "there" is tagged as an existential
+        return THERE.matcher(sentence).find();
+    }
+
+    @Override
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final CompactTree tree = sentence.compactParse();
+        for (int i = 0; i < tree.getLeafCount(); i++) {
+            final int posTag = TreeUtil.getParent(tree, tree.getLeafNode(i));
+            if (TreeUtil.labelIs(tree, posTag, PennTreebankLabel.EX)) {
                 System.out.println("Found evidence of existential sentence: Aborting!");
                 return new SimplificationResult(Collections.<String>emptySet());
             }
         }
-        return new SimplificationResult(ImmutableSet.of(sentence));
+        return new SimplificationResult(ImmutableSet.of(sentence.text()));
     }
 }
@@ -0,0 +1,216 @@
+package simplification;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Splitter;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import tagging.AnnotationCache;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache of the results of an {@link Extractor} keyed by the text of the sentence it was given.
+ * <p>
+ * The same intermediate sentence can reach an extractor from several sentences of the previous stage, and the same
+ * sentences recur across a corpus. The cache returns the result of the first extraction for each sentence, so the
+ * sentence is neither annotated nor extracted again. It is bounded by the number of sentences, which can be set with
+ * the {@code simplifier.cache.maxSentences} system property, and is safe to use from several threads.
+ * <p>
+ * Like {@link AnnotationCache}, sentences are keyed by their exact text rather than by the canonical form used by
+ * {@link data.Text}: the extractors build their results from the words of the sentence, so two sentences that are equal
+ * as {@link data.Text}s can have different results. The simplifier already keeps one sentence of each group of equal
+ * {@link data.Text}s between its stages.
+ * <p>
+ * The caches of all of the extractors can be written to and read from a text file. Its first line holds the version of
+ * the format, followed by one line per cached sentence, holding the name of the extractor, the sentence and its
+ * simplified sentences separated by tabs. The name of an extractor includes a hash of its class file, so the results
+ * of an extractor whose class changed are not read again. A change to the code that the extractors share, such as the
+ * tree utilities, is not seen by the hash and needs {@link #FORMAT_VERSION} to be increased.
+ */
+final class ExtractionCache {
+    private static final long MAX_SENTENCES = Long.getLong("simplifier.cache.maxSentences", 10000L);
+    private static final char SEPARATOR = '\t';
+    private static final String HEADER = "extraction-cache";
+    /**
+     * The version of the file format and of the results it holds, which is increased when either changes in a way that
+     * the hashes of the extractor classes do not capture.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private final String name;
+    private final LoadingCache<String, SimplificationResult> cache;
+
+    /**
+     * Creates an empty cache of the results of the given extractor.
+     *
+     * @param extractor the given extractor
+     */
+    ExtractionCache(final Extractor extractor) {
+        this.name = getName(extractor);
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(MAX_SENTENCES)
+                .recordStats()
+                .build(new CacheLoader<String, SimplificationResult>() {
+                    @Override
+                    public SimplificationResult load(String sentence) {
+                        return extractor.extract(AnnotationCache.annotate(sentence));
+                    }
+                });
+    }
+
+    /**
+     * Returns the result of the extractor for the given sentence, annotating and extracting the sentence if it is not
+     * already cached. Threads that ask for the same sentence at the same time wait for a single extraction.
+     *
+     * @param sentence the given sentence
+     * @return the result of the extractor
+     */
+    SimplificationResult extract(String sentence) {
+        try {
+            return cache.getUnchecked(sentence);
+        } catch (UncheckedExecutionException e) {
+            // Rethrow the exceptions of the extractor as if it had been called directly
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the cache since the start of the process.
+     *
+     * @return the statistics of the cache
+     */
+    CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Reads the cached results in the given file into the caches of the extractors that they belong to. Lines of
+     * extractors that have no cache or whose class has changed are skipped, and a file of another format version is
+     * not read at all.
+     *
+     * @param file   the given file
+     * @param caches the caches of the extractors
+     * @return the number of cached results that were read
+     * @throws IOException if the file cannot be read
+     */
+    static int read(File file, List<ExtractionCache> caches) throws IOException {
+        final Map<String, ExtractionCache> cachesByName = new HashMap<>();
+        for (final ExtractionCache extractionCache : caches) {
+            cachesByName.put(extractionCache.name, extractionCache);
+        }
+        final Splitter splitter = Splitter.on(SEPARATOR);
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), Charsets.UTF_8)) {
+            String line = reader.readLine();
+            if (!getHeader().equals(line)) {
+                System.err.println("Ignoring extractor cache " + file + " of another format version");
+                return 0;
+            }
+            while ((line = reader.readLine()) != null) {
+                final List<String> fields = splitter.splitToList(line);
+                final ExtractionCache extractionCache = cachesByName.get(fields.get(0));
+                if (extractionCache == null || fields.size() < 2) {
+                    continue;
+                }
+                extractionCache.cache.put(fields.get(1),
+                        new SimplificationResult(ImmutableSet.copyOf(fields.subList(2, fields.size()))));
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes the cached results of the given caches to the given file, replacing its contents once every result is
+     * written. Results with a tab or a line break in one of their sentences are not written.
+     *
+     * @param file   the given file
+     * @param caches the caches of the extractors
+     * @return the number of cached results that were written
+     * @throws IOException if the file cannot be written
+     */
+    static int write(File file, List<ExtractionCache> caches) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        final File temporaryFile = new File(parent, file.getName() + ".tmp");
+        int count = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(temporaryFile.toPath(), Charsets.UTF_8)) {
+            writer.write(getHeader());
+            writer.newLine();
+            for (final ExtractionCache extractionCache : caches) {
+                final String name = extractionCache.name;
+                for (final Map.Entry<String, SimplificationResult> entry : extractionCache.cache.asMap().entrySet()) {
+                    if (!canWrite(entry.getKey(), entry.getValue())) {
+                        continue;
+                    }
+                    writer.write(name);
+                    writer.write(SEPARATOR);
+                    writer.write(entry.getKey());
+                    for (final String simplifiedSentence : entry.getValue().getSimplifiedSentences()) {
+                        writer.write(SEPARATOR);
+                        writer.write(simplifiedSentence);
+                    }
+                    writer.newLine();
+                    count++;
+                }
+            }
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return count;
+    }
+
+    private static boolean canWrite(String sentence, SimplificationResult result) {
+        if (!canWrite(sentence)) {
+            return false;
+        }
+        for (final String simplifiedSentence : result.getSimplifiedSentences()) {
+            if (!canWrite(simplifiedSentence)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean canWrite(String sentence) {
+        return sentence.indexOf(SEPARATOR) == -1 && sentence.indexOf('\n') == -1 && sentence.indexOf('\r') == -1;
+    }
+
+    private static String getHeader() {
+        return HEADER + SEPARATOR + FORMAT_VERSION;
+    }
+
+    /**
+     * Returns the name of the given extractor in the file, which is the simple name of its class followed by a hash of
+     * its class file.
+     */
+    private static String getName(Extractor extractor) {
+        final Class<?> extractorClass = extractor.getClass();
+        final String className = extractorClass.getName();
+        final String classFileName = className.substring(className.lastIndexOf('.') + 1) + ".class";
+        try {
+            final byte[] classFile = Resources.toByteArray(Resources.getResource(extractorClass, classFileName));
+            return extractorClass.getSimpleName() + '@' + Hashing.md5().hashBytes(classFile);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot read the class file of " + className, e);
+        }
+    }
+}
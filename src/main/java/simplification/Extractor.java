@@ -1,16 +1,54 @@
 package simplification;
 
+import com.google.common.collect.ImmutableSet;
+import tagging.AnnotatedSentence;
+
 /**
  * A system for simplifying a sentence by extracting syntactic constructions and possibly using those constructions to
  * generate questions.
  */
 public interface Extractor {
 
+    /**
+     * Simplifies the given sentence by removing certain syntactic constructions. Implementations should read all
+     * annotations from the given sentence instead of annotating its text again.
+     *
+     * @param sentence the given annotated sentence
+     * @return the result of the extraction
+     */
+    SimplificationResult extract(AnnotatedSentence sentence);
+
     /**
      * Simplifies the given sentence by removing certain syntactic constructions.
      *
      * @param sentence the given sentence
      * @return the result of the extraction
      */
-    SimplificationResult extract(String sentence);
+    default SimplificationResult extract(String sentence) {
+        return extract(new AnnotatedSentence(sentence));
+    }
+
+    /**
+     * Returns whether this extractor might simplify the given sentence, judging only from its text. This is a cheap
+     * check of the words that the extractor looks for, so that sentences without them do not need to be annotated. The
+     * default implementation assumes that every sentence might be simplified.
+     *
+     * @param sentence the given sentence
+     * @return {@code false} if the extractor cannot simplify the sentence
+     */
+    default boolean canSimplify(String sentence) {
+        return true;
+    }
+
+    /**
+     * Returns the result of the extraction for a sentence that this extractor cannot simplify according to
+     * {@link #canSimplify(String)}, which is the same as the result of {@link #extract(AnnotatedSentence)} for the
+     * sentence. The default implementation returns the sentence unchanged.
+     *
+     * @param sentence the given sentence
+     * @return the result of the extraction
+     */
+    default SimplificationResult passThrough(String sentence) {
+        return new SimplificationResult(ImmutableSet.of(sentence));
+    }
 }
@@ -1,18 +1,20 @@
 package simplification;
 
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import generation.TextRealization;
 import simplenlg.features.Tense;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.SentenceFeatures;
+import util.SpanMask;
 import util.TreeUtil;
 import util.WordListUtil;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -22,6 +24,7 @@ import java.util.regex.Pattern;
 public class ParentheticalExtractor implements Extractor {
     private static final String LEFT_PARENTHESIS = "-LRB-";
     private static final String RIGHT_PARENTHESIS = "-RRB-";
+    private static final Pattern PARENTHESIS = Pattern.compile("[()]|-[LR]RB-", Pattern.CASE_INSENSITIVE);
 
     private static ParentheticalExtractor extractor;
 
@@ -36,14 +39,27 @@ public class ParentheticalExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final List<String> words = parsed.words();
+    public boolean canSimplify(String sentence) {
+        // The tokenizer turns parentheses into -LRB- and -RRB-, which may also be in the text already
+        return PARENTHESIS.matcher(sentence).find();
+    }
+
+    @Override
+    public SimplificationResult passThrough(String sentence) {
+        // The words are joined again even if there is no parenthetical, so the sentence still needs to be tokenized
+        final List<String> words = new Sentence(sentence).words();
+        return new SimplificationResult(ImmutableSet.of(WordListUtil.constructPhraseFromWordList(words)));
+    }
+
+    @Override
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final List<String> words = sentence.words();
         System.out.println("Original sentence: " + words);
 
         int start = -1;
         final Stack<String> parenthesis = new Stack<>();
-        final RangeSet<Integer> rangeSet = TreeRangeSet.create();
+        final List<Range<Integer>> parentheticals = new ArrayList<>();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new HashSet<>();
         for (int i = 0; i < words.size(); i++) {
             if (words.get(i).equals(LEFT_PARENTHESIS)) {
@@ -57,32 +73,33 @@ public class ParentheticalExtractor implements Extractor {
                 }
                 parenthesis.pop();
                 if (parenthesis.isEmpty()) {
-                    rangeSet.add(Range.closed(start, i));
+                    parentheticals.add(Range.closed(start, i));
+                    partsToRemove.add(start, i);
                     start = -1;
                 }
             }
         }
 
         // Check to see if we can derive simple sentences from each parenthetical
-        for (final Range<Integer> parenthetical : rangeSet.asRanges()) {
-            final List<String> nerTags = parsed.nerTags();
+        for (final Range<Integer> parenthetical : parentheticals) {
+            final List<String> nerTags = sentence.nerTags();
+            final SentenceFeatures features = sentence.features();
             // If the word before the parenthetical is a person
             if (nerTags.get(parenthetical.lowerEndpoint() - 1).equalsIgnoreCase("person")) {
                 final List<String> dates = getDates(words, nerTags, parenthetical);
-                final String personName = getPersonName(words, nerTags, parenthetical.lowerEndpoint() - 1);
+                final String personName = getPersonName(words, features, parenthetical.lowerEndpoint() - 1);
                 System.out.println(dates);
                 if (dates.size() == 2) {
                     simplifiedSentences.add(TextRealization.realizeSentence(personName, "was born in", dates.get(0)));
                     simplifiedSentences.add(TextRealization.realizeSentence(personName, "died in", dates.get(1)));
                 }
-                final List<String> posTags = parsed.posTags();
+                final List<String> posTags = sentence.posTags();
                 // If the first word of the parenthetical is a verb, construct a simple sentence with the VP
                 final String posFirstWordParenthetical = posTags.get(parenthetical.lowerEndpoint() + 1).toLowerCase();
                 if (posFirstWordParenthetical.startsWith("vb")) {
-                    final Tree parse = parsed.parse();
-                    final Tree vp = TreeUtil.getVpFromWord(parse,
-                            parse.getLeaves().get(parenthetical.lowerEndpoint() + 1));
-                    final String vpString = TreeUtil.constructPhraseFromTree(vp);
+                    final IndexedTree parse = sentence.indexedTaggedParse();
+                    final Tree vp = TreeUtil.getVpFromWord(parse, parse.getLeaf(parenthetical.lowerEndpoint() + 1));
+                    final String vpString = TreeUtil.constructPhraseFromTree(parse, vp);
                     final String realizedVp;
                     if (posFirstWordParenthetical.equals("vbd") || posFirstWordParenthetical.equals("vbn")) {
                         realizedVp = TextRealization.realizeVerbPhraseWithFeatures(vpString, true, Tense.PAST);
@@ -97,14 +114,14 @@ public class ParentheticalExtractor implements Extractor {
                 final String word = words.get(parenthetical.lowerEndpoint() + 1);
                 final Pattern pattern = Pattern.compile("[A-Z]+");
                 if (pattern.matcher(word).matches()) {
-                    final String fullName = getFullName(parsed.parse(), words, nerTags,
+                    final String fullName = getFullName(sentence.indexedTaggedParse(), words, nerTags, features,
                             parenthetical.lowerEndpoint() - 1);
                     simplifiedSentences.add(TextRealization.realizeSentence(word, "stands for", fullName + "."));
                 }
             }
         }
 
-        final List<String> modified = WordListUtil.removeParts(words, rangeSet);
+        final List<String> modified = WordListUtil.removeParts(words, partsToRemove);
         System.out.println("With parentheticals removed: " + modified);
         simplifiedSentences.add(WordListUtil.constructPhraseFromWordList(modified));
         return new SimplificationResult(simplifiedSentences);
@@ -130,32 +147,19 @@ public class ParentheticalExtractor implements Extractor {
         return dates;
     }
 
-    private static String getPersonName(List<String> words, List<String> nerTags, int indexOfLastPartOfName) {
-        final List<String> nameParts = new ArrayList<>();
-        for (int i = indexOfLastPartOfName; i >= 0; i--) {
-            if (!nerTags.get(i).equalsIgnoreCase("person")) {
-                break;
-            }
-            nameParts.add(words.get(i));
-        }
-        Collections.reverse(nameParts);
-        return Joiner.on(' ').join(nameParts);
+    private static String getPersonName(List<String> words, SentenceFeatures features, int indexOfLastPartOfName) {
+        // The name is made of the words tagged as a person up to the given word
+        final int indexOfFirstPartOfName = features.getNerSpanStart(indexOfLastPartOfName);
+        return Joiner.on(' ').join(words.subList(indexOfFirstPartOfName, indexOfLastPartOfName + 1));
     }
 
-    private static String getFullName(Tree root, List<String> words, List<String> nerTags, int indexOfLastPartOfName) {
+    private static String getFullName(IndexedTree root, List<String> words, List<String> nerTags,
+                                      SentenceFeatures features, int indexOfLastPartOfName) {
         if (nerTags.get(indexOfLastPartOfName).equalsIgnoreCase("organization")) {
-            final List<String> nameParts = new ArrayList<>();
-            for (int i = indexOfLastPartOfName; i >= 0; i--) {
-                if (!nerTags.get(i).equalsIgnoreCase("organization")) {
-                    break;
-                }
-                nameParts.add(words.get(i));
-            }
-            Collections.reverse(nameParts);
-            return Joiner.on(' ').join(nameParts);
+            final int indexOfFirstPartOfName = features.getNerSpanStart(indexOfLastPartOfName);
+            return Joiner.on(' ').join(words.subList(indexOfFirstPartOfName, indexOfLastPartOfName + 1));
         } else {
-            return TreeUtil.constructPhraseFromTree(
-                    TreeUtil.getNpFromWord(root, root.getLeaves().get(indexOfLastPartOfName)));
+            return TreeUtil.constructPhraseFromTree(root, TreeUtil.getNpFromWord(root, indexOfLastPartOfName));
         }
     }
 }
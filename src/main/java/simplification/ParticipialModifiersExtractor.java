@@ -1,11 +1,10 @@
 package simplification;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
-import edu.stanford.nlp.simple.Sentence;
 import generation.TextRealization;
+import tagging.AnnotatedSentence;
+import util.SentenceFeatures;
+import util.SpanMask;
 import util.WordListUtil;
 
 import java.util.HashSet;
@@ -31,35 +30,28 @@ public class ParticipialModifiersExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
+    public SimplificationResult extract(AnnotatedSentence sentence) {
         System.out.println("Original sentence: " + sentence);
-        final Sentence parsed = new Sentence(sentence);
-        System.out.println("NER tags: " + parsed.nerTags());
-        //final Tree root = parsed.parse();
-        final List<String> words = parsed.words();
-        final List<String> posTags = parsed.posTags();
+        System.out.println("NER tags: " + sentence.nerTags());
+        //final Tree root = sentence.parse();
+        final List<String> words = sentence.words();
+        final List<String> posTags = sentence.posTags();
 
         final Set<String> simplifiedSentences = new HashSet<>();
-        final RangeSet<Integer> rangeSet = TreeRangeSet.create();
+        final SpanMask partsToRemove = new SpanMask();
+        final SentenceFeatures features = sentence.features();
         for (int i = 2; i < posTags.size(); i++) {
-            final String posTag = posTags.get(i);
             // If the word is a participle
-            if (posTag.equalsIgnoreCase("vbg") || posTag.equalsIgnoreCase("vbn")) {
+            if (features.isParticiple(i)) {
                 System.out.printf("Found participle '%s' at index %d\n", words.get(i), i);
                 // Look for a participle that comes after a noun phrase and a comma
                 if (words.get(i - 1).equals(",") && !posTags.get(i - 2).startsWith("vb")) {
                     final int leftBoundary = i - 1;
-                    int rightBoundary = -1;
-                    for (int k = i + 1; k < words.size(); k++) {
-                        if (WordListUtil.isBoundaryComma(k, parsed)) {
-                            rightBoundary = k;
-                            break;
-                        }
-                    }
+                    int rightBoundary = features.getNextBoundaryComma(i + 1);
                     if (rightBoundary == -1) {
                         rightBoundary = words.size() - 1;
                     }
-                    rangeSet.add(Range.closed(leftBoundary, rightBoundary));
+                    partsToRemove.add(leftBoundary, rightBoundary);
 
                     // Disabled for now due to issues identifying the subject of a participial phrase
                     /*final List<String> participialPhrase = words.subList(leftBoundary + 1, rightBoundary - 1);
@@ -73,7 +65,7 @@ public class ParticipialModifiersExtractor implements Extractor {
                 }
             }
         }
-        final String phrase = WordListUtil.constructPhraseFromWordList(WordListUtil.removeParts(words, rangeSet));
+        final String phrase = WordListUtil.constructPhraseFromWordList(WordListUtil.removeParts(words, partsToRemove));
         simplifiedSentences.add(TextRealization.realizeSentence(phrase));
         return new SimplificationResult(simplifiedSentences);
     }
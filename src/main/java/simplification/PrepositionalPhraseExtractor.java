@@ -1,11 +1,12 @@
 package simplification;
 
 import com.google.common.base.Joiner;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.SpanMask;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 import util.WordListUtil;
 
@@ -33,35 +34,37 @@ public class PrepositionalPhraseExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final List<String> words = parsed.words();
-        final Tree root = parsed.parse();
+    public boolean canSimplify(String sentence) {
+        // Only prepositional phrases that are set off by commas are moved
+        return sentence.indexOf(',') != -1;
+    }
+
+    @Override
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final List<String> words = sentence.words();
+        final IndexedTree root = sentence.indexedParse();
         final List<Tree> prepositions = new ArrayList<>();
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new HashSet<>();
-        for (int i = 1; i < root.size(); i++) {
-            final Tree tree = root.getNodeNumber(i);
-            if (TreeUtil.labelEquals(tree, "pp")) {
-                final List<Tree> leaves = tree.getLeaves();
-                final int leftIndex = TreeUtil.getLeafIndex(root, leaves.get(0));
-                final int rightIndex = TreeUtil.getLeafIndex(root, leaves.get(leaves.size() - 1));
-                if (leftIndex == 0) {
-                    if (inBoundsAndEquals(words, rightIndex + 1, ",")) {
-                        partsToRemove.add(Range.closed(0, rightIndex + 1));
-                        prepositions.add(tree);
-                    }
-                } else {
-                    if (inBoundsAndEquals(words, rightIndex + 1, ",") && inBoundsAndEquals(words, leftIndex - 1, ",")) {
-                        partsToRemove.add(Range.closed(leftIndex - 1, rightIndex + 1));
-                        prepositions.add(tree);
-                    }
+        for (final TreeMatch match : TreePatterns.findMatches(root, TreePatterns.PP)) {
+            final Tree tree = match.getNode();
+            final int leftIndex = root.getFirstLeafIndex(tree);
+            final int rightIndex = root.getLastLeafIndex(tree);
+            if (leftIndex == 0) {
+                if (inBoundsAndEquals(words, rightIndex + 1, ",")) {
+                    partsToRemove.add(0, rightIndex + 1);
+                    prepositions.add(tree);
+                }
+            } else {
+                if (inBoundsAndEquals(words, rightIndex + 1, ",") && inBoundsAndEquals(words, leftIndex - 1, ",")) {
+                    partsToRemove.add(leftIndex - 1, rightIndex + 1);
+                    prepositions.add(tree);
                 }
             }
         }
 
         if (partsToRemove.isEmpty()) {
-            simplifiedSentences.add(sentence);
+            simplifiedSentences.add(sentence.text());
             return new SimplificationResult(simplifiedSentences);
         }
 
@@ -71,7 +74,8 @@ public class PrepositionalPhraseExtractor implements Extractor {
         }
         final StringBuilder modifiedSentence = new StringBuilder(WordListUtil.constructPhraseFromWordList(newWords));
         for (final Tree preposition : prepositions) {
-            modifiedSentence.append(" ").append(lowerCaseFirstLetter(TreeUtil.constructPhraseFromTree(preposition)));
+            final String prepositionString = TreeUtil.constructPhraseFromTree(root, preposition);
+            modifiedSentence.append(" ").append(lowerCaseFirstLetter(prepositionString));
         }
         modifiedSentence.append(".");
         simplifiedSentences.add(modifiedSentence.toString());
@@ -3,15 +3,16 @@ package simplification;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import edu.stanford.nlp.ling.IndexedWord;
-import edu.stanford.nlp.semgraph.SemanticGraph;
 import edu.stanford.nlp.semgraph.SemanticGraphEdge;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import generation.TextRealization;
 import simplenlg.features.Tense;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.RelationIndex;
+import util.SentenceFeatures;
+import util.SpanMask;
 import util.TreeUtil;
 import util.WordListUtil;
 
@@ -35,27 +36,27 @@ public class RelativeClauseExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final List<String> words = parsed.words();
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final List<String> words = sentence.words();
+        final SentenceFeatures features = sentence.features();
         System.out.println("Original sentence: " + words);
 
-        final SemanticGraph dependencies = parsed.dependencyGraph();
+        final RelationIndex dependencies = sentence.dependencyRelations();
         final List<SemanticGraphEdge> appositivesAndRelativeClauses = new ArrayList<>();
-        appositivesAndRelativeClauses.addAll(dependencies.findAllRelns(RELATIVE_CLAUSE_MODIFIER));
-        appositivesAndRelativeClauses.addAll(dependencies.findAllRelns(CLAUSAL_MODIFIER));
+        appositivesAndRelativeClauses.addAll(dependencies.getEdges(RELATIVE_CLAUSE_MODIFIER));
+        appositivesAndRelativeClauses.addAll(dependencies.getEdges(CLAUSAL_MODIFIER));
         System.out.println("Relations: " + appositivesAndRelativeClauses);
 
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new HashSet<>();
         for (final SemanticGraphEdge edge : appositivesAndRelativeClauses) {
             // IndexedWord index is 1-based not 0-based
             final IndexedWord governor = edge.getGovernor();
             final IndexedWord dependent = edge.getDependent();
-            final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, parsed);
+            final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, features);
             if (boundedPart != null) {
                 partsToRemove.add(boundedPart);
-                simplifiedSentences.addAll(generateSimplifiedSentences(edge, parsed, boundedPart));
+                simplifiedSentences.addAll(generateSimplifiedSentences(edge, sentence, boundedPart));
             }
         }
 
@@ -67,7 +68,8 @@ public class RelativeClauseExtractor implements Extractor {
         return new SimplificationResult(simplifiedSentences);
     }
 
-    private static Set<String> generateSimplifiedSentences(SemanticGraphEdge edge, Sentence sentence, Range<Integer> dependentRange) {
+    private static Set<String> generateSimplifiedSentences(SemanticGraphEdge edge, AnnotatedSentence sentence,
+                                                           Range<Integer> dependentRange) {
         final List<String> dependentWordList = sentence.words().subList(dependentRange.lowerEndpoint(),
                 dependentRange.upperEndpoint() + 1);
         final List<String> dependentWordListNoPunctuation = new ArrayList<>();
@@ -79,9 +81,9 @@ public class RelativeClauseExtractor implements Extractor {
         final String dependentString = WordListUtil.constructPhraseFromWordList(dependentWordListNoPunctuation);
 
         final IndexedWord governor = edge.getGovernor();
-        final Tree root = sentence.parse();
+        final IndexedTree root = sentence.indexedTaggedParse();
         final Tree governorNp = TreeUtil.getNpFromWord(root, governor);
-        final String governorNpString = TreeUtil.constructPhraseFromTree(governorNp);
+        final String governorNpString = TreeUtil.constructPhraseFromTree(root, governorNp);
 
         final Tense tense = calculateTense(sentence);
         final String be;
@@ -2,17 +2,23 @@ package simplification;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
 import generation.TextRealization;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 
 import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.regex.Pattern;
 
 public class SbarWhExtractor implements Extractor {
+    private static final Pattern WH_WORD = Pattern.compile("wh|that", Pattern.CASE_INSENSITIVE);
+
     private static SbarWhExtractor extractor;
 
     private SbarWhExtractor() {
@@ -30,19 +36,24 @@ public class SbarWhExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        System.out.println(parsed.words());
-        final Tree root = parsed.parse();
-        final List<String> posTags = parsed.posTags();
+    public boolean canSimplify(String sentence) {
+        // Every word that is tagged WP, WP$ or WDT starts with "wh" or is "that"
+        return WH_WORD.matcher(sentence).find();
+    }
+
+    @Override
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        System.out.println(sentence.words());
+        final IndexedTree root = sentence.indexedParse();
+        final List<String> posTags = sentence.posTags();
         System.out.println(posTags);
         final Set<String> simplifiedSentences = new LinkedHashSet<>();
-        simplifiedSentences.add(sentence);
+        simplifiedSentences.add(sentence.text());
         for (int i = 0; i < posTags.size(); i++) {
             final String posTag = posTags.get(i).toLowerCase();
             if (posTag.startsWith("wp") || posTag.equals("wdt")) {
                 System.out.println("Found word tagged WP");
-                final Tree tree = root.getLeaves().get(i);
+                final Tree tree = root.getLeaf(i);
                 System.out.println(tree);
 
                 final Tree sbar = TreeUtil.getFirstSbar(root, tree);
@@ -65,13 +76,9 @@ public class SbarWhExtractor implements Extractor {
         return new SimplificationResult(simplifiedSentences);
     }
 
-    private static String getMainNp(Tree root) {
-        System.out.println("Finding NP from " + Arrays.toString(root.getChild(0).children()));
-        for (final Tree tree : root.getChild(0).children()) {
-            if (TreeUtil.labelEquals(tree, "np")) {
-                return TreeUtil.constructPhraseFromTree(tree);
-            }
-        }
-        return null;
+    private static String getMainNp(IndexedTree root) {
+        System.out.println("Finding NP from " + Arrays.toString(root.getRoot().getChild(0).children()));
+        final List<TreeMatch> mainNps = TreePatterns.findMatches(root, TreePatterns.MAIN_NP);
+        return mainNps.isEmpty() ? null : TreeUtil.constructPhraseFromTree(root, mainNps.get(0).getNode());
     }
 }
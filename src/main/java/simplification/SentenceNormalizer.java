@@ -0,0 +1,234 @@
+package simplification;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Normalizes the raw text of a sentence before it is simplified, in one pass over its characters.
+ * <p>
+ * The normalizer applies these steps in order, each to the output of the step before it:
+ * <ol>
+ * <li>Quoted text is grouped into one word: the double quotes are removed and the spaces between them are replaced
+ * with underscores.</li>
+ * <li>Every ": " is replaced with a space, and then every " : " is replaced with a space.</li>
+ * <li>Pronunciations are removed. A pronunciation is a run of characters between two slashes, outside of parentheses,
+ * that contains a character outside of ASCII, such as "/&#712;br&#230;b&#601;m/". The opening slash must start a word
+ * and the closing slash must be followed by a space, a comma, a semicolon, a period or the end of the sentence. The
+ * spaces before a removed pronunciation are removed with it. Runs between slashes with only ASCII characters, such as
+ * "/usr/", and runs inside parentheses are kept.</li>
+ * </ol>
+ * Each step only looks at a few characters around the current one, except for the last, which holds back a possible
+ * pronunciation until its closing slash, so the steps are chained and run together while the characters are read. No
+ * regular expressions are compiled and the sentence is not parsed.
+ */
+public final class SentenceNormalizer {
+    /**
+     * The maximum length of a pronunciation, including its slashes. Longer runs between slashes are kept.
+     */
+    private static final int MAX_PRONUNCIATION_LENGTH = 100;
+
+    private final Appendable out;
+
+    // Grouping of quoted text
+    private boolean inQuotes;
+    // Replacement of ": ", holding a colon until the next character is known
+    private boolean pendingColon;
+    // Replacement of " : ", holding the matched prefix of " : "
+    private int matchedReplacement;
+    // Removal of pronunciations
+    private final StringBuilder heldSpaces = new StringBuilder();
+    private final StringBuilder pronunciation = new StringBuilder();
+    private boolean inPronunciation;
+    private boolean pronunciationClosed;
+    private int parenthesisDepth;
+    private char previous = ' ';
+
+    private SentenceNormalizer(Appendable out) {
+        this.out = out;
+    }
+
+    /**
+     * Normalizes the given sentence.
+     *
+     * @param sentence the given sentence
+     * @return the normalized sentence
+     */
+    public static String normalize(String sentence) {
+        final StringBuilder stringBuilder = new StringBuilder(sentence.length());
+        final SentenceNormalizer normalizer = new SentenceNormalizer(stringBuilder);
+        try {
+            for (int i = 0; i < sentence.length(); i++) {
+                normalizer.groupQuotes(sentence.charAt(i));
+            }
+            normalizer.finish();
+        } catch (IOException e) {
+            // A StringBuilder does not throw
+            throw new IllegalStateException(e);
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Normalizes the sentences read from the given reader, one sentence per line, and writes them to the given writer.
+     * Each line is normalized as if it was passed to {@link #normalize(String)}, but only the characters of a possible
+     * pronunciation are held in memory, so the input can be of any size. Neither the reader nor the writer is closed.
+     *
+     * @param reader the reader of the sentences
+     * @param writer the writer of the normalized sentences
+     * @throws IOException if the sentences cannot be read or written
+     */
+    public static void normalize(Reader reader, Writer writer) throws IOException {
+        final char[] buffer = new char[8192];
+        SentenceNormalizer normalizer = new SentenceNormalizer(writer);
+        int length;
+        while ((length = reader.read(buffer)) != -1) {
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    normalizer.finish();
+                    writer.write('\n');
+                    normalizer = new SentenceNormalizer(writer);
+                } else {
+                    normalizer.groupQuotes(buffer[i]);
+                }
+            }
+        }
+        normalizer.finish();
+    }
+
+    private void groupQuotes(char ch) throws IOException {
+        if (ch == '"') {
+            inQuotes = !inQuotes;
+        } else {
+            replaceColon(inQuotes && ch == ' ' ? '_' : ch);
+        }
+    }
+
+    private void replaceColon(char ch) throws IOException {
+        if (pendingColon) {
+            pendingColon = false;
+            if (ch == ' ') {
+                replaceSpacedColon(' ');
+                return;
+            }
+            replaceSpacedColon(':');
+        }
+        if (ch == ':') {
+            pendingColon = true;
+        } else {
+            replaceSpacedColon(ch);
+        }
+    }
+
+    private void replaceSpacedColon(char ch) throws IOException {
+        // A failed match of " : " can only restart at a space, so at most the current character starts a new match
+        if (matchedReplacement == 2 && ch == ' ') {
+            matchedReplacement = 0;
+            removePronunciations(' ');
+            return;
+        }
+        if (matchedReplacement == 1 && ch == ':') {
+            matchedReplacement = 2;
+            return;
+        }
+        if (matchedReplacement >= 1) {
+            removePronunciations(' ');
+        }
+        if (matchedReplacement == 2) {
+            removePronunciations(':');
+        }
+        matchedReplacement = ch == ' ' ? 1 : 0;
+        if (matchedReplacement == 0) {
+            removePronunciations(ch);
+        }
+    }
+
+    private void removePronunciations(char ch) throws IOException {
+        if (inPronunciation && !pronunciationClosed && pronunciation.length() < MAX_PRONUNCIATION_LENGTH) {
+            pronunciation.append(ch);
+            pronunciationClosed = ch == '/';
+        } else {
+            if (inPronunciation) {
+                endPronunciation(pronunciationClosed && isPronunciationEnd(ch));
+            }
+            if (ch == '/' && parenthesisDepth == 0 && Character.isWhitespace(previous)) {
+                inPronunciation = true;
+                pronunciation.append(ch);
+            } else if (Character.isWhitespace(ch)) {
+                heldSpaces.append(ch);
+            } else {
+                write(ch);
+            }
+        }
+        previous = ch;
+    }
+
+    /**
+     * Removes the held pronunciation if it is followed by the end of a word, or writes it otherwise.
+     */
+    private void endPronunciation(boolean followedByEnd) throws IOException {
+        if (followedByEnd && isPronunciation(pronunciation)) {
+            heldSpaces.setLength(0);
+        } else {
+            for (int i = 0; i < pronunciation.length(); i++) {
+                write(pronunciation.charAt(i));
+            }
+        }
+        pronunciation.setLength(0);
+        inPronunciation = false;
+        pronunciationClosed = false;
+    }
+
+    private static boolean isPronunciationEnd(char ch) {
+        return Character.isWhitespace(ch) || ch == ',' || ch == ';' || ch == '.';
+    }
+
+    /**
+     * Returns whether the given run of characters between two slashes is a pronunciation.
+     */
+    private static boolean isPronunciation(CharSequence run) {
+        if (run.length() < 3 || Character.isWhitespace(run.charAt(1)) ||
+                Character.isWhitespace(run.charAt(run.length() - 2))) {
+            return false;
+        }
+        for (int i = 1; i < run.length() - 1; i++) {
+            if (run.charAt(i) > '\u007f') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(char ch) throws IOException {
+        out.append(heldSpaces);
+        heldSpaces.setLength(0);
+        out.append(ch);
+        if (ch == '(') {
+            parenthesisDepth++;
+        } else if (ch == ')' && parenthesisDepth > 0) {
+            parenthesisDepth--;
+        }
+    }
+
+    /**
+     * Writes the characters that are held by the steps at the end of a sentence.
+     */
+    private void finish() throws IOException {
+        if (pendingColon) {
+            pendingColon = false;
+            replaceSpacedColon(':');
+        }
+        if (matchedReplacement >= 1) {
+            removePronunciations(' ');
+        }
+        if (matchedReplacement == 2) {
+            removePronunciations(':');
+        }
+        matchedReplacement = 0;
+        if (inPronunciation) {
+            endPronunciation(pronunciationClosed);
+        }
+        out.append(heldSpaces);
+        heldSpaces.setLength(0);
+    }
+}
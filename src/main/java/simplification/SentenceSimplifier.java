@@ -1,30 +1,27 @@
 package simplification;
 
 import com.google.common.base.Joiner;
+import com.google.common.cache.CacheStats;
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import data.Text;
 import edu.stanford.nlp.simple.Sentence;
-import edu.stanford.nlp.trees.Tree;
-import util.TreeUtil;
 import util.WordListUtil;
 
-import java.util.HashSet;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-
-import static util.TreeUtil.labelEquals;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 public class SentenceSimplifier {
-    private static final Map<String, String> STRING_REPLACEMENTS = ImmutableMap.of("\"", "", ": ", " ", " : ", " ");
-
     private static final List<Extractor> extractors = ImmutableList.of(ExistentialIgnore.getExtractor(),
             ParentheticalExtractor.getExtractor(), AppositiveExtractor.getExtractor(),
             ConjoinedVerbPhraseExtractor.getExtractor(), ConjoinedVerbExtractor.getExtractor(),
@@ -32,19 +29,95 @@ public class SentenceSimplifier {
             ParticipialModifiersExtractor.getExtractor(), PrepositionalPhraseExtractor.getExtractor(),
             SbarWhExtractor.getExtractor(), SubVpExtractor.getExtractor());
 
+    // The candidates of a stage are simplified in parallel on a pool with this many threads, which can be set with the
+    // simplifier.parallelism system property. With one thread they are simplified on the calling thread instead.
+    private static final int PARALLELISM = Integer.getInteger("simplifier.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private static final ForkJoinPool pool = PARALLELISM > 1 ? new ForkJoinPool(PARALLELISM) : null;
+
+    // The candidates of each stage and of each input sentence can be capped with the simplifier.maxCandidatesPerStage
+    // and simplifier.maxCandidatesPerInput system properties, which bound the work for sentences whose candidates
+    // multiply at every stage. The shortest candidates are kept when there are too many, since they have the fewest
+    // constructions left to extract. Pruning changes the simplified sentences, so there is no cap unless one is set.
+    private static final int MAX_CANDIDATES_PER_STAGE = Integer.getInteger("simplifier.maxCandidatesPerStage",
+            Integer.MAX_VALUE);
+    private static final int MAX_CANDIDATES_PER_INPUT = Integer.getInteger("simplifier.maxCandidatesPerInput",
+            Integer.MAX_VALUE);
+    private static final Comparator<String> SHORTEST_FIRST = new Comparator<String>() {
+        @Override
+        public int compare(String first, String second) {
+            final int lengthComparison = Integer.compare(first.length(), second.length());
+            return lengthComparison != 0 ? lengthComparison : first.compareTo(second);
+        }
+    };
+
+    // The number of sentences given to each extractor, the number of those that it could not simplify, the number of
+    // its results that were equal as Text to another result, and the number of candidates that were pruned before it
+    private static final AtomicLongArray extractedSentences = new AtomicLongArray(extractors.size());
+    private static final AtomicLongArray skippedSentences = new AtomicLongArray(extractors.size());
+    private static final AtomicLongArray duplicateSentences = new AtomicLongArray(extractors.size());
+    private static final AtomicLongArray prunedSentences = new AtomicLongArray(extractors.size());
+
+    // The results of each extractor are cached, and the caches are read from and written to the file named by the
+    // simplifier.cache system property if it is set
+    private static final String CACHE_PROPERTY = "simplifier.cache";
+    private static final List<ExtractionCache> caches;
+
+    static {
+        final ImmutableList.Builder<ExtractionCache> builder = ImmutableList.builder();
+        for (final Extractor extractor : extractors) {
+            builder.add(new ExtractionCache(extractor));
+        }
+        caches = builder.build();
+
+        final String cacheFileName = System.getProperty(CACHE_PROPERTY);
+        if (cacheFileName != null && new File(cacheFileName).exists()) {
+            try {
+                final int count = ExtractionCache.read(new File(cacheFileName), caches);
+                System.err.println("Read " + count + " extractor results from " + cacheFileName);
+            } catch (IOException e) {
+                System.err.println("Cannot read extractor cache: " + e.toString());
+            }
+        }
+    }
+
     public static void main(String[] args) {
         System.out.println(simplifySentence(Joiner.on(' ').join(args)));
     }
 
     public static Set<Text> simplifySentence(String originalSentence) {
-        Set<String> sentences = new LinkedHashSet<>();
-        sentences.add(preCleanSentence(originalSentence));
-        for (final Extractor extractor : extractors) {
-            final Set<String> simplifiedSentences = new HashSet<>();
-            for (final String sentence : sentences) {
-                simplifiedSentences.addAll(extractor.extract(sentence).getSimplifiedSentences());
+        Collection<String> sentences = ImmutableList.of(preCleanSentence(originalSentence));
+        int remainingCandidates = MAX_CANDIDATES_PER_INPUT;
+        for (int i = 0; i < extractors.size(); i++) {
+            final String[] candidates = prune(i, sentences, Math.min(MAX_CANDIDATES_PER_STAGE, remainingCandidates));
+            remainingCandidates -= candidates.length;
+            final SimplificationResult[] results = new SimplificationResult[candidates.length];
+            if (pool == null || candidates.length <= 1) {
+                for (int k = 0; k < candidates.length; k++) {
+                    results[k] = extract(i, candidates[k]);
+                }
+            } else {
+                pool.invoke(new ExtractionTask(i, candidates, results, 0, candidates.length));
             }
-            sentences = simplifiedSentences;
+
+            // Merge the results in the order of the candidates, regardless of the order they finished in, keeping one
+            // sentence of each group that is equal as Text
+            final Map<Text, String> simplifiedSentences = new LinkedHashMap<>();
+            for (final SimplificationResult result : results) {
+                for (final String simplifiedSentence : result.getSimplifiedSentences()) {
+                    final Text text = new Text(simplifiedSentence);
+                    final String duplicate = simplifiedSentences.get(text);
+                    if (duplicate == null) {
+                        simplifiedSentences.put(text, simplifiedSentence);
+                    } else {
+                        duplicateSentences.incrementAndGet(i);
+                        if (SHORTEST_FIRST.compare(simplifiedSentence, duplicate) < 0) {
+                            simplifiedSentences.put(text, simplifiedSentence);
+                        }
+                    }
+                }
+            }
+            sentences = simplifiedSentences.values();
         }
         final Set<Text> texts = new LinkedHashSet<>();
         for (final String simplifiedSentence : sentences) {
@@ -53,55 +126,127 @@ public class SentenceSimplifier {
         return texts;
     }
 
-    private static String preCleanSentence(String originalSentence) {
-        String modifiedSentence = originalSentence;
-        // Group quoted text
-        final StringBuilder groupedStringBuilder = new StringBuilder();
-        boolean inQuotes = false;
-        for (final char ch : modifiedSentence.toCharArray()) {
-            if (ch == '"') {
-                inQuotes = !inQuotes;
-                continue;
-            }
-
-            if (inQuotes) {
-                if (ch == ' ') {
-                    groupedStringBuilder.append('_');
-                } else {
-                    groupedStringBuilder.append(ch);
-                }
-            } else {
-                groupedStringBuilder.append(ch);
-            }
+    /**
+     * Returns the given sentences as the candidates of the stage with the given index, keeping the shortest ones if
+     * there are more than the given maximum. At least one sentence is kept, so that a sentence that used up its budget
+     * still goes through every stage.
+     */
+    private static String[] prune(int extractorIndex, Collection<String> sentences, int maxCandidates) {
+        final String[] candidates = sentences.toArray(new String[sentences.size()]);
+        final int keptCandidates = Math.max(1, maxCandidates);
+        if (candidates.length <= keptCandidates) {
+            return candidates;
         }
-        modifiedSentence = groupedStringBuilder.toString();
+        prunedSentences.addAndGet(extractorIndex, candidates.length - keptCandidates);
+        Arrays.sort(candidates, SHORTEST_FIRST);
+        return Arrays.copyOf(candidates, keptCandidates);
+    }
 
-        // Replace all of the banned strings
-        for (final Entry<String, String> stringReplacement : STRING_REPLACEMENTS.entrySet()) {
-            modifiedSentence = modifiedSentence.replaceAll(stringReplacement.getKey(), stringReplacement.getValue());
+    /**
+     * Applies the extractor with the given index to the given sentence, annotating the sentence only if the extractor
+     * might simplify it.
+     */
+    private static SimplificationResult extract(int extractorIndex, String sentence) {
+        final Extractor extractor = extractors.get(extractorIndex);
+        final SimplificationResult result;
+        if (extractor.canSimplify(sentence)) {
+            result = caches.get(extractorIndex).extract(sentence);
+        } else {
+            result = extractor.passThrough(sentence);
+            skippedSentences.incrementAndGet(extractorIndex);
         }
+        extractedSentences.incrementAndGet(extractorIndex);
+        return result;
+    }
 
-        // Remove IPA
-        final Sentence sentence = new Sentence(modifiedSentence);
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
-        final Tree root = sentence.parse();
-        for (int i = 1; i < root.size(); i++) {
-            final Tree tree = root.getNodeNumber(i);
-            if (labelEquals(tree, "prn")) {
-                final Tree firstLeaf = tree.getLeaves().get(0);
-                final Tree lastLeaf = Iterables.getLast(tree.getLeaves());
-                if (labelEquals(firstLeaf, "/") && labelEquals(lastLeaf, "/")) {
-                    System.out.println("Remove IPA: " + tree);
-                    final int left = TreeUtil.getLeafIndex(root, firstLeaf);
-                    final int right = TreeUtil.getLeafIndex(root, lastLeaf);
-                    partsToRemove.add(Range.closed(left, right));
-                }
+    /**
+     * Returns the number of sentences that each extractor was given since the start of the process, how many of them
+     * were passed through without being annotated because the extractor could not simplify them, how many of the others
+     * had a cached result, how many of its results were dropped as duplicates and how many candidates were pruned
+     * before it.
+     *
+     * @return the statistics of the extractors
+     * @see Extractor#canSimplify(String)
+     */
+    public static String getStatistics() {
+        final StringBuilder statistics = new StringBuilder();
+        for (int i = 0; i < extractors.size(); i++) {
+            final long extracted = extractedSentences.get(i);
+            final long skipped = skippedSentences.get(i);
+            final CacheStats cacheStats = caches.get(i).stats();
+            if (statistics.length() > 0) {
+                statistics.append(", ");
             }
+            statistics.append(String.format(
+                    "%s skipped %d/%d (%.1f%%), cached %d/%d (%.1f%%), %d duplicates, %d pruned",
+                    extractors.get(i).getClass().getSimpleName(), skipped, extracted,
+                    extracted == 0 ? 0.0 : 100.0 * skipped / extracted, cacheStats.hitCount(),
+                    cacheStats.requestCount(),
+                    cacheStats.requestCount() == 0 ? 0.0 : 100.0 * cacheStats.hitRate(), duplicateSentences.get(i),
+                    prunedSentences.get(i)));
+        }
+        return statistics.toString();
+    }
+
+    /**
+     * Writes the cached results of the extractors to the file named by the {@code simplifier.cache} system property, so
+     * that later runs can read them. Does nothing if the property is not set.
+     */
+    public static void writeCache() {
+        final String cacheFileName = System.getProperty(CACHE_PROPERTY);
+        if (cacheFileName == null) {
+            return;
+        }
+        try {
+            final int count = ExtractionCache.write(new File(cacheFileName), caches);
+            System.err.println("Wrote " + count + " extractor results to " + cacheFileName);
+        } catch (IOException e) {
+            System.err.println("Cannot write extractor cache: " + e.toString());
         }
-        return WordListUtil.constructPhraseFromWordList(WordListUtil.removeParts(sentence.words(), partsToRemove));
+    }
+
+    private static String preCleanSentence(String originalSentence) {
+        // Group quoted text, replace the banned strings and remove IPA
+        final String normalizedSentence = SentenceNormalizer.normalize(originalSentence);
+        // Only the tokenizer runs on the sentence, so that the extractors see the spacing of joined words
+        return WordListUtil.constructPhraseFromWordList(new Sentence(normalizedSentence).words());
     }
 
     private static Text postCleanSentence(String sentence) {
         return new Text(sentence.replaceAll(" -- ", "-"));
     }
+
+    /**
+     * Applies an extractor to a range of the candidates of a stage, splitting the range in half until it holds a single
+     * candidate. The result for each candidate is stored at its index, so the results can be merged in a fixed order.
+     */
+    private static class ExtractionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int extractorIndex;
+        private final String[] candidates;
+        private final SimplificationResult[] results;
+        private final int start;
+        private final int end;
+
+        private ExtractionTask(int extractorIndex, String[] candidates, SimplificationResult[] results, int start,
+                               int end) {
+            this.extractorIndex = extractorIndex;
+            this.candidates = candidates;
+            this.results = results;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start == 1) {
+                results[start] = extract(extractorIndex, candidates[start]);
+                return;
+            }
+            final int middle = (start + end) >>> 1;
+            invokeAll(new ExtractionTask(extractorIndex, candidates, results, start, middle),
+                    new ExtractionTask(extractorIndex, candidates, results, middle, end));
+        }
+    }
 }
@@ -3,13 +3,14 @@ package simplification;
 import com.google.common.base.Joiner;
 import com.google.common.base.Strings;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
-import edu.stanford.nlp.simple.Sentence;
 import edu.stanford.nlp.trees.Tree;
+import tagging.AnnotatedSentence;
+import util.IndexedTree;
+import util.PennTreebankLabel;
 import util.PosUtil;
+import util.SpanMask;
+import util.TreeMatch;
+import util.TreePatterns;
 import util.TreeUtil;
 
 import java.util.Arrays;
@@ -19,7 +20,7 @@ import java.util.Queue;
 import java.util.Set;
 
 import static generation.TextRealization.realizeSentence;
-import static util.TreeUtil.labelEquals;
+import static util.TreeUtil.labelIs;
 import static util.WordListUtil.constructPhraseFromWordList;
 import static util.WordListUtil.removeParts;
 
@@ -43,67 +44,63 @@ public class SubVpExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
+    public SimplificationResult extract(AnnotatedSentence sentence) {
         System.out.println("Checking for sub VPs in the sentence: " + sentence);
-        final Sentence parsed = new Sentence(sentence);
-        final Tree root = parsed.parse();
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+        final IndexedTree root = sentence.indexedParse();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new LinkedHashSet<>();
-        for (final Tree tree : root.getChild(0).children()) {
-            if (labelEquals(tree, "vp")) {
-                System.out.println("Found main VP: " + tree);
-                final String beforeVp = TreeUtil.getStringBeforeTree(root, tree);
-                if (Strings.isNullOrEmpty(beforeVp)) {
+        for (final TreeMatch match : TreePatterns.findMatches(root, TreePatterns.MAIN_VP)) {
+            final Tree tree = match.getNode();
+            System.out.println("Found main VP: " + tree);
+            final String beforeVp = TreeUtil.getStringBeforeTree(root, tree);
+            if (Strings.isNullOrEmpty(beforeVp)) {
+                continue;
+            }
+            System.out.println("\tBefore VP: " + beforeVp);
+
+            final Queue<Tree> trees = new LinkedList<>();
+            trees.addAll(Arrays.asList(tree.children()));
+            boolean npBetween = false;
+            while (!trees.isEmpty()) {
+                final Tree subTree = trees.poll();
+                if (LABEL_BLACKLIST.contains(subTree.label().value().toLowerCase())) {
                     continue;
                 }
-                System.out.println("\tBefore VP: " + beforeVp);
-
-                final Queue<Tree> trees = new LinkedList<>();
-                trees.addAll(Arrays.asList(tree.children()));
-                boolean npBetween = false;
-                while (!trees.isEmpty()) {
-                    final Tree subTree = trees.poll();
-                    if (LABEL_BLACKLIST.contains(subTree.label().value().toLowerCase())) {
-                        continue;
-                    }
 
-                    if (labelEquals(subTree, "np")) {
-                        npBetween = true;
-                    }
+                if (labelIs(root, subTree, PennTreebankLabel.NP)) {
+                    npBetween = true;
+                }
 
-                    if (labelEquals(subTree, "vp") && npBetween) {
-                        System.out.println("Found sub VP: " + subTree);
-                        final Tree subVpHead = TreeUtil.findHead(subTree).getLeaves().get(0);
-                        System.out.println("\tHead: " + subVpHead);
+                if (labelIs(root, subTree, PennTreebankLabel.VP) && npBetween) {
+                    System.out.println("Found sub VP: " + subTree);
+                    final Tree subVpHead = root.getLeaf(TreeUtil.findIndexOfHead(root, subTree));
+                    System.out.println("\tHead: " + subVpHead);
 
-                        final String beVerb;
-                        if (PosUtil.isPastTenseVerb(root, subVpHead)) {
-                            beVerb = "was";
-                        } else {
-                            beVerb = "is";
-                        }
+                    final String beVerb;
+                    if (PosUtil.isPastTenseVerb(root, subVpHead)) {
+                        beVerb = "was";
+                    } else {
+                        beVerb = "is";
+                    }
 
-                        final String subVp = TreeUtil.constructPhraseFromTree(subTree);
+                    final String subVp = TreeUtil.constructPhraseFromTree(root, subTree);
 
-                        simplifiedSentences.add(realizeSentence(beforeVp, beVerb, subVp));
+                    simplifiedSentences.add(realizeSentence(beforeVp, beVerb, subVp));
 
-                        final int leftIndex = TreeUtil.getLeafIndex(root, subTree.getLeaves().get(0));
-                        final int rightIndex = TreeUtil.getLeafIndex(root, Iterables.getLast(subTree.getLeaves()));
-                        partsToRemove.add(Range.closed(leftIndex, rightIndex));
-                    } else {
-                        trees.addAll(Arrays.asList(subTree.children()));
-                    }
+                    partsToRemove.add(root.getFirstLeafIndex(subTree), root.getLastLeafIndex(subTree));
+                } else {
+                    trees.addAll(Arrays.asList(subTree.children()));
                 }
             }
         }
         if (!partsToRemove.isEmpty()) {
             final String removedParts = realizeSentence(
-                    constructPhraseFromWordList(removeParts(parsed.words(), partsToRemove)));
+                    constructPhraseFromWordList(removeParts(sentence.words(), partsToRemove)));
             simplifiedSentences.add(removedParts);
         }
 
         if (simplifiedSentences.isEmpty()) {
-            return new SimplificationResult(ImmutableSet.of(sentence));
+            return new SimplificationResult(ImmutableSet.of(sentence.text()));
         }
         return new SimplificationResult(simplifiedSentences);
     }
@@ -3,15 +3,16 @@ package simplification;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Range;
-import com.google.common.collect.RangeSet;
-import com.google.common.collect.TreeRangeSet;
 import edu.stanford.nlp.ling.IndexedWord;
-import edu.stanford.nlp.semgraph.SemanticGraph;
 import edu.stanford.nlp.semgraph.SemanticGraphEdge;
-import edu.stanford.nlp.simple.Sentence;
+import tagging.AnnotatedSentence;
+import util.RelationIndex;
+import util.SentenceFeatures;
+import util.SpanMask;
 import util.WordListUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -36,22 +37,20 @@ public class VerbPhraseModifierExtractor implements Extractor {
     }
 
     @Override
-    public SimplificationResult extract(String sentence) {
-        final Sentence parsed = new Sentence(sentence);
-        final List<String> words = parsed.words();
+    public SimplificationResult extract(AnnotatedSentence sentence) {
+        final List<String> words = sentence.words();
+        final SentenceFeatures features = sentence.features();
         System.out.println("Original sentence: " + words);
-        final SemanticGraph dependencies = parsed.dependencyGraph();
+        final RelationIndex dependencies = sentence.dependencyRelations();
 
         final List<SemanticGraphEdge> modifiers = new ArrayList<>();
-        for (SemanticGraphEdge edge : dependencies.edgeListSorted()) {
-            for (final String modifierType : MODIFIER_TYPES) {
-                if (edge.getRelation().getShortName().startsWith(modifierType)) {
-                    modifiers.add(edge);
-                }
-            }
+        for (final String modifierType : MODIFIER_TYPES) {
+            modifiers.addAll(dependencies.getEdgesWithPrefix(modifierType));
         }
+        // Visit the modifiers in the order of the sorted edges of the graph
+        Collections.sort(modifiers, SemanticGraphEdge.orderByTargetComparator());
 
-        final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+        final SpanMask partsToRemove = new SpanMask();
         final Set<String> simplifiedSentences = new HashSet<>();
         for (final SemanticGraphEdge edge : modifiers) {
             final IndexedWord governor = edge.getGovernor();
@@ -59,7 +58,7 @@ public class VerbPhraseModifierExtractor implements Extractor {
 
             final String governorTag = governor.backingLabel().tag().toLowerCase();
             if (governorTag.startsWith("vb")) {
-                final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, parsed);
+                final Range<Integer> boundedPart = WordListUtil.findBoundedPart(governor, dependent, features);
                 if (boundedPart != null) {
                     partsToRemove.add(boundedPart);
                 }
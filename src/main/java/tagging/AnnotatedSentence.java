@@ -0,0 +1,357 @@
+package tagging;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.pipeline.CoreNLPProtos;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.simple.Sentence;
+import edu.stanford.nlp.trees.Tree;
+import util.CompactTree;
+import util.IndexedTree;
+import util.RelationIndex;
+import util.SentenceFeatures;
+
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A {@link Sentence} that keeps the annotations it has already computed.
+ * <p>
+ * CoreNLP only runs each annotator once per {@link Sentence}, but {@link Sentence#parse()} and
+ * {@link Sentence#dependencyGraph()} rebuild the tree and graph from the underlying protocol buffer on every call. This
+ * class builds them once and hands out the same objects afterwards, so an instance can be passed between extractors
+ * and rules without any of them paying for the annotation again.
+ * <p>
+ * The annotations of a plain {@link Sentence} also depend on the order they are requested in: the parser keeps part of
+ * speech tags that are already on the tokens, and the dependency graph comes from the constituency parse once the
+ * sentence has been parsed. This class keeps its parses on separate copies of the sentence, so the tags, lemmas and
+ * named entities always come from the part of speech tagger and the dependency graph always comes from the dependency
+ * parser, regardless of what was requested before them. Callers choose between the parse that picks its own tags and
+ * the parse that is constrained to the tags of the tagger with {@link #parse()} and {@link #taggedParse()}.
+ * <p>
+ * The parses come from the parser backend chosen with {@link ParserBackends#get()}.
+ * <p>
+ * Instances are safe to share between threads. The returned trees and graphs are shared and must not be modified by
+ * callers.
+ */
+public class AnnotatedSentence extends Sentence {
+    static final int POS_TAGS = 1;
+    static final int LEMMAS = 1 << 1;
+    static final int NER_TAGS = 1 << 2;
+    static final int DEPENDENCIES = 1 << 3;
+    static final int PARSE = 1 << 4;
+    static final int TAGGED_PARSE = 1 << 5;
+
+    private static final Properties PARSE_PROPERTIES = ParserBackends.getAnnotatorProperties(ParserBackends.get());
+
+    private final String text;
+
+    private List<String> words;
+    private List<String> posTags;
+    private List<String> lemmas;
+    private List<String> nerTags;
+    private Sentence parsedSentence;
+    private Sentence taggedParsedSentence;
+    private Tree parse;
+    private Tree taggedParse;
+    private IndexedTree indexedParse;
+    private IndexedTree indexedTaggedParse;
+    private CompactTree compactParse;
+    private SentenceFeatures features;
+    private SemanticGraph dependencyGraph;
+    private SemanticGraph parseDependencyGraph;
+    private RelationIndex dependencyRelations;
+    private RelationIndex parseDependencyRelations;
+
+    public AnnotatedSentence(String text) {
+        super(text);
+        this.text = text;
+    }
+
+    /**
+     * Creates a sentence from annotations that were serialized with {@link #serialize()}, {@link #serializeParse()}
+     * and {@link #serializeTaggedParse()}. Annotations that are missing are computed when they are first requested.
+     *
+     * @param text        the text of the sentence
+     * @param sentence    the serialized sentence
+     * @param parse       the serialized parse of the sentence, or {@code null}
+     * @param taggedParse the serialized tagged parse of the sentence, or {@code null}
+     */
+    AnnotatedSentence(String text, CoreNLPProtos.Sentence sentence, CoreNLPProtos.Sentence parse,
+                      CoreNLPProtos.Sentence taggedParse) {
+        super(sentence);
+        this.text = text;
+        if (parse != null) {
+            parsedSentence = new Sentence(parse);
+        }
+        if (taggedParse != null) {
+            taggedParsedSentence = new Sentence(taggedParse);
+        }
+    }
+
+    /**
+     * Returns the text that this sentence was created from.
+     *
+     * @return the text of this sentence
+     */
+    @Override
+    public String text() {
+        return text;
+    }
+
+    @Override
+    public synchronized List<String> words() {
+        if (words == null) {
+            words = ImmutableList.copyOf(super.words());
+        }
+        return words;
+    }
+
+    @Override
+    public synchronized List<String> posTags() {
+        if (posTags == null) {
+            posTags = ImmutableList.copyOf(super.posTags());
+        }
+        return posTags;
+    }
+
+    @Override
+    public synchronized List<String> lemmas() {
+        if (lemmas == null) {
+            lemmas = ImmutableList.copyOf(super.lemmas());
+        }
+        return lemmas;
+    }
+
+    @Override
+    public synchronized List<String> nerTags() {
+        if (nerTags == null) {
+            nerTags = ImmutableList.copyOf(super.nerTags());
+        }
+        return nerTags;
+    }
+
+    /**
+     * Returns the constituency parse of this sentence, using the part of speech tags chosen by the parser.
+     *
+     * @return the constituency parse of this sentence
+     */
+    @Override
+    public synchronized Tree parse() {
+        if (parse == null) {
+            if (parsedSentence == null) {
+                parsedSentence = copyForParse(false);
+            }
+            parse = parse(parsedSentence);
+        }
+        return parse;
+    }
+
+    /**
+     * Returns the constituency parse of this sentence, using the part of speech tags returned by {@link #posTags()}.
+     *
+     * @return the constituency parse of this sentence constrained to the tags of the tagger
+     */
+    public synchronized Tree taggedParse() {
+        if (taggedParse == null) {
+            if (taggedParsedSentence == null) {
+                taggedParsedSentence = copyForParse(true);
+            }
+            taggedParse = parse(taggedParsedSentence);
+        }
+        return taggedParse;
+    }
+
+    /**
+     * Returns the index of the constituency parse of this sentence, which is built once and shared.
+     *
+     * @return the index of the tree returned by {@link #parse()}
+     */
+    public synchronized IndexedTree indexedParse() {
+        if (indexedParse == null) {
+            indexedParse = new IndexedTree(parse());
+        }
+        return indexedParse;
+    }
+
+    /**
+     * Returns the index of the tagged constituency parse of this sentence, which is built once and shared.
+     *
+     * @return the index of the tree returned by {@link #taggedParse()}
+     */
+    public synchronized IndexedTree indexedTaggedParse() {
+        if (indexedTaggedParse == null) {
+            indexedTaggedParse = new IndexedTree(taggedParse());
+        }
+        return indexedTaggedParse;
+    }
+
+    /**
+     * Returns the constituency parse of this sentence as a {@link CompactTree}, which is built once and shared.
+     *
+     * @return the compact form of the tree returned by {@link #parse()}
+     */
+    public synchronized CompactTree compactParse() {
+        if (compactParse == null) {
+            compactParse = CompactTree.fromTree(parse());
+        }
+        return compactParse;
+    }
+
+    /**
+     * Returns the features of the words of this sentence, which are computed once and shared.
+     *
+     * @return the features computed from the words, part of speech tags and named entity tags of this sentence
+     */
+    public synchronized SentenceFeatures features() {
+        if (features == null) {
+            features = new SentenceFeatures(words(), posTags(), nerTags());
+        }
+        return features;
+    }
+
+    /**
+     * Returns the dependency graph of this sentence as found by the dependency parser.
+     *
+     * @return the dependency graph of this sentence
+     */
+    @Override
+    public synchronized SemanticGraph dependencyGraph() {
+        if (dependencyGraph == null) {
+            dependencyGraph = super.dependencyGraph();
+        }
+        return dependencyGraph;
+    }
+
+    /**
+     * Returns the dependency graph of this sentence as converted from its constituency parse.
+     *
+     * @return the dependency graph converted from the constituency parse
+     * @see #parse()
+     */
+    public synchronized SemanticGraph parseDependencyGraph() {
+        if (parseDependencyGraph == null) {
+            parse();
+            parseDependencyGraph = parsedSentence.dependencyGraph();
+        }
+        return parseDependencyGraph;
+    }
+
+    /**
+     * Returns the edges of the dependency graph of this sentence grouped by relation, which are grouped once and
+     * shared.
+     *
+     * @return the index of the edges of the graph returned by {@link #dependencyGraph()}
+     */
+    public synchronized RelationIndex dependencyRelations() {
+        if (dependencyRelations == null) {
+            dependencyRelations = new RelationIndex(dependencyGraph());
+        }
+        return dependencyRelations;
+    }
+
+    /**
+     * Returns the edges of the dependency graph converted from the constituency parse of this sentence grouped by
+     * relation, which are grouped once and shared.
+     *
+     * @return the index of the edges of the graph returned by {@link #parseDependencyGraph()}
+     */
+    public synchronized RelationIndex parseDependencyRelations() {
+        if (parseDependencyRelations == null) {
+            parseDependencyRelations = new RelationIndex(parseDependencyGraph());
+        }
+        return parseDependencyRelations;
+    }
+
+    /**
+     * Returns the annotations that have been computed for this sentence as a combination of the flags declared in this
+     * class.
+     *
+     * @return the flags of the computed annotations
+     */
+    synchronized int getAnnotations() {
+        int annotations = 0;
+        if (length() > 0) {
+            final CoreNLPProtos.Token.Builder token = rawToken(0);
+            annotations |= token.hasPos() ? POS_TAGS : 0;
+            annotations |= token.hasLemma() ? LEMMAS : 0;
+            annotations |= token.hasNer() ? NER_TAGS : 0;
+        }
+        annotations |= rawSentence().hasBasicDependencies() ? DEPENDENCIES : 0;
+        annotations |= isParsed(parsedSentence) ? PARSE : 0;
+        annotations |= isParsed(taggedParsedSentence) ? TAGGED_PARSE : 0;
+        return annotations;
+    }
+
+    /**
+     * Serializes the parse of this sentence along with the dependency graph converted from it.
+     *
+     * @return the protocol buffer holding the parse of this sentence, or {@code null} if it has not been parsed
+     * @see #parse()
+     */
+    synchronized CoreNLPProtos.Sentence serializeParse() {
+        if (!isParsed(parsedSentence)) {
+            return null;
+        }
+        final CoreNLPProtos.Sentence.Builder builder = parsedSentence.serialize().toBuilder();
+        // The parser only tags the tokens of its own annotation, which are not serialized, so the tags are copied from
+        // the tree to keep them in the dependency graph
+        final List<TaggedWord> taggedWords = parse().taggedYield();
+        for (int i = 0; i < taggedWords.size() && i < builder.getTokenCount(); i++) {
+            builder.getTokenBuilder(i).setPos(taggedWords.get(i).tag());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Serializes the tagged parse of this sentence.
+     *
+     * @return the protocol buffer holding the tagged parse of this sentence, or {@code null} if it has not been parsed
+     * @see #taggedParse()
+     */
+    synchronized CoreNLPProtos.Sentence serializeTaggedParse() {
+        if (!isParsed(taggedParsedSentence)) {
+            return null;
+        }
+        return taggedParsedSentence.serialize();
+    }
+
+    /**
+     * Copies the tokens of this sentence to a new sentence for one of the parses, so the text is not tokenized again.
+     * The parse and the dependency graphs are left out of the copy, because the parser only runs on sentences without
+     * a parse and would otherwise keep the dependency graph of the dependency parser.
+     *
+     * @param tagged whether the copy keeps the part of speech tags of the tagger, which the parser is then constrained
+     *               to; otherwise the tags are cleared and the parser picks its own
+     * @return a sentence with the tokens of this sentence and no parse
+     */
+    private Sentence copyForParse(boolean tagged) {
+        if (tagged) {
+            posTags();
+        }
+        final CoreNLPProtos.Sentence.Builder builder = serialize().toBuilder()
+                .clearParseTree()
+                .clearBasicDependencies()
+                .clearCollapsedDependencies()
+                .clearCollapsedCCProcessedDependencies();
+        if (!tagged) {
+            for (final CoreNLPProtos.Token.Builder token : builder.getTokenBuilderList()) {
+                token.clearPos();
+            }
+        }
+        return new Sentence(builder.build());
+    }
+
+    private static Tree parse(Sentence sentence) {
+        return PARSE_PROPERTIES == null ? sentence.parse() : sentence.parse(PARSE_PROPERTIES);
+    }
+
+    private static boolean isParsed(Sentence sentence) {
+        return sentence != null && sentence.rawSentence().hasParseTree();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
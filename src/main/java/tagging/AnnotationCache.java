@@ -0,0 +1,157 @@
+package tagging;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Process-wide cache of {@link AnnotatedSentence}s keyed by the text of the sentence.
+ * <p>
+ * The cache is bounded by the total number of tokens of the cached sentences, counting each sentence once. The bound
+ * can be set with the {@code annotation.cache.maxTokens} system property. It is a bound on tokens rather than on
+ * memory: besides its own annotations, a sentence can hold the two copies made for {@link AnnotatedSentence#parse()}
+ * and {@link AnnotatedSentence#taggedParse()} along with their trees, indexes and dependency graphs, and the weight of
+ * a sentence is fixed when it is cached, before any of these are built. A sentence with both parses can therefore hold
+ * several times the memory of one that has only been tagged.
+ * <p>
+ * Sentences are keyed by their exact text rather than by the canonical form used by {@link data.Text}: casing and
+ * punctuation change the tokens and tags of a sentence, so two sentences that are equal as {@link data.Text}s do not
+ * necessarily share annotations.
+ * <p>
+ * The cache can be backed by a persistent {@link AnnotationStore}, either with {@link #useStore(File)} or with the
+ * {@code annotation.store} system property. Sentences that are not in memory are then read from the store before they
+ * are annotated, and their annotations are written back to the store when they are evicted or when the store is
+ * closed, so later runs do not need to run the annotators again.
+ */
+public class AnnotationCache {
+    private static final long MAX_TOKENS = Long.getLong("annotation.cache.maxTokens", 500000L);
+    private static final String STORE_PROPERTY = "annotation.store";
+
+    private static volatile AnnotationStore store;
+
+    private static final LoadingCache<String, AnnotatedSentence> cache = CacheBuilder.newBuilder()
+            .maximumWeight(MAX_TOKENS)
+            .weigher(new Weigher<String, AnnotatedSentence>() {
+                @Override
+                public int weigh(String text, AnnotatedSentence sentence) {
+                    // The number of tokens, regardless of how many parses the sentence holds
+                    return Math.max(1, sentence.length());
+                }
+            })
+            .removalListener(new RemovalListener<String, AnnotatedSentence>() {
+                @Override
+                public void onRemoval(RemovalNotification<String, AnnotatedSentence> notification) {
+                    if (notification.getCause() == RemovalCause.SIZE) {
+                        writeToStore(notification.getValue());
+                    }
+                }
+            })
+            .recordStats()
+            .build(new CacheLoader<String, AnnotatedSentence>() {
+                @Override
+                public AnnotatedSentence load(String text) {
+                    final AnnotationStore annotationStore = store;
+                    if (annotationStore != null) {
+                        try {
+                            final AnnotatedSentence storedSentence = annotationStore.get(text);
+                            if (storedSentence != null) {
+                                return storedSentence;
+                            }
+                        } catch (IOException e) {
+                            System.err.println("Cannot read from annotation store: " + e.toString());
+                        }
+                    }
+                    return new AnnotatedSentence(text);
+                }
+            });
+
+    static {
+        final String storeFileName = System.getProperty(STORE_PROPERTY);
+        if (storeFileName != null) {
+            useStore(new File(storeFileName));
+        }
+    }
+
+    /**
+     * Returns the annotated sentence for the given text, creating it if it is not already cached.
+     *
+     * @param sentence the given text
+     * @return the annotated sentence for the given text
+     */
+    public static AnnotatedSentence annotate(String sentence) {
+        return cache.getUnchecked(sentence);
+    }
+
+    /**
+     * Backs the cache with the annotation store in the given file, closing the store that was used before. If the
+     * store cannot be opened, the cache keeps running without one.
+     *
+     * @param file the file of the store
+     */
+    public static synchronized void useStore(File file) {
+        closeStore();
+        try {
+            store = AnnotationStore.open(file);
+            System.err.println("Using annotation store " + store);
+        } catch (IOException e) {
+            System.err.println("Cannot open annotation store: " + e.toString());
+        }
+    }
+
+    /**
+     * Writes the annotations of every cached sentence to the annotation store backing the cache and closes the store.
+     * Does nothing if the cache is not backed by a store.
+     */
+    public static synchronized void closeStore() {
+        if (store == null) {
+            return;
+        }
+        for (final AnnotatedSentence sentence : cache.asMap().values()) {
+            writeToStore(sentence);
+        }
+        System.err.println("Closing annotation store " + store);
+        try {
+            store.close();
+        } catch (IOException e) {
+            System.err.println("Cannot close annotation store: " + e.toString());
+        }
+        store = null;
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the cache since the start of the process.
+     *
+     * @return the statistics of the cache
+     */
+    public static CacheStats getStats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the number of sentences currently in the cache.
+     *
+     * @return the number of cached sentences
+     */
+    public static long size() {
+        return cache.size();
+    }
+
+    private static void writeToStore(AnnotatedSentence sentence) {
+        final AnnotationStore annotationStore = store;
+        if (annotationStore != null) {
+            try {
+                annotationStore.put(sentence);
+            } catch (IOException e) {
+                System.err.println("Cannot write to annotation store: " + e.toString());
+            }
+        }
+    }
+}
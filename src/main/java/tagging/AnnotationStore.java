@@ -0,0 +1,280 @@
+package tagging;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import edu.stanford.nlp.pipeline.CoreNLPProtos;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistent store of {@link AnnotatedSentence}s keyed by a hash of their text.
+ * <p>
+ * The store is a single append-only file. Each record holds the hash and text of a sentence, the annotations it
+ * contains, and the serialized protocol buffers of the sentence and of its parses. When a sentence gains annotations
+ * that the store does not have yet, a new record is appended and replaces the old one. The file is memory-mapped for
+ * reading, and an index from hash to record is built when the store is opened. A record that was only partially
+ * written, for example because the process was killed, is discarded when the store is opened. Since the file is mapped
+ * as a single buffer, a store can hold at most 2 GB of records.
+ * <p>
+ * The header of the file names the {@link ParserBackend} that the stored parses come from, and a store can only be
+ * opened by a process that uses the same backend.
+ */
+public class AnnotationStore implements Closeable {
+    private static final int MAGIC = 0x54544153;
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 8;
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+    private static final int HASH_SIZE = HASH_FUNCTION.bits() / 8;
+
+    private final File file;
+    private final FileChannel channel;
+    private final String backend;
+    private final Map<HashCode, Record> records = new HashMap<>();
+    private MappedByteBuffer buffer;
+    private long size;
+    private long hits;
+    private long misses;
+
+    private AnnotationStore(File file, FileChannel channel, String backend) {
+        this.file = file;
+        this.channel = channel;
+        this.backend = backend;
+    }
+
+    /**
+     * Opens the store in the given file, creating the file if it does not exist.
+     *
+     * @param file the given file
+     * @return the opened store
+     * @throws IOException if the file cannot be opened, is not an annotation store or holds the parses of another
+     *                     parser backend
+     */
+    public static AnnotationStore open(File file) throws IOException {
+        final File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create directory " + parent);
+        }
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        final AnnotationStore store = new AnnotationStore(file, channel, ParserBackends.get().getName());
+        try {
+            store.load();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Returns the annotated sentence stored for the given text, or {@code null} if the text is not in the store.
+     *
+     * @param text the given text
+     * @return the stored annotated sentence, or {@code null}
+     * @throws IOException if the record of the sentence cannot be read
+     */
+    public synchronized AnnotatedSentence get(String text) throws IOException {
+        final Record record = records.get(hash(text));
+        if (record != null) {
+            final ByteBuffer contents = map(record.offset);
+            if (new String(readBytes(contents), Charsets.UTF_8).equals(text)) {
+                final CoreNLPProtos.Sentence sentence = readSentence(contents);
+                final CoreNLPProtos.Sentence parse = readSentence(contents);
+                final CoreNLPProtos.Sentence taggedParse = readSentence(contents);
+                hits++;
+                return new AnnotatedSentence(text, sentence, parse, taggedParse);
+            }
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Writes the annotations of the given sentence to the store, unless the store already has all of them.
+     *
+     * @param sentence the given sentence
+     * @throws IOException if the sentence cannot be written or the store is full
+     */
+    public void put(AnnotatedSentence sentence) throws IOException {
+        final HashCode hash = hash(sentence.text());
+        final int annotations = sentence.getAnnotations();
+        synchronized (this) {
+            final Record record = records.get(hash);
+            if (annotations == 0 || record != null && (annotations & ~record.annotations) == 0) {
+                return;
+            }
+        }
+
+        final byte[] text = sentence.text().getBytes(Charsets.UTF_8);
+        final byte[] serializedSentence = toByteArray(sentence.serialize());
+        final byte[] parse = toByteArray(sentence.serializeParse());
+        final byte[] taggedParse = toByteArray(sentence.serializeTaggedParse());
+        final ByteBuffer contents = ByteBuffer.allocate(HASH_SIZE + 20 + text.length + serializedSentence.length +
+                parse.length + taggedParse.length);
+        contents.put(hash.asBytes());
+        contents.putInt(annotations);
+        contents.putInt(text.length).put(text);
+        contents.putInt(serializedSentence.length).put(serializedSentence);
+        contents.putInt(parse.length).put(parse);
+        contents.putInt(taggedParse.length).put(taggedParse);
+        contents.flip();
+
+        synchronized (this) {
+            final Record record = records.get(hash);
+            if (record != null && (annotations & ~record.annotations) == 0) {
+                return;
+            }
+            if (size + contents.remaining() > Integer.MAX_VALUE) {
+                throw new IOException(file + " cannot hold more than 2 GB of records");
+            }
+            long position = size;
+            while (contents.hasRemaining()) {
+                position += channel.write(contents, position);
+            }
+            records.put(hash, new Record(size + HASH_SIZE + 4, annotations));
+            size = position;
+        }
+    }
+
+    /**
+     * Returns the number of sentences in the store.
+     *
+     * @return the number of stored sentences
+     */
+    public synchronized int size() {
+        return records.size();
+    }
+
+    /**
+     * Returns the number of lookups that found their sentence in the store since it was opened.
+     *
+     * @return the number of hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of lookups that did not find their sentence in the store since it was opened.
+     *
+     * @return the number of misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.force(false);
+        channel.close();
+        buffer = null;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %d sentences parsed with %s, %d hits, %d misses", file, records.size(), backend,
+                hits, misses);
+    }
+
+    private void load() throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            final byte[] backendName = backend.getBytes(Charsets.UTF_8);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 4 + backendName.length);
+            header.putInt(MAGIC).putInt(VERSION).putInt(backendName.length).put(backendName).flip();
+            channel.truncate(0);
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            size = header.limit();
+            return;
+        }
+
+        final ByteBuffer contents = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        if (contents.getInt() != MAGIC) {
+            throw new IOException(file + " is not an annotation store");
+        }
+        if (contents.getInt() != VERSION || !skipBytes(contents.duplicate())) {
+            throw new IOException(file + " is not a supported annotation store");
+        }
+        final String storedBackend = new String(readBytes(contents), Charsets.UTF_8);
+        if (!storedBackend.equals(backend)) {
+            throw new IOException(file + " holds parses of the " + storedBackend + " parser backend, not of " +
+                    backend);
+        }
+        size = contents.position();
+        while (contents.remaining() >= HASH_SIZE + 4) {
+            final byte[] hash = new byte[HASH_SIZE];
+            contents.get(hash);
+            final int annotations = contents.getInt();
+            if (!skipBytes(contents) || !skipBytes(contents) || !skipBytes(contents) || !skipBytes(contents)) {
+                break;
+            }
+            records.put(HashCode.fromBytes(hash), new Record(size + HASH_SIZE + 4, annotations));
+            size = contents.position();
+        }
+        if (size < channel.size()) {
+            System.err.println("Discarding incomplete record at the end of " + file);
+            channel.truncate(size);
+        }
+    }
+
+    private ByteBuffer map(long offset) throws IOException {
+        if (buffer == null || buffer.capacity() < size) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        final ByteBuffer contents = buffer.duplicate();
+        contents.position((int) offset);
+        return contents;
+    }
+
+    private static HashCode hash(String text) {
+        return HASH_FUNCTION.hashString(text, Charsets.UTF_8);
+    }
+
+    private static byte[] toByteArray(CoreNLPProtos.Sentence sentence) {
+        return sentence == null ? new byte[0] : sentence.toByteArray();
+    }
+
+    private static CoreNLPProtos.Sentence readSentence(ByteBuffer buffer) throws IOException {
+        final byte[] bytes = readBytes(buffer);
+        return bytes.length == 0 ? null : CoreNLPProtos.Sentence.parseFrom(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static boolean skipBytes(ByteBuffer buffer) {
+        if (buffer.remaining() < 4) {
+            return false;
+        }
+        final int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            return false;
+        }
+        buffer.position(buffer.position() + length);
+        return true;
+    }
+
+    private static class Record {
+        private final long offset;
+        private final int annotations;
+
+        private Record(long offset, int annotations) {
+            this.offset = offset;
+            this.annotations = annotations;
+        }
+    }
+}
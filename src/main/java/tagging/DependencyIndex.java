@@ -0,0 +1,120 @@
+package tagging;
+
+import edu.stanford.nlp.ling.IndexedWord;
+import edu.stanford.nlp.trees.TypedDependency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The typed dependencies of a sentence grouped by the position of their governor and by the position of their
+ * dependent.
+ * <p>
+ * The dependencies of each group are kept in one array, ordered by position and then by their order in the collection
+ * they were built from, with an array of offsets to the start of each position. Looking up the dependencies of a word
+ * only reads the dependencies of its position, so it takes time proportional to the degree of the word instead of the
+ * number of dependencies in the sentence.
+ * <p>
+ * Positions are the 1-based indices of {@link IndexedWord#index()}, where 0 is the root. Instances are immutable and
+ * safe to share between threads.
+ */
+final class DependencyIndex {
+    private final TypedDependency[] byGovernor;
+    private final int[] governorOffsets;
+    private final TypedDependency[] byDependent;
+    private final int[] dependentOffsets;
+
+    /**
+     * Indexes the given dependencies.
+     *
+     * @param dependencies the dependencies of a sentence
+     */
+    DependencyIndex(Collection<TypedDependency> dependencies) {
+        int positions = 1;
+        for (final TypedDependency typedDependency : dependencies) {
+            positions = Math.max(positions, Math.max(typedDependency.gov().index(), typedDependency.dep().index()) + 1);
+        }
+
+        final TypedDependency[] all = dependencies.toArray(new TypedDependency[dependencies.size()]);
+        governorOffsets = new int[positions + 1];
+        dependentOffsets = new int[positions + 1];
+        for (final TypedDependency typedDependency : all) {
+            governorOffsets[typedDependency.gov().index() + 1]++;
+            dependentOffsets[typedDependency.dep().index() + 1]++;
+        }
+        for (int i = 0; i < positions; i++) {
+            governorOffsets[i + 1] += governorOffsets[i];
+            dependentOffsets[i + 1] += dependentOffsets[i];
+        }
+
+        // Place the dependencies in the order of the collection so that each position keeps that order
+        byGovernor = new TypedDependency[all.length];
+        byDependent = new TypedDependency[all.length];
+        final int[] governorNext = governorOffsets.clone();
+        final int[] dependentNext = dependentOffsets.clone();
+        for (final TypedDependency typedDependency : all) {
+            byGovernor[governorNext[typedDependency.gov().index()]++] = typedDependency;
+            byDependent[dependentNext[typedDependency.dep().index()]++] = typedDependency;
+        }
+    }
+
+    /**
+     * Returns the dependencies whose governor is at the given position.
+     *
+     * @param position the 1-based position of the governor
+     * @return the dependencies of the governor
+     */
+    List<TypedDependency> getDependents(int position) {
+        return getDependencies(byGovernor, governorOffsets, position, null);
+    }
+
+    /**
+     * Returns the dependencies whose governor is the given word.
+     *
+     * @param governor the given word
+     * @param relation the short name of the relation of the dependencies, or {@code null} for any relation
+     * @return the dependencies of the governor
+     */
+    List<TypedDependency> getDependents(IndexedWord governor, String relation) {
+        final List<TypedDependency> dependents = new ArrayList<>();
+        for (final TypedDependency typedDependency : getDependencies(byGovernor, governorOffsets, governor.index(),
+                relation)) {
+            if (typedDependency.gov().equals(governor)) {
+                dependents.add(typedDependency);
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Returns the dependencies whose dependent is the given word.
+     *
+     * @param dependent the given word
+     * @return the dependencies that govern the word
+     */
+    List<TypedDependency> getGovernors(IndexedWord dependent) {
+        final List<TypedDependency> governors = new ArrayList<>();
+        for (final TypedDependency typedDependency : getDependencies(byDependent, dependentOffsets,
+                dependent.index(), null)) {
+            if (typedDependency.dep().equals(dependent)) {
+                governors.add(typedDependency);
+            }
+        }
+        return governors;
+    }
+
+    private static List<TypedDependency> getDependencies(TypedDependency[] dependencies, int[] offsets, int position,
+                                                         String relation) {
+        if (position < 0 || position >= offsets.length - 1) {
+            return new ArrayList<>();
+        }
+        final List<TypedDependency> result = new ArrayList<>(offsets[position + 1] - offsets[position]);
+        for (int i = offsets[position]; i < offsets[position + 1]; i++) {
+            if (relation == null || dependencies[i].reln().getShortName().equals(relation)) {
+                result.add(dependencies[i]);
+            }
+        }
+        return result;
+    }
+}
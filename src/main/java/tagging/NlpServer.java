@@ -4,6 +4,7 @@ import simplenlg.features.Tense;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Map;
 
 public interface NlpServer extends Remote {
@@ -11,5 +12,75 @@ public interface NlpServer extends Remote {
 
     Tense calculateTense(String clause) throws RemoteException;
 
+    /**
+     * Calculates the tense of the given clause from the tags of the part of speech tagger instead of a parse. This is
+     * much cheaper than {@link #calculateTense(String)}, but may disagree with it when the tagger and the parser tag
+     * the first word of the clause differently.
+     *
+     * @param clause the given clause
+     * @return the tense of the clause
+     * @throws RemoteException if the call fails
+     */
+    Tense calculateTenseFromTags(String clause) throws RemoteException;
+
     Map<String, NamedEntity> findNamedEntities(String sentence) throws RemoteException;
+
+    /**
+     * Parses all of the given sentences in one call. The sentences are parsed concurrently by the server.
+     *
+     * @param sentences         the given sentences
+     * @param removePunctuation whether punctuation should be removed before parsing
+     * @return the parsed sentences, in the same order as the given sentences
+     * @throws RemoteException if the call fails or any of the sentences cannot be parsed
+     */
+    List<ParsedSentence> parseSentences(List<String> sentences, boolean removePunctuation) throws RemoteException;
+
+    /**
+     * Calculates the tense of all of the given clauses in one call. The clauses are processed concurrently by the
+     * server.
+     *
+     * @param clauses the given clauses
+     * @return the tenses of the clauses, in the same order as the given clauses
+     * @throws RemoteException if the call fails or the tense of any of the clauses cannot be calculated
+     */
+    List<Tense> calculateTenses(List<String> clauses) throws RemoteException;
+
+    /**
+     * Calculates the tense of all of the given clauses from the tags of the part of speech tagger in one call. The
+     * clauses are processed concurrently by the server.
+     *
+     * @param clauses the given clauses
+     * @return the tenses of the clauses, in the same order as the given clauses
+     * @throws RemoteException if the call fails or the tense of any of the clauses cannot be calculated
+     * @see #calculateTenseFromTags(String)
+     */
+    List<Tense> calculateTensesFromTags(List<String> clauses) throws RemoteException;
+
+    /**
+     * Finds the named entities of all of the given sentences in one call. The sentences are processed concurrently by
+     * the server.
+     *
+     * @param sentences the given sentences
+     * @return the named entities of the sentences, in the same order as the given sentences
+     * @throws RemoteException if the call fails or the named entities of any of the sentences cannot be found
+     */
+    List<Map<String, NamedEntity>> findNamedEntities(List<String> sentences) throws RemoteException;
+
+    /**
+     * Returns whether the server has loaded all of its models. Calls made before the server is ready still succeed, but
+     * may wait for the models they need to load.
+     *
+     * @return whether the server is ready
+     * @throws RemoteException if the call fails
+     */
+    boolean isReady() throws RemoteException;
+
+    /**
+     * Returns a human-readable description of the load on the server, including how busy its parsers are and how long
+     * calls wait for a parser.
+     *
+     * @return the statistics of the server
+     * @throws RemoteException if the call fails
+     */
+    String getStatistics() throws RemoteException;
 }
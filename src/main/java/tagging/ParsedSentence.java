@@ -4,20 +4,31 @@ import com.google.common.base.Joiner;
 import edu.stanford.nlp.ling.IndexedWord;
 import edu.stanford.nlp.trees.Tree;
 import edu.stanford.nlp.trees.TypedDependency;
+import util.TreeUtil;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Contains parse information for a single sentence.
+ * <p>
+ * Instances are serialized in the compact encoding of {@link ParsedSentenceMessage} instead of as object graphs. A
+ * deserialized instance only decodes the message, and rebuilds the tree, the dependencies and the named entities when
+ * they are first requested.
  */
 public class ParsedSentence implements Serializable {
-    private final Tree posTree;
-    private final Collection<TypedDependency> dependencies;
-    private final Map<String, NamedEntity> namedEntities;
+    private transient ParsedSentenceMessage message;
+    private transient Tree posTree;
+    private transient Collection<TypedDependency> dependencies;
+    private transient Map<String, NamedEntity> namedEntities;
+    private transient DependencyIndex dependencyIndex;
+    private transient Map<String, Integer> leafIndices;
 
     ParsedSentence(Tree posTree, Collection<TypedDependency> dependencies, Map<String, NamedEntity> namedEntities) {
         this.posTree = posTree;
@@ -25,75 +36,119 @@ public class ParsedSentence implements Serializable {
         this.namedEntities = namedEntities;
     }
 
-    public Tree getPosTree() {
+    private ParsedSentence(ParsedSentenceMessage message) {
+        this.message = message;
+    }
+
+    public synchronized Tree getPosTree() {
+        if (posTree == null) {
+            posTree = message.buildTree();
+        }
         return posTree;
     }
 
-    public Collection<TypedDependency> getDependencies() {
+    public synchronized Collection<TypedDependency> getDependencies() {
+        if (dependencies == null) {
+            dependencies = message.buildDependencies();
+        }
         return dependencies;
     }
 
-    public List<TypedDependency> getDependenciesForLeaf(Tree governor) {
-        final List<TypedDependency> dependenciesForLeaf = new ArrayList<>();
-        final int leafIndex = calculateLeafIndex(governor);
-        for (final TypedDependency typedDependency : dependencies) {
-            // The typed dependencies are 1-indexed not zero indexed
-            if (typedDependency.gov().index() - 1 == leafIndex) {
-                dependenciesForLeaf.add(typedDependency);
-            }
+    /**
+     * Returns the index of the dependencies of this sentence by governor and by dependent, which is built the first
+     * time it is needed.
+     *
+     * @return the index of the dependencies returned by {@link #getDependencies()}
+     */
+    private synchronized DependencyIndex getDependencyIndex() {
+        if (dependencyIndex == null) {
+            dependencyIndex = new DependencyIndex(getDependencies());
         }
-        return dependenciesForLeaf;
+        return dependencyIndex;
+    }
+
+    public List<TypedDependency> getDependenciesForLeaf(Tree governor) {
+        // The typed dependencies are 1-indexed not zero indexed
+        return getDependencyIndex().getDependents(calculateLeafIndex(governor) + 1);
     }
 
     public List<TypedDependency> getDependenciesForWord(IndexedWord governor) {
-        final List<TypedDependency> dependenciesForLeaf = new ArrayList<>();
-        for (final TypedDependency typedDependency : dependencies) {
-            // The typed dependencies are 1-indexed not zero indexed
-            if (typedDependency.gov().equals(governor)) {
-                dependenciesForLeaf.add(typedDependency);
-            }
-        }
-        return dependenciesForLeaf;
+        return getDependencyIndex().getDependents(governor, null);
     }
 
+    /**
+     * Returns the dependencies of the given governor with the given relation.
+     *
+     * @param governor the given governor
+     * @param relation the short name of the relation, such as "amod"
+     * @return the dependencies of the governor with the relation
+     */
+    public List<TypedDependency> getDependenciesForWord(IndexedWord governor, String relation) {
+        return getDependencyIndex().getDependents(governor, relation);
+    }
+
+    /**
+     * Returns the dependencies that have the given word as their dependent.
+     *
+     * @param dependent the given word
+     * @return the dependencies that govern the word
+     */
+    public List<TypedDependency> getGovernorsForWord(IndexedWord dependent) {
+        return getDependencyIndex().getGovernors(dependent);
+    }
+
+    /**
+     * Returns the index of the first leaf that is equal to the given leaf, or -1 if there is none. Leaves are equal
+     * when their labels are equal, so a tree that is not a leaf is not equal to any of them.
+     */
     private int calculateLeafIndex(Tree leaf) {
-        final List<Tree> leaves = posTree.getLeaves();
-        for (int i = 0; i < leaves.size(); i++) {
-            if (leaves.get(i).equals(leaf)) {
-                return i;
+        if (!leaf.isLeaf()) {
+            return -1;
+        }
+        final Integer leafIndex = getLeafIndices().get(leaf.value());
+        return leafIndex == null ? -1 : leafIndex;
+    }
+
+    private synchronized Map<String, Integer> getLeafIndices() {
+        if (leafIndices == null) {
+            final List<Tree> leaves = getPosTree().getLeaves();
+            leafIndices = new HashMap<>();
+            for (int i = leaves.size() - 1; i >= 0; i--) {
+                leafIndices.put(leaves.get(i).value(), i);
             }
         }
-        return -1;
+        return leafIndices;
     }
 
     public String getNp(IndexedWord part) {
         final StringBuilder np = new StringBuilder();
         for (final TypedDependency typedDependency : getDependenciesForWord(part)) {
-            if (typedDependency.gov().equals(part)) {
-                final String label = typedDependency.reln().getLongName().toLowerCase();
-                String originalText = typedDependency.dep().originalText();
-                if (label.contains("det")) {
-                    originalText = originalText.toLowerCase();
-                }
-                if (label.contains("compound") || label.contains("det")) {
-                    np.append(originalText).append(" ");
-                }
+            final String label = typedDependency.reln().getLongName().toLowerCase();
+            String originalText = typedDependency.dep().originalText();
+            if (label.contains("det")) {
+                originalText = originalText.toLowerCase();
+            }
+            if (label.contains("compound") || label.contains("det")) {
+                np.append(originalText).append(" ");
             }
         }
         np.append(part.originalText());
         return np.toString();
     }
 
-    public Map<String, NamedEntity> getNamedEntities() {
+    public synchronized Map<String, NamedEntity> getNamedEntities() {
+        if (namedEntities == null) {
+            namedEntities = message.buildNamedEntities();
+        }
         return namedEntities;
     }
 
     public static boolean labelEquals(Tree tree, String label) {
-        return tree.label().value().toLowerCase().equals(label.toLowerCase());
+        return TreeUtil.labelEquals(tree, label);
     }
 
     public static boolean labelContains(Tree tree, String label) {
-        return tree.label().value().toLowerCase().contains(label.toLowerCase());
+        return TreeUtil.labelContains(tree, label);
     }
 
     public static String getString(Tree tree) {
@@ -113,6 +168,55 @@ public class ParsedSentence implements Serializable {
     }
 
     public String getString() {
-        return Joiner.on(' ').join(posTree.getLeaves());
+        return Joiner.on(' ').join(getPosTree().getLeaves());
+    }
+
+    /**
+     * Encodes this sentence with {@link ParsedSentenceMessage}.
+     *
+     * @return the encoded sentence
+     */
+    byte[] encode() {
+        return ParsedSentenceMessage.encode(getPosTree(), getDependencies(), getNamedEntities());
+    }
+
+    /**
+     * Creates a sentence from one that was encoded with {@link #encode()}.
+     *
+     * @param bytes the encoded sentence
+     * @return the sentence
+     * @throws IOException if the bytes are not an encoded sentence
+     */
+    static ParsedSentence decode(byte[] bytes) throws IOException {
+        return new ParsedSentence(ParsedSentenceMessage.parseFrom(bytes));
+    }
+
+    private Object writeReplace() {
+        return new SerializedForm(encode());
+    }
+
+    private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+        throw new InvalidObjectException("ParsedSentence must be deserialized from its encoded form");
+    }
+
+    /**
+     * The serialized form of a {@link ParsedSentence}, which holds its encoding.
+     */
+    private static class SerializedForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] bytes;
+
+        private SerializedForm(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        private Object readResolve() throws InvalidObjectException {
+            try {
+                return decode(bytes);
+            } catch (IOException e) {
+                throw new InvalidObjectException("Invalid encoded ParsedSentence: " + e.getMessage());
+            }
+        }
     }
 }
@@ -0,0 +1,416 @@
+package tagging;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import edu.stanford.nlp.international.Language;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.IndexedWord;
+import edu.stanford.nlp.trees.GrammaticalRelation;
+import edu.stanford.nlp.trees.LabeledScoredTreeNode;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TypedDependency;
+import edu.stanford.nlp.trees.UniversalEnglishGrammaticalRelations;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The compact protocol buffer encoding of a {@link ParsedSentence} that is sent between the NLP server and its
+ * clients. It corresponds to the following message:
+ * <pre>
+ * message ParsedSentence {
+ *   // Distinct strings referenced by index from the other fields
+ *   repeated string string = 1;
+ *   // For every token: the index of its word and of its original text
+ *   repeated uint32 token = 2 [packed = true];
+ *   // For every node of the tree in preorder: the number of its children, followed by the index of its label unless
+ *   // it is a leaf. Leaves take their label from the next token.
+ *   repeated uint32 tree = 3 [packed = true];
+ *   double score = 4;
+ *   // For every dependency: the index of its relation and of the name of the relation's Language, the governor
+ *   // and dependent token numbers (starting at 1, with 0 for the root) and copy counts, and whether the dependency
+ *   // is extra
+ *   repeated uint32 dependency = 5 [packed = true];
+ *   // For every named entity: the index of its text and its NamedEntity ordinal
+ *   repeated uint32 named_entity = 6 [packed = true];
+ * }
+ * </pre>
+ * The message is decoded into arrays only, and the tree, the dependencies and the named entities are rebuilt from
+ * them when they are requested.
+ */
+class ParsedSentenceMessage {
+    private static final int STRING_FIELD = 1;
+    private static final int TOKEN_FIELD = 2;
+    private static final int TREE_FIELD = 3;
+    private static final int SCORE_FIELD = 4;
+    private static final int DEPENDENCY_FIELD = 5;
+    private static final int NAMED_ENTITY_FIELD = 6;
+
+    private static final int FIELDS_PER_TOKEN = 2;
+    private static final int FIELDS_PER_DEPENDENCY = 7;
+    private static final int FIELDS_PER_NAMED_ENTITY = 2;
+    private static final String ROOT = "ROOT";
+
+    private final String[] strings;
+    private final int[] tokens;
+    private final int[] tree;
+    private final double score;
+    private final int[] dependencies;
+    private final int[] namedEntities;
+
+    private ParsedSentenceMessage(String[] strings, int[] tokens, int[] tree, double score, int[] dependencies,
+                                  int[] namedEntities) {
+        this.strings = strings;
+        this.tokens = tokens;
+        this.tree = tree;
+        this.score = score;
+        this.dependencies = dependencies;
+        this.namedEntities = namedEntities;
+    }
+
+    /**
+     * Encodes the given parse information.
+     *
+     * @param posTree       the parse tree
+     * @param dependencies  the dependencies of the parse tree
+     * @param namedEntities the named entities of the sentence
+     * @return the encoded message
+     */
+    static byte[] encode(Tree posTree, Collection<TypedDependency> dependencies,
+                         Map<String, NamedEntity> namedEntities) {
+        final Map<String, Integer> strings = new LinkedHashMap<>();
+
+        final List<Tree> leaves = posTree.getLeaves();
+        final IntList tokens = new IntList(leaves.size() * FIELDS_PER_TOKEN);
+        for (final Tree leaf : leaves) {
+            final String word = leaf.label().value();
+            final String originalText = leaf.label() instanceof CoreLabel ? ((CoreLabel) leaf.label()).originalText() :
+                    null;
+            tokens.add(stringIndex(strings, word));
+            tokens.add(stringIndex(strings, originalText == null ? word : originalText));
+        }
+
+        final IntList tree = new IntList(leaves.size() * 4);
+        addTree(posTree, tree, strings);
+
+        final IntList dependencyFields = new IntList(dependencies.size() * FIELDS_PER_DEPENDENCY);
+        for (final TypedDependency dependency : dependencies) {
+            dependencyFields.add(stringIndex(strings, dependency.reln().toString()));
+            dependencyFields.add(stringIndex(strings, dependency.reln().getLanguage().name()));
+            dependencyFields.add(dependency.gov().index());
+            dependencyFields.add(dependency.gov().copyCount());
+            dependencyFields.add(dependency.dep().index());
+            dependencyFields.add(dependency.dep().copyCount());
+            dependencyFields.add(dependency.extra() ? 1 : 0);
+        }
+
+        final IntList namedEntityFields = new IntList(namedEntities.size() * FIELDS_PER_NAMED_ENTITY);
+        for (final Map.Entry<String, NamedEntity> namedEntity : namedEntities.entrySet()) {
+            namedEntityFields.add(stringIndex(strings, namedEntity.getKey()));
+            namedEntityFields.add(namedEntity.getValue().ordinal());
+        }
+
+        int size = 0;
+        for (final String string : strings.keySet()) {
+            size += CodedOutputStream.computeStringSize(STRING_FIELD, string);
+        }
+        size += computePackedSize(TOKEN_FIELD, tokens);
+        size += computePackedSize(TREE_FIELD, tree);
+        size += CodedOutputStream.computeDoubleSize(SCORE_FIELD, posTree.score());
+        size += computePackedSize(DEPENDENCY_FIELD, dependencyFields);
+        size += computePackedSize(NAMED_ENTITY_FIELD, namedEntityFields);
+
+        final byte[] bytes = new byte[size];
+        final CodedOutputStream output = CodedOutputStream.newInstance(bytes);
+        try {
+            for (final String string : strings.keySet()) {
+                output.writeString(STRING_FIELD, string);
+            }
+            writePacked(output, TOKEN_FIELD, tokens);
+            writePacked(output, TREE_FIELD, tree);
+            output.writeDouble(SCORE_FIELD, posTree.score());
+            writePacked(output, DEPENDENCY_FIELD, dependencyFields);
+            writePacked(output, NAMED_ENTITY_FIELD, namedEntityFields);
+            output.checkNoSpaceLeft();
+        } catch (IOException e) {
+            // Writing to an array of the computed size cannot fail
+            throw new IllegalStateException(e);
+        }
+        return bytes;
+    }
+
+    /**
+     * Decodes an encoded message.
+     *
+     * @param bytes the encoded message
+     * @return the decoded message
+     * @throws IOException if the bytes are not a valid message
+     */
+    static ParsedSentenceMessage parseFrom(byte[] bytes) throws IOException {
+        final CodedInputStream input = CodedInputStream.newInstance(bytes);
+        final List<String> strings = new ArrayList<>();
+        final IntList tokens = new IntList(16);
+        final IntList tree = new IntList(64);
+        double score = Double.NaN;
+        final IntList dependencies = new IntList(16);
+        final IntList namedEntities = new IntList(4);
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            switch (tag >>> 3) {
+                case STRING_FIELD:
+                    strings.add(input.readString());
+                    break;
+                case TOKEN_FIELD:
+                    readRepeated(input, tag, tokens);
+                    break;
+                case TREE_FIELD:
+                    readRepeated(input, tag, tree);
+                    break;
+                case SCORE_FIELD:
+                    score = input.readDouble();
+                    break;
+                case DEPENDENCY_FIELD:
+                    readRepeated(input, tag, dependencies);
+                    break;
+                case NAMED_ENTITY_FIELD:
+                    readRepeated(input, tag, namedEntities);
+                    break;
+                default:
+                    input.skipField(tag);
+            }
+        }
+        return new ParsedSentenceMessage(strings.toArray(new String[strings.size()]), tokens.toArray(),
+                tree.toArray(), score, dependencies.toArray(), namedEntities.toArray());
+    }
+
+    /**
+     * Rebuilds the parse tree.
+     *
+     * @return the parse tree
+     */
+    Tree buildTree() {
+        final int[] position = {0, 0};
+        final Tree root = buildTree(position);
+        root.setScore(score);
+        return root;
+    }
+
+    /**
+     * Rebuilds the dependencies of the parse tree.
+     *
+     * @return the dependencies
+     */
+    Collection<TypedDependency> buildDependencies() {
+        final String[] tags = findTags();
+        final Map<Long, IndexedWord> words = new HashMap<>();
+        final List<TypedDependency> typedDependencies = new ArrayList<>(dependencies.length / FIELDS_PER_DEPENDENCY);
+        for (int i = 0; i < dependencies.length; i += FIELDS_PER_DEPENDENCY) {
+            final GrammaticalRelation relation = getRelation(Language.valueOf(strings[dependencies[i + 1]]),
+                    strings[dependencies[i]]);
+            final IndexedWord governor = getWord(words, tags, dependencies[i + 2], dependencies[i + 3]);
+            final IndexedWord dependent = getWord(words, tags, dependencies[i + 4], dependencies[i + 5]);
+            final TypedDependency typedDependency = new TypedDependency(relation, governor, dependent);
+            if (dependencies[i + 6] != 0) {
+                typedDependency.setExtra();
+            }
+            typedDependencies.add(typedDependency);
+        }
+        return typedDependencies;
+    }
+
+    /**
+     * Rebuilds the named entities of the sentence.
+     *
+     * @return the named entities
+     */
+    Map<String, NamedEntity> buildNamedEntities() {
+        final Map<String, NamedEntity> namedEntityMap = new HashMap<>();
+        final NamedEntity[] values = NamedEntity.values();
+        for (int i = 0; i < namedEntities.length; i += FIELDS_PER_NAMED_ENTITY) {
+            namedEntityMap.put(strings[namedEntities[i]], values[namedEntities[i + 1]]);
+        }
+        return namedEntityMap;
+    }
+
+    private static void addTree(Tree node, IntList tree, Map<String, Integer> strings) {
+        final Tree[] children = node.children();
+        tree.add(children.length);
+        if (children.length > 0) {
+            tree.add(stringIndex(strings, node.label().value()));
+            for (final Tree child : children) {
+                addTree(child, tree, strings);
+            }
+        }
+    }
+
+    private Tree buildTree(int[] position) {
+        final int childCount = tree[position[0]++];
+        final CoreLabel label = new CoreLabel();
+        if (childCount == 0) {
+            final int token = position[1]++;
+            final String word = strings[tokens[token * FIELDS_PER_TOKEN]];
+            label.setValue(word);
+            label.setWord(word);
+            label.setOriginalText(strings[tokens[token * FIELDS_PER_TOKEN + 1]]);
+            label.setIndex(token + 1);
+            return new LabeledScoredTreeNode(label);
+        }
+
+        label.setValue(strings[tree[position[0]++]]);
+        final List<Tree> children = new ArrayList<>(childCount);
+        for (int i = 0; i < childCount; i++) {
+            children.add(buildTree(position));
+        }
+        return new LabeledScoredTreeNode(label, children);
+    }
+
+    /**
+     * Returns the label of the parent of every leaf, which is its part of speech tag. In preorder, a leaf directly
+     * follows its parent when the parent has a single child.
+     */
+    private String[] findTags() {
+        final String[] tags = new String[tokens.length / FIELDS_PER_TOKEN];
+        int leaf = 0;
+        int previousLabel = -1;
+        for (int i = 0; i < tree.length; i++) {
+            if (tree[i] == 0) {
+                tags[leaf++] = previousLabel >= 0 ? strings[previousLabel] : null;
+                previousLabel = -1;
+            } else {
+                previousLabel = tree[i] == 1 ? tree[i + 1] : -1;
+                i++;
+            }
+        }
+        return tags;
+    }
+
+    private IndexedWord getWord(Map<Long, IndexedWord> words, String[] tags, int index, int copyCount) {
+        final long key = ((long) index << 32) | copyCount;
+        IndexedWord word = words.get(key);
+        if (word == null) {
+            final CoreLabel label = new CoreLabel();
+            if (index == 0) {
+                // The root of a grammatical structure only has a value, and a sentence index of -1 for no sentence
+                label.setValue(ROOT);
+                label.setSentIndex(-1);
+            } else {
+                final int token = index - 1;
+                final String value = strings[tokens[token * FIELDS_PER_TOKEN]];
+                label.setValue(value);
+                label.setWord(value);
+                label.setOriginalText(strings[tokens[token * FIELDS_PER_TOKEN + 1]]);
+                label.setTag(tags[token]);
+            }
+            label.setIndex(index);
+            word = new IndexedWord(label);
+            word.setCopyCount(copyCount);
+            words.put(key, word);
+        }
+        return word;
+    }
+
+    /**
+     * Returns the relation of the given language with the given name. Universal relations with a preposition or
+     * conjunction, such as nmod:in, are only known to {@link GrammaticalRelation#valueOf(Language, String)} once they
+     * have been created, so they are created here if the name is not known yet.
+     */
+    private static GrammaticalRelation getRelation(Language language, String name) {
+        final GrammaticalRelation relation = GrammaticalRelation.valueOf(language, name);
+        final int separator = name.indexOf(':');
+        if (!relation.isFromString() || language != Language.UniversalEnglish || separator < 0) {
+            return relation;
+        }
+        final String specific = name.substring(separator + 1);
+        switch (name.substring(0, separator)) {
+            case "nmod":
+                return UniversalEnglishGrammaticalRelations.getNmod(specific);
+            case "conj":
+                return UniversalEnglishGrammaticalRelations.getConj(specific);
+            case "acl":
+                return UniversalEnglishGrammaticalRelations.getAcl(specific);
+            case "advcl":
+                return UniversalEnglishGrammaticalRelations.getAdvcl(specific);
+            default:
+                return relation;
+        }
+    }
+
+    private static int stringIndex(Map<String, Integer> strings, String string) {
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = strings.size();
+            strings.put(string, index);
+        }
+        return index;
+    }
+
+    private static int computePackedSize(int fieldNumber, IntList values) {
+        if (values.size == 0) {
+            return 0;
+        }
+        final int dataSize = computeDataSize(values);
+        return CodedOutputStream.computeTagSize(fieldNumber) + CodedOutputStream.computeRawVarint32Size(dataSize) +
+                dataSize;
+    }
+
+    private static int computeDataSize(IntList values) {
+        int dataSize = 0;
+        for (int i = 0; i < values.size; i++) {
+            dataSize += CodedOutputStream.computeRawVarint32Size(values.values[i]);
+        }
+        return dataSize;
+    }
+
+    private static void writePacked(CodedOutputStream output, int fieldNumber, IntList values) throws IOException {
+        if (values.size == 0) {
+            return;
+        }
+        output.writeTag(fieldNumber, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(computeDataSize(values));
+        for (int i = 0; i < values.size; i++) {
+            output.writeRawVarint32(values.values[i]);
+        }
+    }
+
+    private static void readRepeated(CodedInputStream input, int tag, IntList values) throws IOException {
+        if ((tag & 7) == WireFormat.WIRETYPE_LENGTH_DELIMITED) {
+            final int limit = input.pushLimit(input.readRawVarint32());
+            while (input.getBytesUntilLimit() > 0) {
+                values.add(input.readRawVarint32());
+            }
+            input.popLimit(limit);
+        } else {
+            values.add(input.readRawVarint32());
+        }
+    }
+
+    /**
+     * A growable array of ints.
+     */
+    private static class IntList {
+        private int[] values;
+        private int size;
+
+        private IntList(int capacity) {
+            values = new int[Math.max(1, capacity)];
+        }
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
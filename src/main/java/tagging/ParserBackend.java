@@ -0,0 +1,33 @@
+package tagging;
+
+/**
+ * A constituency parser model and the way it is run, used both by {@link StanfordParser} and by the parses of
+ * {@link AnnotatedSentence}s.
+ * <p>
+ * The model is loaded with {@link edu.stanford.nlp.parser.common.ParserGrammar#loadModel(String, String...)}, so any
+ * parser that CoreNLP can load from a serialized model can be used as a backend. The backend of a process is chosen
+ * with {@link ParserBackends#get()}.
+ */
+public interface ParserBackend {
+    /**
+     * Returns the name of this backend, which identifies it in configuration and in stored annotations.
+     *
+     * @return the name of this backend
+     */
+    String getName();
+
+    /**
+     * Returns the class path or file system location of the serialized model of this backend.
+     *
+     * @return the location of the model
+     */
+    String getModel();
+
+    /**
+     * Returns the maximum number of tokens of the sentences that this backend parses. Longer sentences get a flat
+     * tree of unknown constituents instead of a parse.
+     *
+     * @return the maximum sentence length, or 0 if there is no maximum
+     */
+    int getMaxLength();
+}
@@ -0,0 +1,112 @@
+package tagging;
+
+import edu.stanford.nlp.trees.Constituent;
+import edu.stanford.nlp.trees.LabeledScoredConstituentFactory;
+import edu.stanford.nlp.trees.Tree;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+import java.util.Set;
+
+/**
+ * Compares the throughput and accuracy of parser backends on the topic sentences. The accuracy of a backend is the
+ * labeled bracketing F1 and the fraction of identical trees compared with the {@link StandardParserBackend#PCFG}
+ * parses.
+ * <p>
+ * The backends to compare can be given by name as arguments. By default all of the standard backends whose models are
+ * available are compared.
+ */
+public class ParserBackendComparison {
+    private static final int WARM_UP_SENTENCES = 5;
+
+    public static void main(String[] args) throws FileNotFoundException {
+        final URL topicSentences = ParserBackendComparison.class.getResource("/topic_sentences.txt");
+        final Scanner scanner = new Scanner(new File(topicSentences.getFile()), "UTF-8");
+        final List<String> sentences = new ArrayList<>();
+        while (scanner.hasNext()) {
+            sentences.add(scanner.nextLine());
+        }
+
+        final List<ParserBackend> backends = new ArrayList<>();
+        if (args.length == 0) {
+            for (final StandardParserBackend backend : StandardParserBackend.values()) {
+                if (backend.isAvailable()) {
+                    backends.add(backend);
+                }
+            }
+        } else {
+            for (final String name : args) {
+                backends.add(ParserBackends.forName(name));
+            }
+        }
+
+        final Result reference = run(StandardParserBackend.PCFG, sentences);
+        System.out.printf("%-40s %12s %12s %8s %8s %8s %10s%n", "Backend", "Sentences/s", "Tokens/s", "Speedup",
+                "F1", "Exact", "Unparsed");
+        for (final ParserBackend backend : backends) {
+            final Result result = backend == StandardParserBackend.PCFG ? reference : run(backend, sentences);
+            int matched = 0;
+            int referenceConstituents = 0;
+            int constituents = 0;
+            int exactMatches = 0;
+            int unparsed = 0;
+            for (int i = 0; i < sentences.size(); i++) {
+                final Set<Constituent> referenceSet = getConstituents(reference.trees.get(i));
+                final Set<Constituent> set = getConstituents(result.trees.get(i));
+                referenceConstituents += referenceSet.size();
+                constituents += set.size();
+                set.retainAll(referenceSet);
+                matched += set.size();
+                exactMatches += result.trees.get(i).equals(reference.trees.get(i)) ? 1 : 0;
+                unparsed += isUnparsed(result.trees.get(i)) ? 1 : 0;
+            }
+            final double precision = constituents == 0 ? 0 : (double) matched / constituents;
+            final double recall = referenceConstituents == 0 ? 0 : (double) matched / referenceConstituents;
+            final double f1 = precision + recall == 0 ? 0 : 2 * precision * recall / (precision + recall);
+            final double seconds = result.nanos / 1e9;
+            System.out.printf("%-40s %12.2f %12.1f %7.2fx %7.1f%% %7.1f%% %10d%n", backend, sentences.size() / seconds,
+                    result.tokens / seconds, (double) reference.nanos / result.nanos, f1 * 100,
+                    100.0 * exactMatches / sentences.size(), unparsed);
+        }
+    }
+
+    private static Result run(ParserBackend backend, List<String> sentences) {
+        final StanfordParser parser = new StanfordParser(backend);
+        // Load the model and warm up the parser before timing it
+        for (int i = 0; i < WARM_UP_SENTENCES && i < sentences.size(); i++) {
+            parser.getPosTree(sentences.get(i));
+        }
+
+        final Result result = new Result();
+        final long startTime = System.nanoTime();
+        for (final String sentence : sentences) {
+            final Tree tree = parser.getPosTree(sentence);
+            result.trees.add(tree);
+            result.tokens += tree.getLeaves().size();
+        }
+        result.nanos = System.nanoTime() - startTime;
+        return result;
+    }
+
+    private static Set<Constituent> getConstituents(Tree tree) {
+        return new HashSet<>(tree.constituents(new LabeledScoredConstituentFactory()));
+    }
+
+    /**
+     * Returns whether the given tree is the flat tree given to sentences that are not parsed.
+     */
+    private static boolean isUnparsed(Tree tree) {
+        return tree.value().equals("X");
+    }
+
+    private static class Result {
+        private final List<Tree> trees = new ArrayList<>();
+        private long tokens;
+        private long nanos;
+    }
+}
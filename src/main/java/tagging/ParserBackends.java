@@ -0,0 +1,80 @@
+package tagging;
+
+import java.util.Properties;
+
+/**
+ * Chooses the {@link ParserBackend} of the process from the {@code nlp.parser.backend} system property.
+ * <p>
+ * The property is either the name of a {@link StandardParserBackend} or the name of a class that implements
+ * {@link ParserBackend} and has a public no-argument constructor. When the property is not set, the
+ * {@link StandardParserBackend#PCFG} backend is used. When the shift-reduce backend is chosen but its model is not on
+ * the class path, the {@link StandardParserBackend#PCFG_CUTOFF} backend is used instead.
+ */
+public class ParserBackends {
+    private static final String BACKEND_PROPERTY = "nlp.parser.backend";
+
+    private static ParserBackend backend;
+
+    /**
+     * Returns the configured parser backend.
+     *
+     * @return the parser backend of the process
+     */
+    public static synchronized ParserBackend get() {
+        if (backend == null) {
+            backend = forName(System.getProperty(BACKEND_PROPERTY, StandardParserBackend.PCFG.getName()));
+            if (backend != StandardParserBackend.PCFG) {
+                System.err.println("Using parser backend " + backend);
+            }
+        }
+        return backend;
+    }
+
+    /**
+     * Returns the parser backend with the given name.
+     *
+     * @param name the name of a standard backend or of a class implementing {@link ParserBackend}
+     * @return the parser backend
+     * @throws IllegalArgumentException if there is no backend with the given name
+     */
+    public static ParserBackend forName(String name) {
+        for (final StandardParserBackend standardBackend : StandardParserBackend.values()) {
+            if (standardBackend.getName().equals(name)) {
+                if (standardBackend == StandardParserBackend.SHIFT_REDUCE && !standardBackend.isAvailable()) {
+                    System.err.println("Shift-reduce parser model " + standardBackend.getModel() +
+                            " is not on the class path, using " + StandardParserBackend.PCFG_CUTOFF + " instead");
+                    return StandardParserBackend.PCFG_CUTOFF;
+                }
+                return standardBackend;
+            }
+        }
+        try {
+            return (ParserBackend) Class.forName(name).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalArgumentException("Unknown parser backend: " + name, e);
+        }
+    }
+
+    /**
+     * Returns the properties that make the parse annotator of CoreNLP's simple API use the given backend, or
+     * {@code null} if the simple API uses the backend by default.
+     *
+     * @param backend the given backend
+     * @return the annotator properties, or {@code null}
+     */
+    static Properties getAnnotatorProperties(ParserBackend backend) {
+        if (backend == StandardParserBackend.PCFG) {
+            return null;
+        }
+        // The same properties as the defaults of the simple API, plus the model and maximum length of the backend
+        final Properties properties = new Properties();
+        properties.setProperty("annotators", "");
+        properties.setProperty("tokenize.class", "PTBTokenizer");
+        properties.setProperty("tokenize.language", "en");
+        properties.setProperty("parse.model", backend.getModel());
+        if (backend.getMaxLength() > 0) {
+            properties.setProperty("parse.maxlen", String.valueOf(backend.getMaxLength()));
+        }
+        return properties;
+    }
+}
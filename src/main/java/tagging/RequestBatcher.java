@@ -0,0 +1,128 @@
+package tagging;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Coalesces single requests into calls of a batch method.
+ * <p>
+ * Requests are queued as they are submitted. While no batch is in flight, the queued requests are sent as one batch on
+ * the given executor, and requests that arrive while a batch is in flight are sent together in the next batch. Each
+ * request gets a {@link CompletableFuture} that is completed with its own result, or exceptionally if the batch fails.
+ * Requests whose future has already completed, for example because it timed out, are dropped from the queue without
+ * being sent. A batch that fails, even with an {@link Error}, does not stop the requests queued after it from being
+ * sent.
+ *
+ * @param <T> the type of the results
+ */
+class RequestBatcher<T> {
+    private final BatchCall<T> batchCall;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final Queue<Request<T>> pendingRequests = new ArrayDeque<>();
+    private boolean dispatching;
+
+    /**
+     * Creates a batcher that sends its batches with the given batch call on the given executor.
+     *
+     * @param batchCall    the given batch call
+     * @param executor     the given executor
+     * @param maxBatchSize the maximum number of requests sent in one batch
+     */
+    RequestBatcher(BatchCall<T> batchCall, Executor executor, int maxBatchSize) {
+        this.batchCall = batchCall;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues a request for the given input.
+     *
+     * @param input the given input
+     * @return the future result of the request
+     */
+    CompletableFuture<T> submit(String input) {
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final boolean startDispatching;
+        synchronized (this) {
+            pendingRequests.add(new Request<>(input, future));
+            startDispatching = !dispatching;
+            dispatching = true;
+        }
+        if (startDispatching) {
+            try {
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        dispatch();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Let the next request start a dispatcher instead
+                synchronized (this) {
+                    dispatching = false;
+                }
+                future.completeExceptionally(e);
+            }
+        }
+        return future;
+    }
+
+    private void dispatch() {
+        while (true) {
+            final List<Request<T>> batch = new ArrayList<>();
+            synchronized (this) {
+                while (batch.size() < maxBatchSize && !pendingRequests.isEmpty()) {
+                    final Request<T> request = pendingRequests.remove();
+                    if (!request.future.isDone()) {
+                        batch.add(request);
+                    }
+                }
+                if (batch.isEmpty()) {
+                    dispatching = false;
+                    return;
+                }
+            }
+
+            final List<String> inputs = new ArrayList<>(batch.size());
+            for (final Request<T> request : batch) {
+                inputs.add(request.input);
+            }
+            try {
+                final List<T> results = batchCall.call(inputs);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).future.complete(results.get(i));
+                }
+            } catch (Throwable e) {
+                // Any failure, even an error, fails the batch and not the dispatcher, which would otherwise never
+                // dispatch the queued requests
+                for (final Request<T> request : batch) {
+                    request.future.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A method that processes a list of inputs and returns the results in the same order.
+     *
+     * @param <T> the type of the results
+     */
+    interface BatchCall<T> {
+        List<T> call(List<String> inputs) throws Exception;
+    }
+
+    private static class Request<T> {
+        private final String input;
+        private final CompletableFuture<T> future;
+
+        private Request(String input, CompletableFuture<T> future) {
+            this.input = input;
+            this.future = future;
+        }
+    }
+}
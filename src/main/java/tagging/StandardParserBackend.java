@@ -0,0 +1,65 @@
+package tagging;
+
+/**
+ * The parser backends that use models from the CoreNLP models jar.
+ */
+public enum StandardParserBackend implements ParserBackend {
+    /**
+     * The lexicalized PCFG parser, which parses every sentence regardless of its length.
+     */
+    PCFG("pcfg", StandardParserBackend.PCFG_MODEL, 0),
+
+    /**
+     * The lexicalized PCFG parser, skipping sentences that are longer than the {@code nlp.parser.maxLength} system
+     * property. The parse time of the PCFG parser grows with the cube of the sentence length, so the few long
+     * sentences of a corpus take most of its parse time.
+     */
+    PCFG_CUTOFF("pcfg-cutoff", StandardParserBackend.PCFG_MODEL, Integer.getInteger("nlp.parser.maxLength", 40)),
+
+    /**
+     * The shift-reduce parser, whose parse time grows linearly with the sentence length. Its model is distributed
+     * separately from the CoreNLP models jar.
+     */
+    SHIFT_REDUCE("shift-reduce", "edu/stanford/nlp/models/srparser/englishSR.ser.gz", 0);
+
+    private static final String PCFG_MODEL = "edu/stanford/nlp/models/lexparser/englishPCFG.ser.gz";
+
+    private final String name;
+    private final String model;
+    private final int maxLength;
+
+    StandardParserBackend(String name, String model, int maxLength) {
+        this.name = name;
+        this.model = model;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getModel() {
+        return model;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * Returns whether the model of this backend can be found on the class path.
+     *
+     * @return whether the model is available
+     */
+    public boolean isAvailable() {
+        return StandardParserBackend.class.getClassLoader().getResource(model) != null;
+    }
+
+    @Override
+    public String toString() {
+        return maxLength > 0 ? name + " (at most " + maxLength + " tokens)" : name;
+    }
+}
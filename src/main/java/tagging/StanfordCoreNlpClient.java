@@ -1,12 +1,58 @@
 package tagging;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import simplenlg.features.Tense;
 
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 public class StanfordCoreNlpClient {
+    private static final int MAX_BATCH_SIZE = Integer.getInteger("nlp.client.maxBatchSize", 64);
+
+    private static final ExecutorService batchExecutor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("nlp-client-batch-%d").setDaemon(true).build());
+    private static final ScheduledExecutorService deadlineExecutor = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setNameFormat("nlp-client-deadline-%d").setDaemon(true).build());
+
+    private static final RequestBatcher<ParsedSentence> parseBatcher = new RequestBatcher<>(
+            new RequestBatcher.BatchCall<ParsedSentence>() {
+                @Override
+                public List<ParsedSentence> call(List<String> sentences) throws Exception {
+                    return nlpServer.parseSentences(sentences, false);
+                }
+            }, batchExecutor, MAX_BATCH_SIZE);
+    private static final RequestBatcher<ParsedSentence> parseWithoutPunctuationBatcher = new RequestBatcher<>(
+            new RequestBatcher.BatchCall<ParsedSentence>() {
+                @Override
+                public List<ParsedSentence> call(List<String> sentences) throws Exception {
+                    return nlpServer.parseSentences(sentences, true);
+                }
+            }, batchExecutor, MAX_BATCH_SIZE);
+    private static final RequestBatcher<Tense> tenseBatcher = new RequestBatcher<>(
+            new RequestBatcher.BatchCall<Tense>() {
+                @Override
+                public List<Tense> call(List<String> clauses) throws Exception {
+                    return nlpServer.calculateTenses(clauses);
+                }
+            }, batchExecutor, MAX_BATCH_SIZE);
+    private static final RequestBatcher<Map<String, NamedEntity>> namedEntityBatcher = new RequestBatcher<>(
+            new RequestBatcher.BatchCall<Map<String, NamedEntity>>() {
+                @Override
+                public List<Map<String, NamedEntity>> call(List<String> sentences) throws Exception {
+                    return nlpServer.findNamedEntities(sentences);
+                }
+            }, batchExecutor, MAX_BATCH_SIZE);
+
     private static NlpServer nlpServer;
 
     static {
@@ -45,6 +91,23 @@ public class StanfordCoreNlpClient {
         return null;
     }
 
+    /**
+     * Calculates the tense of the given clause from the tags of the part of speech tagger instead of a parse.
+     *
+     * @param clause the given clause
+     * @return the tense of the clause, or {@code null} if the call failed
+     * @see NlpServer#calculateTenseFromTags(String)
+     */
+    public static Tense calculateTenseFromTags(String clause) {
+        try {
+            return nlpServer.calculateTenseFromTags(clause);
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
     public static Map<String, NamedEntity> findNamedEntities(String sentence) {
         try {
             return nlpServer.findNamedEntities(sentence);
@@ -54,4 +117,170 @@ public class StanfordCoreNlpClient {
         }
         return null;
     }
+
+    /**
+     * Parses all of the given sentences with a single call to the server.
+     *
+     * @param sentences         the given sentences
+     * @param removePunctuation whether punctuation should be removed before parsing
+     * @return the parsed sentences in the same order as the given sentences, or {@code null} if the call failed
+     */
+    public static List<ParsedSentence> parseSentences(List<String> sentences, boolean removePunctuation) {
+        try {
+            return nlpServer.parseSentences(sentences, removePunctuation);
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Calculates the tense of all of the given clauses with a single call to the server.
+     *
+     * @param clauses the given clauses
+     * @return the tenses in the same order as the given clauses, or {@code null} if the call failed
+     */
+    public static List<Tense> calculateTenses(List<String> clauses) {
+        try {
+            return nlpServer.calculateTenses(clauses);
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Calculates the tense of all of the given clauses from the tags of the part of speech tagger with a single call to
+     * the server.
+     *
+     * @param clauses the given clauses
+     * @return the tenses in the same order as the given clauses, or {@code null} if the call failed
+     * @see NlpServer#calculateTensesFromTags(List)
+     */
+    public static List<Tense> calculateTensesFromTags(List<String> clauses) {
+        try {
+            return nlpServer.calculateTensesFromTags(clauses);
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Finds the named entities of all of the given sentences with a single call to the server.
+     *
+     * @param sentences the given sentences
+     * @return the named entities in the same order as the given sentences, or {@code null} if the call failed
+     */
+    public static List<Map<String, NamedEntity>> findNamedEntities(List<String> sentences) {
+        try {
+            return nlpServer.findNamedEntities(sentences);
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the server has loaded all of its models.
+     *
+     * @return whether the server is ready, or {@code false} if the call failed
+     * @see NlpServer#isReady()
+     */
+    public static boolean isServerReady() {
+        try {
+            return nlpServer.isReady();
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    /**
+     * Returns the statistics of the server.
+     *
+     * @return the statistics of the server, or {@code null} if the call failed
+     * @see NlpServer#getStatistics()
+     */
+    public static String getServerStatistics() {
+        try {
+            return nlpServer.getStatistics();
+        } catch (Exception e) {
+            System.err.println("Client exception: " + e.toString());
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    /**
+     * Parses the given sentence asynchronously.
+     * <p>
+     * Asynchronous calls do not hold a thread while they wait: calls that are made while another call of the same kind
+     * is in flight are queued and sent to the server together in a single batch call once it returns. If the call fails
+     * or does not complete before the given deadline, the returned future completes exceptionally, with a
+     * {@link TimeoutException} in the case of the deadline. A call that times out before it is sent to the server is
+     * never sent.
+     *
+     * @param sentence          the given sentence
+     * @param removePunctuation whether punctuation should be removed before parsing
+     * @param timeout           the time to wait for the result
+     * @param unit              the unit of the timeout
+     * @return the future parsed sentence
+     */
+    public static CompletableFuture<ParsedSentence> parseSentenceAsync(String sentence, boolean removePunctuation,
+                                                                       long timeout, TimeUnit unit) {
+        final RequestBatcher<ParsedSentence> batcher = removePunctuation ? parseWithoutPunctuationBatcher :
+                parseBatcher;
+        return withDeadline(batcher.submit(sentence), timeout, unit);
+    }
+
+    /**
+     * Calculates the tense of the given clause asynchronously.
+     *
+     * @param clause  the given clause
+     * @param timeout the time to wait for the result
+     * @param unit    the unit of the timeout
+     * @return the future tense
+     * @see #parseSentenceAsync(String, boolean, long, TimeUnit)
+     */
+    public static CompletableFuture<Tense> calculateTenseAsync(String clause, long timeout, TimeUnit unit) {
+        return withDeadline(tenseBatcher.submit(clause), timeout, unit);
+    }
+
+    /**
+     * Finds the named entities of the given sentence asynchronously.
+     *
+     * @param sentence the given sentence
+     * @param timeout  the time to wait for the result
+     * @param unit     the unit of the timeout
+     * @return the future named entities
+     * @see #parseSentenceAsync(String, boolean, long, TimeUnit)
+     */
+    public static CompletableFuture<Map<String, NamedEntity>> findNamedEntitiesAsync(String sentence, long timeout,
+                                                                                   TimeUnit unit) {
+        return withDeadline(namedEntityBatcher.submit(sentence), timeout, unit);
+    }
+
+    private static <T> CompletableFuture<T> withDeadline(final CompletableFuture<T> future, final long timeout,
+                                                         final TimeUnit unit) {
+        final ScheduledFuture<?> deadline = deadlineExecutor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                future.completeExceptionally(new TimeoutException("NLP server call did not complete within " +
+                        timeout + " " + unit.toString().toLowerCase()));
+            }
+        }, timeout, unit);
+        future.whenComplete(new BiConsumer<T, Throwable>() {
+            @Override
+            public void accept(T result, Throwable throwable) {
+                deadline.cancel(false);
+            }
+        });
+        return future;
+    }
 }
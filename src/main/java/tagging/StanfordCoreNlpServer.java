@@ -1,21 +1,75 @@
 package tagging;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import simplenlg.features.Tense;
 
 import java.rmi.RemoteException;
 import java.rmi.registry.LocateRegistry;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class StanfordCoreNlpServer implements NlpServer {
     public static String RMI_REGISTRY_KEY = "NLP";
 
+    /**
+     * The number of parsers that can run at the same time, which can be set with the {@code nlp.server.parsers} system
+     * property.
+     */
+    private static final int PARSERS = Integer.getInteger("nlp.server.parsers",
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The number of threads used to process the sentences of batch calls, which can be set with the
+     * {@code nlp.server.threads} system property.
+     */
+    private static final int BATCH_THREADS = Integer.getInteger("nlp.server.threads", PARSERS);
+
+    /**
+     * Whether the standalone server loads its models in the background as soon as it starts instead of when they are
+     * first needed, which can be set with the {@code nlp.server.preload} system property.
+     */
+    private static final boolean PRELOAD = Boolean.parseBoolean(System.getProperty("nlp.server.preload", "true"));
+
+    private static final Task<Tense> TENSE_TASK = new Task<Tense>() {
+        @Override
+        public Tense run(StanfordParser parser, String clause) {
+            return parser.calculateTense(clause);
+        }
+    };
+
+    private static final Task<Tense> TAGGER_TENSE_TASK = new Task<Tense>() {
+        @Override
+        public Tense run(StanfordParser parser, String clause) {
+            return parser.calculateTenseFromTags(clause);
+        }
+    };
+
+    private static final Task<Map<String, NamedEntity>> NAMED_ENTITY_TASK = new Task<Map<String, NamedEntity>>() {
+        @Override
+        public Map<String, NamedEntity> run(StanfordParser parser, String sentence) {
+            return parser.findNamedEntities(sentence);
+        }
+    };
+
     private final StanfordParser parser = new StanfordParser();
+    private final StanfordParserPool parsers = new StanfordParserPool(parser, PARSERS);
+    private final ExecutorService batchExecutor = Executors.newFixedThreadPool(BATCH_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("nlp-server-batch-%d").setDaemon(true).build());
 
     public static void main(String args[]) {
         try {
             StanfordCoreNlpServer obj = new StanfordCoreNlpServer();
+            if (PRELOAD) {
+                obj.loadModelsInBackground();
+            }
             NlpServer stub = (NlpServer) UnicastRemoteObject.exportObject(obj, 0);
 
             // Bind the remote object's stub in the registry
@@ -23,25 +77,155 @@ public class StanfordCoreNlpServer implements NlpServer {
             Registry registry = LocateRegistry.getRegistry();
             registry.bind(RMI_REGISTRY_KEY, stub);
 
-            System.err.println("Server ready");
+            System.err.println(obj.parser.isReady() ? "Server ready" : "Server accepting calls while models load");
         } catch (Exception e) {
             System.err.println("Server exception: " + e.toString());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Starts loading the models of the server on background threads, so that the first calls do not have to wait for
+     * them.
+     *
+     * @see #isReady()
+     */
+    public void loadModelsInBackground() {
+        parser.loadModelsInBackground();
+    }
+
     @Override
     public ParsedSentence parseSentence(String sentence, boolean removePunctuation) throws RemoteException {
-        return parser.parseSentence(sentence, removePunctuation);
+        return process(sentence, parseTask(removePunctuation));
     }
 
     @Override
     public Tense calculateTense(String clause) throws RemoteException {
-        return parser.calculateTense(clause);
+        return process(clause, TENSE_TASK);
+    }
+
+    @Override
+    public Tense calculateTenseFromTags(String clause) throws RemoteException {
+        return process(clause, TAGGER_TENSE_TASK);
     }
 
     @Override
     public Map<String, NamedEntity> findNamedEntities(String sentence) throws RemoteException {
-        return parser.findNamedEntities(sentence);
+        return process(sentence, NAMED_ENTITY_TASK);
+    }
+
+    @Override
+    public List<ParsedSentence> parseSentences(List<String> sentences, boolean removePunctuation)
+            throws RemoteException {
+        return processAll(sentences, parseTask(removePunctuation));
+    }
+
+    @Override
+    public List<Tense> calculateTenses(List<String> clauses) throws RemoteException {
+        return processAll(clauses, TENSE_TASK);
+    }
+
+    @Override
+    public List<Tense> calculateTensesFromTags(List<String> clauses) throws RemoteException {
+        return processAll(clauses, TAGGER_TENSE_TASK);
+    }
+
+    @Override
+    public List<Map<String, NamedEntity>> findNamedEntities(List<String> sentences) throws RemoteException {
+        return processAll(sentences, NAMED_ENTITY_TASK);
+    }
+
+    @Override
+    public boolean isReady() throws RemoteException {
+        return parser.isReady();
+    }
+
+    @Override
+    public String getStatistics() throws RemoteException {
+        return parsers.toString() + (parser.isReady() ? "" : ", models not loaded");
+    }
+
+    private static Task<ParsedSentence> parseTask(final boolean removePunctuation) {
+        return new Task<ParsedSentence>() {
+            @Override
+            public ParsedSentence run(StanfordParser parser, String sentence) {
+                return parser.parseSentence(sentence, removePunctuation);
+            }
+        };
+    }
+
+    /**
+     * Runs the given task on the given input with a parser from the pool.
+     *
+     * @param input the given input
+     * @param task  the given task
+     * @param <T>   the type of the result
+     * @return the result of the task
+     * @throws RemoteException if the thread is interrupted while waiting for a parser
+     */
+    private <T> T process(String input, Task<T> task) throws RemoteException {
+        final StanfordParser parser;
+        try {
+            parser = parsers.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for a parser", e);
+        }
+        try {
+            return task.run(parser, input);
+        } finally {
+            parsers.release(parser);
+        }
+    }
+
+    /**
+     * Runs the given task on all of the given inputs on the batch threads and waits for all of the results.
+     *
+     * @param inputs the given inputs
+     * @param task   the given task
+     * @param <T>    the type of the results
+     * @return the results, in the same order as the inputs
+     * @throws RemoteException if the task fails for any of the inputs
+     */
+    private <T> List<T> processAll(List<String> inputs, final Task<T> task) throws RemoteException {
+        final List<Future<T>> futures = new ArrayList<>(inputs.size());
+        for (final String input : inputs) {
+            futures.add(batchExecutor.submit(new Callable<T>() {
+                @Override
+                public T call() throws RemoteException {
+                    return process(input, task);
+                }
+            }));
+        }
+
+        final List<T> results = new ArrayList<>(inputs.size());
+        try {
+            for (final Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new RemoteException("Interrupted while waiting for batch results", e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            throw new RemoteException("Batch task failed", e.getCause());
+        }
+        return results;
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (final Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    /**
+     * Work that needs a {@link StanfordParser} from the pool.
+     *
+     * @param <T> the type of the result
+     */
+    private interface Task<T> {
+        T run(StanfordParser parser, String input);
     }
 }
@@ -1,32 +1,127 @@
 package tagging;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.Uninterruptibles;
 import edu.stanford.nlp.ie.AbstractSequenceClassifier;
 import edu.stanford.nlp.ie.crf.CRFClassifier;
 import edu.stanford.nlp.ling.CoreLabel;
-import edu.stanford.nlp.parser.lexparser.LexicalizedParser;
+import edu.stanford.nlp.ling.TaggedWord;
+import edu.stanford.nlp.parser.common.ParserGrammar;
+import edu.stanford.nlp.parser.common.ParserQuery;
+import edu.stanford.nlp.parser.common.ParserUtils;
 import edu.stanford.nlp.process.CoreLabelTokenFactory;
 import edu.stanford.nlp.process.PTBTokenizer;
 import edu.stanford.nlp.process.Tokenizer;
 import edu.stanford.nlp.process.TokenizerFactory;
+import edu.stanford.nlp.tagger.maxent.MaxentTagger;
 import edu.stanford.nlp.trees.*;
 import edu.stanford.nlp.util.Triple;
 import simplenlg.features.Tense;
+import util.TenseUtil;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
 
+/**
+ * Parses sentences with the Stanford parser of a {@link ParserBackend}, tags them with the Stanford part of speech
+ * tagger and finds their named entities with the Stanford NER classifier.
+ * <p>
+ * An instance is not safe to use from several threads at once, because it reuses one parser query for all of its
+ * parses. Use {@link #copy()} to create more instances that share the loaded models.
+ * <p>
+ * Each model is loaded when a method that needs it is first called, so for example {@link #calculateTense(String)}
+ * never waits for the NER model. {@link #loadModelsInBackground()} starts loading all of the models in parallel ahead
+ * of time.
+ */
 class StanfordParser {
-    private final String PCG_MODEL = "edu/stanford/nlp/models/lexparser/englishPCFG.ser.gz";
+    private static final String serializedClassifier = "edu/stanford/nlp/models/ner/english.muc.7class.distsim.crf" +
+            ".ser.gz";
+    private static final String TAGGER_MODEL = "edu/stanford/nlp/models/pos-tagger/english-left3words/" +
+            "english-left3words-distsim.tagger";
+
+    private static final ExecutorService modelLoader = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("nlp-model-loader-%d").setDaemon(true).build());
+
     private final TokenizerFactory<CoreLabel> tokenizerFactory = PTBTokenizer.factory(new CoreLabelTokenFactory(),
             "invertible=true");
-    private final LexicalizedParser parser = LexicalizedParser.loadModel(PCG_MODEL);
-    private final String serializedClassifier = "edu/stanford/nlp/models/ner/english.muc.7class.distsim.crf" +
-            ".ser.gz";
-    private final AbstractSequenceClassifier<CoreLabel> classifier = CRFClassifier.getClassifierNoExceptions(
-            serializedClassifier);
+    private final ParserBackend backend;
+    private final Model<ParserGrammar> parser;
+    private final Model<AbstractSequenceClassifier<CoreLabel>> classifier;
+    private final Model<MaxentTagger> tagger;
+    private ParserQuery parserQuery;
+
+    StanfordParser() {
+        this(ParserBackends.get());
+    }
+
+    /**
+     * Creates a parser that uses the given backend.
+     *
+     * @param backend the given backend
+     */
+    StanfordParser(final ParserBackend backend) {
+        this(backend, new Model<>(new Callable<ParserGrammar>() {
+            @Override
+            public ParserGrammar call() {
+                return ParserGrammar.loadModel(backend.getModel());
+            }
+        }), new Model<>(new Callable<AbstractSequenceClassifier<CoreLabel>>() {
+            @Override
+            public AbstractSequenceClassifier<CoreLabel> call() {
+                return CRFClassifier.getClassifierNoExceptions(serializedClassifier);
+            }
+        }), new Model<>(new Callable<MaxentTagger>() {
+            @Override
+            public MaxentTagger call() {
+                return new MaxentTagger(TAGGER_MODEL);
+            }
+        }));
+    }
+
+    private StanfordParser(ParserBackend backend, Model<ParserGrammar> parser,
+                           Model<AbstractSequenceClassifier<CoreLabel>> classifier, Model<MaxentTagger> tagger) {
+        this.backend = backend;
+        this.parser = parser;
+        this.classifier = classifier;
+        this.tagger = tagger;
+    }
+
+    /**
+     * Creates a new instance that shares the models of this instance but has its own parser query.
+     *
+     * @return the new instance
+     */
+    StanfordParser copy() {
+        return new StanfordParser(backend, parser, classifier, tagger);
+    }
+
+    /**
+     * Starts loading the models that have not been loaded yet on background threads, one thread per model.
+     */
+    void loadModelsInBackground() {
+        parser.loadInBackground();
+        classifier.loadInBackground();
+        tagger.loadInBackground();
+    }
+
+    /**
+     * Returns whether all of the models have been loaded, so that no method waits for a model to load.
+     *
+     * @return whether the models are loaded
+     */
+    boolean isReady() {
+        return parser.isLoaded() && classifier.isLoaded() && tagger.isLoaded();
+    }
 
     public ParsedSentence parseSentence(String sentence, boolean removePunctuation) {
         if (removePunctuation) {
@@ -38,16 +133,20 @@ class StanfordParser {
     }
 
     public Tense calculateTense(String clause) {
-        final Tree posTree = getPosTree(clause);
-        final Tree word = posTree.getLeaves().get(0);
-        final String pos = word.parent(posTree).label().value().toLowerCase();
-        if (pos.equals("md")) {
-            return Tense.FUTURE;
-        }
-        if (pos.equals("vbd") || pos.equals("vbn")) {
-            return Tense.PAST;
-        }
-        return Tense.PRESENT;
+        return TenseUtil.calculateClauseTense(getTags(getPosTree(clause).taggedYield()));
+    }
+
+    /**
+     * Calculates the tense of the given clause from the part of speech tags of the tagger, which is much cheaper than
+     * parsing the clause as {@link #calculateTense(String)} does.
+     *
+     * @param clause the given clause
+     * @return the tense of the clause
+     * @see TenseUtil#calculateClauseTense(List)
+     */
+    public Tense calculateTenseFromTags(String clause) {
+        final List<CoreLabel> tokens = tokenizerFactory.getTokenizer(new StringReader(clause)).tokenize();
+        return TenseUtil.calculateClauseTense(getTags(tagger.get().tagSentence(tokens)));
     }
 
     public Map<String, NamedEntity> findNamedEntities(String sentence) {
@@ -61,17 +160,55 @@ class StanfordParser {
     }
 
     private List<Triple<String, Integer, Integer>> findNerSubstrings(String sentence) {
-        return classifier.classifyToCharacterOffsets(sentence);
+        return classifier.get().classifyToCharacterOffsets(sentence);
     }
 
     private String cleanSentence(String sentence) {
         return sentence.replaceAll("\\p{Punct}", "").replaceAll("[ ]+", " ");
     }
 
-    private Tree getPosTree(String sentence) {
+    /**
+     * Parses the given sentence with the backend of this parser.
+     *
+     * @param sentence the given sentence
+     * @return the parse tree, or a flat tree if the sentence cannot be parsed or is too long for the backend, in
+     * which case the words of the tree are tagged by the tagger
+     */
+    Tree getPosTree(String sentence) {
         final Tokenizer<CoreLabel> tokenizer = tokenizerFactory.getTokenizer(new StringReader(sentence));
         final List<CoreLabel> tokens = tokenizer.tokenize();
-        return parser.apply(tokens);
+        if (backend.getMaxLength() > 0 && tokens.size() > backend.getMaxLength()) {
+            // Keep the part of speech tags in the flat tree, since the tagger is much cheaper than the parser
+            tagger.get().tagCoreLabels(tokens);
+            return ParserUtils.xTree(tokens);
+        }
+        // Same as ParserGrammar.parse, but without creating a new parser query for every sentence
+        final ParserGrammar grammar = parser.get();
+        if (parserQuery == null) {
+            parserQuery = grammar.parserQuery();
+        }
+        if (grammar.requiresTags()) {
+            tagger.get().tagCoreLabels(tokens);
+        }
+        try {
+            if (parserQuery.parse(tokens)) {
+                final Tree bestParse = parserQuery.getBestParse();
+                bestParse.setScore(parserQuery.getPCFGScore() % -10000.0);
+                return bestParse;
+            }
+        } catch (Exception e) {
+            System.err.println("Following exception caught during parsing:");
+            e.printStackTrace();
+        }
+        return ParserUtils.xTree(tokens);
+    }
+
+    private static List<String> getTags(List<TaggedWord> taggedWords) {
+        final List<String> posTags = new ArrayList<>(taggedWords.size());
+        for (final TaggedWord taggedWord : taggedWords) {
+            posTags.add(taggedWord.tag());
+        }
+        return posTags;
     }
 
     private Collection<TypedDependency> getDependencies(Tree sentenceParseTree) {
@@ -80,4 +217,41 @@ class StanfordParser {
         final GrammaticalStructure gs = gsf.newGrammaticalStructure(sentenceParseTree);
         return gs.typedDependenciesCollapsed();
     }
+
+    /**
+     * A model that is loaded once, either by the first caller that needs it or on a background thread.
+     *
+     * @param <T> the type of the model
+     */
+    private static class Model<T> {
+        private final FutureTask<T> loader;
+
+        private Model(Callable<T> loader) {
+            this.loader = new FutureTask<>(loader);
+        }
+
+        /**
+         * Returns the model, loading it on the calling thread if nobody has started loading it yet and waiting for it
+         * otherwise.
+         */
+        private T get() {
+            // Does nothing if the model is already loading or loaded
+            loader.run();
+            try {
+                return Uninterruptibles.getUninterruptibly(loader);
+            } catch (ExecutionException e) {
+                throw Throwables.propagate(e.getCause());
+            }
+        }
+
+        private void loadInBackground() {
+            if (!loader.isDone()) {
+                modelLoader.execute(loader);
+            }
+        }
+
+        private boolean isLoaded() {
+            return loader.isDone();
+        }
+    }
 }
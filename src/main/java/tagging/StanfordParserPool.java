@@ -0,0 +1,121 @@
+package tagging;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fixed-size pool of {@link StanfordParser}s that share one copy of the parser and NER models.
+ * <p>
+ * A parser is taken out of the pool with {@link #acquire()} and must be given back with
+ * {@link #release(StanfordParser)} once the caller is done with it. Callers wait while all of the parsers are in use.
+ * The pool keeps track of how long callers wait for a parser and of how busy the parsers are.
+ */
+class StanfordParserPool {
+    private final int size;
+    private final BlockingQueue<StanfordParser> idleParsers;
+    private final long creationTime = System.nanoTime();
+
+    private int busyParsers;
+    private long acquisitions;
+    private long totalWaitNanos;
+    private long maxWaitNanos;
+    private long busyNanos;
+    private long lastChangeTime = creationTime;
+
+    /**
+     * Creates a pool of the given size from the given parser and copies of it, so that all of the parsers share its
+     * models.
+     *
+     * @param parser the given parser
+     * @param size   the number of parsers in the pool
+     */
+    StanfordParserPool(StanfordParser parser, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Parser pool size must be positive: " + size);
+        }
+        this.size = size;
+        idleParsers = new ArrayBlockingQueue<>(size);
+        idleParsers.add(parser);
+        for (int i = 1; i < size; i++) {
+            idleParsers.add(parser.copy());
+        }
+    }
+
+    /**
+     * Takes a parser out of the pool, waiting until one is available.
+     *
+     * @return the parser
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    StanfordParser acquire() throws InterruptedException {
+        final long startTime = System.nanoTime();
+        final StanfordParser parser = idleParsers.take();
+        final long now = System.nanoTime();
+        synchronized (this) {
+            updateBusyTime(now);
+            busyParsers++;
+            acquisitions++;
+            totalWaitNanos += now - startTime;
+            maxWaitNanos = Math.max(maxWaitNanos, now - startTime);
+        }
+        return parser;
+    }
+
+    /**
+     * Gives a parser that was taken out with {@link #acquire()} back to the pool.
+     *
+     * @param parser the parser
+     */
+    void release(StanfordParser parser) {
+        synchronized (this) {
+            updateBusyTime(System.nanoTime());
+            busyParsers--;
+        }
+        idleParsers.add(parser);
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    synchronized int getBusyParsers() {
+        return busyParsers;
+    }
+
+    /**
+     * Returns the fraction of the available parser time that has been spent parsing since the pool was created.
+     *
+     * @return the utilization of the pool, between 0 and 1
+     */
+    synchronized double getUtilization() {
+        final long now = System.nanoTime();
+        updateBusyTime(now);
+        final long elapsed = now - creationTime;
+        return elapsed == 0 ? 0 : (double) busyNanos / ((double) elapsed * size);
+    }
+
+    synchronized long getAcquisitions() {
+        return acquisitions;
+    }
+
+    synchronized double getAverageWaitMillis() {
+        return acquisitions == 0 ? 0 : (double) totalWaitNanos / acquisitions / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    synchronized double getMaxWaitMillis() {
+        return (double) maxWaitNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d parsers (%d busy), %d acquisitions, %.1f%% utilization, %.2f ms average wait, " +
+                        "%.2f ms maximum wait", size, busyParsers, acquisitions, getUtilization() * 100,
+                getAverageWaitMillis(), getMaxWaitMillis());
+    }
+
+    private void updateBusyTime(long now) {
+        busyNanos += busyParsers * (now - lastChangeTime);
+        lastChangeTime = now;
+    }
+}
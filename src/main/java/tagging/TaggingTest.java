@@ -6,6 +6,8 @@ import edu.stanford.nlp.trees.Tree;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Scanner;
 
@@ -16,10 +18,11 @@ public class TaggingTest {
         if (args.length == 0) {
             final URL topicSentences = TaggingTest.class.getResource("/topic_sentences.txt");
             final Scanner scanner = new Scanner(new File(topicSentences.getFile()));
+            final List<String> sentences = new ArrayList<>();
             while (scanner.hasNext()) {
-                final String sentence = scanner.nextLine();
-                printSentenceParseTree(sentence);
+                sentences.add(scanner.nextLine());
             }
+            printSentenceParseTrees(sentences);
         } else {
 
             // Wait for the English model to load in order to keep debug text out of the results
@@ -30,16 +33,25 @@ public class TaggingTest {
             }
 
             final String sentence = Joiner.on(' ').join(args);
-            printSentenceParseTree(sentence);
+            printSentenceParseTrees(Collections.singletonList(sentence));
         }
     }
 
-    private static void printSentenceParseTree(String sentence) {
-        System.out.println("ParsedSentence being analyzed: \"" + sentence + "\"\n---------------------------");
+    private static void printSentenceParseTrees(List<String> sentences) {
+        // Parse all of the sentences in one batch instead of one call per sentence
+        final List<String> cleanedSentences = new ArrayList<>(sentences.size());
+        for (final String sentence : sentences) {
+            cleanedSentences.add(sentence.replaceAll("\\.", ""));
+        }
+        final List<ParsedSentence> parsedSentences = StanfordCoreNlpClient.parseSentences(cleanedSentences, false);
+        for (int i = 0; i < sentences.size(); i++) {
+            printSentenceParseTree(sentences.get(i), parsedSentences.get(i));
+        }
+    }
 
-        sentence = sentence.replaceAll("\\.", "");
+    private static void printSentenceParseTree(String sentence, ParsedSentence parsedSentence) {
+        System.out.println("ParsedSentence being analyzed: \"" + sentence + "\"\n---------------------------");
 
-        final ParsedSentence parsedSentence = StanfordCoreNlpClient.parseSentence(sentence, false);
         final Tree tree = parsedSentence.getPosTree();
         final List<Tree> trees = tree.getChild(0).getChildrenAsList();
         for (final Tree part : trees) {
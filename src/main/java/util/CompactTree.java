@@ -0,0 +1,369 @@
+package util;
+
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.Label;
+import edu.stanford.nlp.trees.LabeledScoredTreeNode;
+import edu.stanford.nlp.trees.Tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A phrase structure tree stored in flat arrays of integers.
+ * <p>
+ * A {@link Tree} keeps an object, a child array and a {@link CoreLabel} map for every node. This class numbers the
+ * nodes in pre-order, with the root as node 0, and stores the structure of the tree as the parent, first child and next
+ * sibling of every node, along with the span of leaves under every node and the child chosen as its head. Phrase and
+ * part of speech labels are stored as ids from {@link TreeLabels} and as {@link PennTreebankLabel} constants, and the
+ * words of the leaves are kept in a single array indexed by leaf index. Nodes are referred to by their number and
+ * missing nodes by -1, so walking the tree and comparing labels do not allocate.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class CompactTree {
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] labels;
+    private final int[] firstLeafIndices;
+    private final int[] lastLeafIndices;
+    private final int[] headChildren;
+    private final PennTreebankLabel[] categories;
+    private final int[] leafNodes;
+    private final String[] words;
+    private final String[] originalTexts;
+    private final double score;
+
+    private CompactTree(int size, int leafCount, double score) {
+        parents = new int[size];
+        firstChildren = new int[size];
+        nextSiblings = new int[size];
+        labels = new int[size];
+        firstLeafIndices = new int[size];
+        lastLeafIndices = new int[size];
+        headChildren = new int[size];
+        categories = new PennTreebankLabel[size];
+        leafNodes = new int[leafCount];
+        words = new String[leafCount];
+        originalTexts = new String[leafCount];
+        this.score = score;
+    }
+
+    /**
+     * Converts the given tree into a compact tree.
+     *
+     * @param root the root of the given tree
+     * @return the compact tree
+     */
+    public static CompactTree fromTree(Tree root) {
+        final CompactTree compactTree = new CompactTree(root.size(), root.getLeaves().size(), root.score());
+        compactTree.add(root, 0, -1, new int[1]);
+        return compactTree;
+    }
+
+    /**
+     * Adds the given tree as the node with the given number.
+     *
+     * @param leafCount the number of leaves added so far, which is updated
+     * @return the number of the first node after the given tree
+     */
+    private int add(Tree tree, int number, int parent, int[] leafCount) {
+        parents[number] = parent;
+        firstChildren[number] = -1;
+        nextSiblings[number] = -1;
+        headChildren[number] = -1;
+        firstLeafIndices[number] = leafCount[0];
+
+        final Tree[] children = tree.children();
+        if (children.length == 0) {
+            final int leafIndex = leafCount[0]++;
+            final Label label = tree.label();
+            labels[number] = -1;
+            categories[number] = PennTreebankLabel.OTHER;
+            leafNodes[leafIndex] = number;
+            words[leafIndex] = tree.value();
+            originalTexts[leafIndex] = label instanceof CoreLabel ? ((CoreLabel) label).originalText() : null;
+            lastLeafIndices[number] = leafIndex;
+            return number + 1;
+        }
+
+        labels[number] = TreeLabels.intern(tree.value());
+        categories[number] = PennTreebankLabel.of(tree.value());
+        final Tree head = determineHead(tree);
+        int nextNumber = number + 1;
+        int previousChild = -1;
+        for (final Tree child : children) {
+            if (previousChild == -1) {
+                firstChildren[number] = nextNumber;
+            } else {
+                nextSiblings[previousChild] = nextNumber;
+            }
+            if (child == head) {
+                headChildren[number] = nextNumber;
+            }
+            previousChild = nextNumber;
+            nextNumber = add(child, nextNumber, number, leafCount);
+        }
+        lastLeafIndices[number] = leafCount[0] - 1;
+        return nextNumber;
+    }
+
+    private static Tree determineHead(Tree tree) {
+        try {
+            return TreeUtil.findHead(tree);
+        } catch (IllegalArgumentException e) {
+            // There is no head rule for the label of the tree
+            return null;
+        }
+    }
+
+    /**
+     * Converts this compact tree back into a {@link Tree}. The leaves are labeled with their word, original text and
+     * 1-based index, and the other nodes with their label.
+     *
+     * @return the root of the tree
+     */
+    public Tree toTree() {
+        final Tree root = toTree(0);
+        root.setScore(score);
+        return root;
+    }
+
+    private Tree toTree(int node) {
+        final CoreLabel label = new CoreLabel();
+        if (isLeaf(node)) {
+            final int leafIndex = firstLeafIndices[node];
+            label.setValue(words[leafIndex]);
+            label.setWord(words[leafIndex]);
+            if (originalTexts[leafIndex] != null) {
+                label.setOriginalText(originalTexts[leafIndex]);
+            }
+            label.setIndex(leafIndex + 1);
+            return new LabeledScoredTreeNode(label);
+        }
+
+        label.setValue(TreeLabels.getLabel(labels[node]));
+        final List<Tree> children = new ArrayList<>(getNumChildren(node));
+        for (int child = firstChildren[node]; child != -1; child = nextSiblings[child]) {
+            children.add(toTree(child));
+        }
+        return new LabeledScoredTreeNode(label, children);
+    }
+
+    /**
+     * Returns the number of nodes in this tree.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return parents.length;
+    }
+
+    /**
+     * Returns the number of leaves in this tree.
+     *
+     * @return the number of leaves
+     */
+    public int getLeafCount() {
+        return leafNodes.length;
+    }
+
+    /**
+     * Returns the parent of the given node.
+     *
+     * @param node the given node
+     * @return the parent of the given node, or -1 for the root
+     */
+    public int getParent(int node) {
+        return parents[node];
+    }
+
+    /**
+     * Returns the first child of the given node.
+     *
+     * @param node the given node
+     * @return the first child of the given node, or -1 for a leaf
+     */
+    public int getFirstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * Returns the next sibling of the given node.
+     *
+     * @param node the given node
+     * @return the sibling to the right of the given node, or -1 if it is the last child of its parent
+     */
+    public int getNextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * Returns the number of children of the given node.
+     *
+     * @param node the given node
+     * @return the number of children
+     */
+    public int getNumChildren(int node) {
+        int numChildren = 0;
+        for (int child = firstChildren[node]; child != -1; child = nextSiblings[child]) {
+            numChildren++;
+        }
+        return numChildren;
+    }
+
+    /**
+     * Returns the child of the given node at the given position.
+     *
+     * @param node     the given node
+     * @param position the position of the child
+     * @return the child at the given position, or -1 if the node has fewer children
+     */
+    public int getChild(int node, int position) {
+        int child = firstChildren[node];
+        for (int i = 0; i < position && child != -1; i++) {
+            child = nextSiblings[child];
+        }
+        return child;
+    }
+
+    /**
+     * Returns whether the given node is a leaf.
+     *
+     * @param node the given node
+     * @return whether the given node has no children
+     */
+    public boolean isLeaf(int node) {
+        return firstChildren[node] == -1;
+    }
+
+    /**
+     * Returns whether the given node is a preterminal, which is a node whose only child is a leaf.
+     *
+     * @param node the given node
+     * @return whether the given node is a preterminal
+     */
+    public boolean isPreTerminal(int node) {
+        final int child = firstChildren[node];
+        return child != -1 && nextSiblings[child] == -1 && isLeaf(child);
+    }
+
+    /**
+     * Returns the {@link TreeLabels} id of the label of the given node.
+     *
+     * @param node the given node
+     * @return the label id of the given node, or -1 for a leaf
+     */
+    public int getLabelId(int node) {
+        return labels[node];
+    }
+
+    /**
+     * Returns the label of the given node, which is the word for a leaf.
+     *
+     * @param node the given node
+     * @return the label of the given node
+     */
+    public String getLabel(int node) {
+        return labels[node] == -1 ? words[firstLeafIndices[node]] : TreeLabels.getLabel(labels[node]);
+    }
+
+    /**
+     * Returns the Penn Treebank label of the given node.
+     *
+     * @param node the given node
+     * @return the label of the given node, which is {@link PennTreebankLabel#OTHER} for a leaf
+     */
+    public PennTreebankLabel getCategory(int node) {
+        return categories[node];
+    }
+
+    /**
+     * Returns the leaf node with the given leaf index.
+     *
+     * @param leafIndex the given leaf index
+     * @return the leaf node
+     */
+    public int getLeafNode(int leafIndex) {
+        return leafNodes[leafIndex];
+    }
+
+    /**
+     * Returns the word of the leaf with the given leaf index.
+     *
+     * @param leafIndex the given leaf index
+     * @return the word of the leaf
+     */
+    public String getWord(int leafIndex) {
+        return words[leafIndex];
+    }
+
+    /**
+     * Returns the words of the leaves of this tree.
+     *
+     * @return the words of the leaves
+     */
+    public List<String> getWords() {
+        return Arrays.asList(words.clone());
+    }
+
+    /**
+     * Returns the index of the leftmost leaf under the given node.
+     *
+     * @param node the given node
+     * @return the index of the leftmost leaf
+     */
+    public int getFirstLeafIndex(int node) {
+        return firstLeafIndices[node];
+    }
+
+    /**
+     * Returns the index of the rightmost leaf under the given node.
+     *
+     * @param node the given node
+     * @return the index of the rightmost leaf
+     */
+    public int getLastLeafIndex(int node) {
+        return lastLeafIndices[node];
+    }
+
+    /**
+     * Returns the child of the given node that is its head according to the Collins head rules.
+     *
+     * @param node the given node
+     * @return the head child of the given node, or -1 for a leaf or a node without a head rule
+     */
+    public int getHeadChild(int node) {
+        return headChildren[node];
+    }
+
+    /**
+     * Returns the score of the parse.
+     *
+     * @return the score of the parse
+     */
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder();
+        appendTo(stringBuilder, 0);
+        return stringBuilder.toString();
+    }
+
+    private void appendTo(StringBuilder stringBuilder, int node) {
+        if (isLeaf(node)) {
+            stringBuilder.append(getLabel(node));
+            return;
+        }
+        stringBuilder.append('(').append(getLabel(node));
+        for (int child = firstChildren[node]; child != -1; child = nextSiblings[child]) {
+            stringBuilder.append(' ');
+            appendTo(stringBuilder, child);
+        }
+        stringBuilder.append(')');
+    }
+}
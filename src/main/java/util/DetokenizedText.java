@@ -0,0 +1,194 @@
+package util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * The words of a sentence joined into one string, with the character offsets of every word in that string.
+ * <p>
+ * {@link WordListUtil#constructPhraseFromWordList(List)} builds a phrase by walking its words and fixing the spacing
+ * around punctuation and quotes. The spacing between two words only depends on the two words, so the phrase for any run
+ * of consecutive words of a sentence is, with few exceptions, a substring of the phrase for the whole sentence. This
+ * class builds the phrase for the whole sentence once, so that the phrase for a span of its words is a substring of it,
+ * or a {@link TokenSpan} that reads the characters of the shared string without copying them.
+ * <p>
+ * The exceptions come from the way a possessive "'s" is attached to the word before it, which depends on the word after
+ * it, and from the opening quote "`", which can combine with the next word. Spans that start or end next to such a
+ * word, and all spans of sentences with unusual words, are rendered word by word with
+ * {@code constructPhraseFromWordList}, so the text of every span is the same as if its words had been joined directly.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class DetokenizedText {
+    private static final String POSSESSIVE = "'s";
+    private static final String OPENING_QUOTE = "`";
+
+    private final List<String> words;
+    private final String text;
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean[] spacesAfter;
+    private final boolean[] attached;
+    private final boolean regular;
+
+    /**
+     * Joins the given words.
+     *
+     * @param words the words of a sentence from the Stanford CoreNLP parser
+     */
+    public DetokenizedText(List<String> words) {
+        this.words = ImmutableList.copyOf(words);
+        final int size = words.size();
+        starts = new int[size];
+        ends = new int[size];
+        spacesAfter = new boolean[size];
+        attached = new boolean[size];
+
+        boolean regularWords = true;
+        for (int i = 0; i < size; i++) {
+            final String word = words.get(i);
+            regularWords &= isRegular(word);
+            final boolean nextWordTakesSpace = i == size - 1 ||
+                    !WordListUtil.NO_WHITESPACE_BEFORE.contains(words.get(i + 1));
+            spacesAfter[i] = !WordListUtil.NO_WHITESPACE_AFTER.contains(word) && nextWordTakesSpace;
+        }
+        regular = regularWords;
+
+        // A possessive is attached to the previous word when it is surrounded by spaces, unless the space before it
+        // was taken by the previous possessive
+        final StringBuilder stringBuilder = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            final String word = words.get(i);
+            attached[i] = i > 0 && word.equals(POSSESSIVE) && spacesAfter[i - 1] && spacesAfter[i] && !attached[i - 1];
+            if (i > 0 && spacesAfter[i - 1] && !attached[i]) {
+                stringBuilder.append(' ');
+            }
+            starts[i] = stringBuilder.length();
+            stringBuilder.append(WordListUtil.detokenizeWord(word));
+            ends[i] = stringBuilder.length();
+        }
+        text = stringBuilder.toString();
+    }
+
+    /**
+     * Returns whether the spacing around the given word does not depend on the words around it.
+     */
+    private static boolean isRegular(String word) {
+        if (word.isEmpty() || word.equals(OPENING_QUOTE)) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) <= ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the words of the sentence.
+     *
+     * @return the words
+     */
+    public List<String> getWords() {
+        return words;
+    }
+
+    /**
+     * Returns the number of words of the sentence.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return words.size();
+    }
+
+    /**
+     * Returns the text of the whole sentence.
+     *
+     * @return the text of the sentence
+     */
+    public String getText() {
+        return render(0, words.size());
+    }
+
+    /**
+     * Returns the offset of the first character of the word with the given index in the text of the whole sentence.
+     *
+     * @param index the given index
+     * @return the offset of the start of the word
+     */
+    public int getCharStart(int index) {
+        return starts[index];
+    }
+
+    /**
+     * Returns the offset after the last character of the word with the given index in the text of the whole sentence.
+     *
+     * @param index the given index
+     * @return the offset of the end of the word
+     */
+    public int getCharEnd(int index) {
+        return ends[index];
+    }
+
+    /**
+     * Returns the span of the words from the start index (inclusive) to the end index (exclusive). An end index that
+     * is not after the start index gives an empty span.
+     *
+     * @param start the index of the first word
+     * @param end   the index after the last word
+     * @return the span of the words
+     */
+    public TokenSpan span(int start, int end) {
+        return new TokenSpan(this, start, Math.max(start, end));
+    }
+
+    /**
+     * Returns the text of the words from the start index (inclusive) to the end index (exclusive), which is the same
+     * as the result of {@link WordListUtil#constructPhraseFromWordList(List)} for those words.
+     *
+     * @param start the index of the first word
+     * @param end   the index after the last word
+     * @return the text of the words, which is empty if the end index is not after the start index
+     */
+    public String render(int start, int end) {
+        if (end <= start) {
+            return "";
+        }
+        if (isSubstring(start, end)) {
+            return text.substring(starts[start], ends[end - 1]);
+        }
+        return WordListUtil.constructPhraseFromWordList(words.subList(start, end));
+    }
+
+    /**
+     * Returns whether the text of the given words is the substring of the text of the whole sentence between the start
+     * of the first word and the end of the last word.
+     */
+    boolean isSubstring(int start, int end) {
+        Preconditions.checkPositionIndexes(start, end, words.size());
+        if (!regular) {
+            return false;
+        }
+        // A possessive after the first word could be attached in the sentence but not in the span, since its space
+        // was taken by the first word
+        if (end - start > 1 && attached[start] && words.get(start + 1).equals(POSSESSIVE)) {
+            return false;
+        }
+        // A possessive at the end of the span is followed by a space in the span but maybe not in the sentence
+        return end - start < 2 || end == words.size() || spacesAfter[end - 1] ||
+                !words.get(end - 1).equals(POSSESSIVE);
+    }
+
+    String getBuffer() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+}
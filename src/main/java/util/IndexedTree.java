@@ -0,0 +1,380 @@
+package util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Range;
+import edu.stanford.nlp.trees.Tree;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable index of a phrase structure tree that answers structural queries in constant time.
+ * <p>
+ * {@link Tree#parent(Tree)} searches the whole tree and {@link Tree#getLeaves()} builds a new list on every call, so
+ * walking up from a leaf or finding the position of a node costs time linear in the size of the tree. This class
+ * numbers the nodes of the tree in pre-order once and records the parent, the span of leaves and the
+ * {@link PennTreebankLabel} of every node, so that the methods of {@link TreeUtil} that take an {@code IndexedTree} do
+ * not have to search the tree or compare label strings.
+ * <p>
+ * The heads of the nodes are found with the Collins head rules for all of the nodes at once, the first time a head is
+ * requested, so that looking up the head of a node is an array read. Likewise, the matches that a
+ * {@link TreePatternMatcher} finds in the tree are kept with it, so the rules and extractors that look at the same
+ * sentence share one traversal. The words of the leaves are joined into a {@link DetokenizedText} once, so the text
+ * of a node is a substring of the text of the sentence.
+ * <p>
+ * Nodes are identified by reference, like in the methods of {@link TreeUtil}. The tree must not be modified after it
+ * has been indexed. Instances are safe to share between threads.
+ */
+public final class IndexedTree {
+    private final Tree root;
+    private final Tree[] nodes;
+    private final int[] parents;
+    private final int[] nextSiblings;
+    private final int[] firstLeafIndices;
+    private final int[] lastLeafIndices;
+    private final PennTreebankLabel[] categories;
+    private final List<Tree> leaves;
+    private final Map<Tree, Integer> nodeNumbers = new IdentityHashMap<>();
+    private volatile int[] headChildren;
+    private volatile TreeMatches matches;
+    private volatile DetokenizedText text;
+
+    /**
+     * Indexes the tree represented by the given root.
+     *
+     * @param root the root of the given tree
+     */
+    public IndexedTree(Tree root) {
+        this.root = root;
+        final int size = root.size();
+        nodes = new Tree[size];
+        parents = new int[size];
+        nextSiblings = new int[size];
+        firstLeafIndices = new int[size];
+        lastLeafIndices = new int[size];
+        categories = new PennTreebankLabel[size];
+        final List<Tree> leafList = new ArrayList<>();
+        index(root, 0, -1, leafList);
+        leaves = ImmutableList.copyOf(leafList);
+    }
+
+    /**
+     * Numbers the nodes of the given tree in pre-order starting with the given number.
+     *
+     * @return the number of the first node after the given tree
+     */
+    private int index(Tree tree, int number, int parent, List<Tree> leafList) {
+        nodes[number] = tree;
+        parents[number] = parent;
+        nextSiblings[number] = -1;
+        categories[number] = category(tree);
+        nodeNumbers.put(tree, number);
+        firstLeafIndices[number] = leafList.size();
+        if (tree.isLeaf()) {
+            leafList.add(tree);
+        }
+        int nextNumber = number + 1;
+        int previousChild = -1;
+        for (final Tree child : tree.children()) {
+            if (previousChild != -1) {
+                nextSiblings[previousChild] = nextNumber;
+            }
+            previousChild = nextNumber;
+            nextNumber = index(child, nextNumber, number, leafList);
+        }
+        lastLeafIndices[number] = leafList.size() - 1;
+        return nextNumber;
+    }
+
+    /**
+     * Returns the root of the indexed tree.
+     *
+     * @return the root of the indexed tree
+     */
+    public Tree getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the number of nodes in the indexed tree.
+     *
+     * @return the number of nodes
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the node with the given pre-order number, with the same numbering as {@link Tree#getNodeNumber(int)}.
+     *
+     * @param number the given number
+     * @return the node with the given number
+     */
+    public Tree getNode(int number) {
+        return nodes[number];
+    }
+
+    /**
+     * Returns the label of the given node, where the words at the leaves are {@link PennTreebankLabel#OTHER} even if
+     * they are spelled like a label, such as "in" or "to".
+     */
+    private static PennTreebankLabel category(Tree node) {
+        return node.isLeaf() ? PennTreebankLabel.OTHER : PennTreebankLabel.of(node.value());
+    }
+
+    /**
+     * Returns the pre-order number of the given node.
+     *
+     * @param node the given node
+     * @return the number of the given node, or -1 if it is not in the indexed tree
+     */
+    public int getNodeNumber(Tree node) {
+        final Integer number = nodeNumbers.get(node);
+        return number == null ? -1 : number;
+    }
+
+    /**
+     * Returns whether the given node is in the indexed tree.
+     *
+     * @param node the given node
+     * @return whether the given node is in the indexed tree
+     */
+    public boolean contains(Tree node) {
+        return nodeNumbers.containsKey(node);
+    }
+
+    /**
+     * Returns the parent of the given node.
+     *
+     * @param node the given node
+     * @return the parent of the given node, or {@code null} if it is the root or is not in the indexed tree
+     */
+    public Tree getParent(Tree node) {
+        final int number = getNodeNumber(node);
+        return number <= 0 ? null : nodes[parents[number]];
+    }
+
+    /**
+     * Returns the parent of the node with the given pre-order number.
+     *
+     * @param number the given number
+     * @return the number of the parent, or -1 for the root
+     */
+    public int getParent(int number) {
+        return parents[number];
+    }
+
+    /**
+     * Returns the first child of the node with the given pre-order number.
+     *
+     * @param number the given number
+     * @return the number of the first child, or -1 for a leaf
+     */
+    public int getFirstChild(int number) {
+        return nodes[number].isLeaf() ? -1 : number + 1;
+    }
+
+    /**
+     * Returns the next sibling of the node with the given pre-order number.
+     *
+     * @param number the given number
+     * @return the number of the sibling to the right, or -1 if the node is the last child of its parent
+     */
+    public int getNextSibling(int number) {
+        return nextSiblings[number];
+    }
+
+    /**
+     * Returns the label of the node with the given pre-order number, which is {@link PennTreebankLabel#OTHER} for the
+     * leaves.
+     *
+     * @param number the given number
+     * @return the label of the node with the given number
+     */
+    public PennTreebankLabel getCategory(int number) {
+        return categories[number];
+    }
+
+    /**
+     * Returns the label of the given node.
+     *
+     * @param node the given node
+     * @return the label of the given node
+     */
+    public PennTreebankLabel getCategory(Tree node) {
+        final int number = getNodeNumber(node);
+        return number < 0 ? category(node) : categories[number];
+    }
+
+    /**
+     * Returns the child of the given node that is its head.
+     *
+     * @param node the given node
+     * @return the head child of the given node, or {@code null} if it is a leaf, is not in the indexed tree or has no
+     * head rule
+     * @see TreeUtil#findHead(Tree)
+     */
+    public Tree getHeadChild(Tree node) {
+        final int number = getNodeNumber(node);
+        if (number < 0) {
+            return null;
+        }
+        final int headChild = getHeadChildren()[number];
+        return headChild < 0 ? null : nodes[headChild];
+    }
+
+    /**
+     * Returns the index of the first leaf of the head child of the given node, which is the index that
+     * {@link TreeUtil#findIndexOfHead(Tree, Tree)} returns.
+     *
+     * @param node the given node
+     * @return the index of the head of the given node, or -1 if it has no head child
+     */
+    public int getHeadIndex(Tree node) {
+        final int number = getNodeNumber(node);
+        if (number < 0) {
+            return -1;
+        }
+        final int headChild = getHeadChildren()[number];
+        return headChild < 0 ? -1 : firstLeafIndices[headChild];
+    }
+
+    private int[] getHeadChildren() {
+        int[] heads = headChildren;
+        if (heads == null) {
+            heads = new int[nodes.length];
+            for (int number = 0; number < nodes.length; number++) {
+                heads[number] = nodes[number].isLeaf() ? -1 : getNodeNumber(findHead(nodes[number]));
+            }
+            headChildren = heads;
+        }
+        return heads;
+    }
+
+    private static Tree findHead(Tree tree) {
+        try {
+            return TreeUtil.findHead(tree);
+        } catch (IllegalArgumentException e) {
+            // There is no head rule for the label of the tree
+            return null;
+        }
+    }
+
+    /**
+     * Returns the matches that a {@link TreePatternMatcher} stored with this tree.
+     *
+     * @return the stored matches, or {@code null} if the tree has not been matched
+     */
+    TreeMatches getMatches() {
+        return matches;
+    }
+
+    void setMatches(TreeMatches matches) {
+        this.matches = matches;
+    }
+
+    /**
+     * Returns the words of the leaves of the indexed tree joined into text, which is built the first time it is
+     * requested.
+     *
+     * @return the text of the indexed tree
+     */
+    public DetokenizedText getText() {
+        DetokenizedText detokenizedText = text;
+        if (detokenizedText == null) {
+            final List<String> words = new ArrayList<>(leaves.size());
+            for (final Tree leaf : leaves) {
+                words.add(leaf.value());
+            }
+            detokenizedText = new DetokenizedText(words);
+            text = detokenizedText;
+        }
+        return detokenizedText;
+    }
+
+    /**
+     * Returns the span of the words of the given node in the text of the indexed tree.
+     *
+     * @param node the given node
+     * @return the span of the words of the given node
+     * @throws IllegalArgumentException if the node is not in the indexed tree or has no leaves
+     */
+    public TokenSpan getTokenSpan(Tree node) {
+        final int firstLeafIndex = getFirstLeafIndex(node);
+        Preconditions.checkArgument(firstLeafIndex >= 0, "Node is not in the indexed tree: %s", node);
+        return getText().span(firstLeafIndex, getLastLeafIndex(node) + 1);
+    }
+
+    /**
+     * Returns the leaves of the indexed tree from left to right.
+     *
+     * @return the leaves of the indexed tree
+     */
+    public List<Tree> getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Returns the leaf at the given index.
+     *
+     * @param index the given index
+     * @return the leaf at the given index
+     */
+    public Tree getLeaf(int index) {
+        return leaves.get(index);
+    }
+
+    /**
+     * Returns the index of the given leaf.
+     *
+     * @param leaf the given leaf
+     * @return the index of the given leaf, or -1 if it is not a leaf of the indexed tree
+     */
+    public int getLeafIndex(Tree leaf) {
+        final int number = getNodeNumber(leaf);
+        return number < 0 || !leaf.isLeaf() ? -1 : firstLeafIndices[number];
+    }
+
+    /**
+     * Returns the index of the leftmost leaf of the given node.
+     *
+     * @param node the given node
+     * @return the index of the leftmost leaf, or -1 if the node is not in the indexed tree or has no leaves
+     */
+    public int getFirstLeafIndex(Tree node) {
+        final int number = getNodeNumber(node);
+        return number < 0 || lastLeafIndices[number] < firstLeafIndices[number] ? -1 : firstLeafIndices[number];
+    }
+
+    /**
+     * Returns the index of the rightmost leaf of the given node.
+     *
+     * @param node the given node
+     * @return the index of the rightmost leaf, or -1 if the node is not in the indexed tree or has no leaves
+     */
+    public int getLastLeafIndex(Tree node) {
+        final int number = getNodeNumber(node);
+        return number < 0 || lastLeafIndices[number] < firstLeafIndices[number] ? -1 : lastLeafIndices[number];
+    }
+
+    /**
+     * Returns the closed range of the indices of the leaves of the given node.
+     *
+     * @param node the given node
+     * @return the range of the leaves of the given node
+     * @throws IllegalArgumentException if the node is not in the indexed tree or has no leaves
+     */
+    public Range<Integer> getSpan(Tree node) {
+        final int firstLeafIndex = getFirstLeafIndex(node);
+        Preconditions.checkArgument(firstLeafIndex >= 0, "Node is not in the indexed tree: %s", node);
+        return Range.closed(firstLeafIndex, getLastLeafIndex(node));
+    }
+
+    @Override
+    public String toString() {
+        return root.toString();
+    }
+}
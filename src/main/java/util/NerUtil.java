@@ -70,7 +70,7 @@ public class NerUtil {
      * @return whether whether the head word of the given tree in the given sentence represents a person
      */
     public static boolean headOfTreeIsPerson(Sentence sentence, Tree root, Tree tree) {
-        final int leafIndex = TreeUtil.getLeafIndex(root, TreeUtil.findHead(tree).getLeaves().get(0));
+        final int leafIndex = TreeUtil.findIndexOfHead(root, tree);
         if (leafIndex == -1) {
             System.err.println("----------------------------------------");
             System.err.printf("Could not find index for Tree [%s]\n", tree);
@@ -81,6 +81,32 @@ public class NerUtil {
         return isPerson(sentence, leafIndex);
     }
 
+    /**
+     * Returns whether the head word of the given tree in the given indexed tree represents a person.
+     *
+     * @param sentence the sentence containing the given tree
+     * @param root     the indexed phrase structure tree
+     * @param tree     the given tree
+     * @return whether the head word of the given tree represents a person
+     */
+    public static boolean headOfTreeIsPerson(Sentence sentence, IndexedTree root, Tree tree) {
+        final int leafIndex = findIndexOfHead(root, tree);
+        return leafIndex != -1 && isPerson(sentence, leafIndex);
+    }
+
+    /**
+     * Returns whether the head word of the given node in the given compact tree represents a person.
+     *
+     * @param sentence the sentence of the given compact tree
+     * @param tree     the given compact tree
+     * @param node     the given node
+     * @return whether the head word of the given node represents a person
+     */
+    public static boolean headOfTreeIsPerson(Sentence sentence, CompactTree tree, int node) {
+        final int leafIndex = TreeUtil.findIndexOfHead(tree, node);
+        return leafIndex != -1 && isPerson(sentence, leafIndex);
+    }
+
     /**
      * Returns whether the head word of the given tree in the given sentence represents a location.
      *
@@ -89,7 +115,7 @@ public class NerUtil {
      * @return whether whether the head word of the given tree in the given sentence represents a location
      */
     public static boolean headOfTreeIsLocation(Sentence sentence, Tree root, Tree tree) {
-        final int leafIndex = TreeUtil.getLeafIndex(root, TreeUtil.findHead(tree).getLeaves().get(0));
+        final int leafIndex = TreeUtil.findIndexOfHead(root, tree);
         if (leafIndex == -1) {
             System.err.println("----------------------------------------");
             System.err.printf("Could not find index for Tree [%s]\n", tree);
@@ -100,6 +126,32 @@ public class NerUtil {
         return isLocation(sentence, leafIndex);
     }
 
+    /**
+     * Returns whether the head word of the given tree in the given indexed tree represents a location.
+     *
+     * @param sentence the sentence containing the given tree
+     * @param root     the indexed phrase structure tree
+     * @param tree     the given tree
+     * @return whether the head word of the given tree represents a location
+     */
+    public static boolean headOfTreeIsLocation(Sentence sentence, IndexedTree root, Tree tree) {
+        final int leafIndex = findIndexOfHead(root, tree);
+        return leafIndex != -1 && isLocation(sentence, leafIndex);
+    }
+
+    /**
+     * Returns whether the head word of the given node in the given compact tree represents a location.
+     *
+     * @param sentence the sentence of the given compact tree
+     * @param tree     the given compact tree
+     * @param node     the given node
+     * @return whether the head word of the given node represents a location
+     */
+    public static boolean headOfTreeIsLocation(Sentence sentence, CompactTree tree, int node) {
+        final int leafIndex = TreeUtil.findIndexOfHead(tree, node);
+        return leafIndex != -1 && isLocation(sentence, leafIndex);
+    }
+
     /**
      * Returns whether the head word of the given tree in the given sentence represents a time or date.
      *
@@ -108,7 +160,7 @@ public class NerUtil {
      * @return whether whether the head word of the given tree in the given sentence represents a time or date
      */
     public static boolean headOfTreeIsTime(Sentence sentence, Tree root, Tree tree) {
-        final int leafIndex = TreeUtil.getLeafIndex(root, TreeUtil.findHead(tree).getLeaves().get(0));
+        final int leafIndex = TreeUtil.findIndexOfHead(root, tree);
         if (leafIndex == -1) {
             System.err.println("----------------------------------------");
             System.err.printf("Could not find index for Tree [%s]\n", tree);
@@ -119,6 +171,32 @@ public class NerUtil {
         return isDateOrTime(sentence, leafIndex);
     }
 
+    /**
+     * Returns whether the head word of the given tree in the given indexed tree represents a time or date.
+     *
+     * @param sentence the sentence containing the given tree
+     * @param root     the indexed phrase structure tree
+     * @param tree     the given tree
+     * @return whether the head word of the given tree represents a time or date
+     */
+    public static boolean headOfTreeIsTime(Sentence sentence, IndexedTree root, Tree tree) {
+        final int leafIndex = findIndexOfHead(root, tree);
+        return leafIndex != -1 && isDateOrTime(sentence, leafIndex);
+    }
+
+    /**
+     * Returns whether the head word of the given node in the given compact tree represents a time or date.
+     *
+     * @param sentence the sentence of the given compact tree
+     * @param tree     the given compact tree
+     * @param node     the given node
+     * @return whether the head word of the given node represents a time or date
+     */
+    public static boolean headOfTreeIsTime(Sentence sentence, CompactTree tree, int node) {
+        final int leafIndex = TreeUtil.findIndexOfHead(tree, node);
+        return leafIndex != -1 && isDateOrTime(sentence, leafIndex);
+    }
+
     /**
      * Returns either 'who' or 'what' based on the head word of the given tree.
      *
@@ -133,4 +211,53 @@ public class NerUtil {
         }
         return "what";
     }
+
+    /**
+     * Returns either 'who' or 'what' based on the head word of the given tree.
+     *
+     * @param sentence the sentence containing the given tree
+     * @param root     the indexed tree of the given sentence
+     * @param tree     the given tree
+     * @return 'who' if the head word is a person, 'what' otherwise
+     */
+    public static String getWhFromHead(Sentence sentence, IndexedTree root, Tree tree) {
+        if (headOfTreeIsPerson(sentence, root, tree)) {
+            return "who";
+        }
+        return "what";
+    }
+
+    /**
+     * Returns either 'who' or 'what' based on the head word of the given node in the given compact tree.
+     *
+     * @param sentence the sentence of the given compact tree
+     * @param tree     the given compact tree
+     * @param node     the given node
+     * @return 'who' if the head word is a person, 'what' otherwise
+     */
+    public static String getWhFromHead(Sentence sentence, CompactTree tree, int node) {
+        if (headOfTreeIsPerson(sentence, tree, node)) {
+            return "who";
+        }
+        return "what";
+    }
+
+    /**
+     * Returns the index of the head word of the given tree in the given indexed tree, reporting trees whose head cannot
+     * be found.
+     *
+     * @param root the indexed phrase structure tree
+     * @param tree the given tree
+     * @return the index of the head word of the given tree, or -1 if it cannot be found
+     */
+    private static int findIndexOfHead(IndexedTree root, Tree tree) {
+        final int leafIndex = TreeUtil.findIndexOfHead(root, tree);
+        if (leafIndex == -1) {
+            System.err.println("----------------------------------------");
+            System.err.printf("Could not find index for Tree [%s]\n", tree);
+            System.err.printf("In Sentence [%s]\n", root);
+            System.err.println("----------------------------------------");
+        }
+        return leafIndex;
+    }
 }
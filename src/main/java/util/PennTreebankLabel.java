@@ -0,0 +1,145 @@
+package util;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The phrase and part of speech labels of the Penn Treebank that the parser assigns to the nodes of its trees.
+ * <p>
+ * Labels are looked up case-insensitively, so {@code of(tree.value()) == NP} holds exactly when
+ * {@code TreeUtil.labelEquals(tree, "np")} does. Labels outside of the tag set are {@link #OTHER}. Since the lookup
+ * only sees a string, a word that is spelled like a label, such as "in", "to" or "s", maps to that label, so the words
+ * at the leaves of a tree must not be looked up. {@link IndexedTree} and {@link CompactTree} look up the label of every
+ * inner node once and give their leaves {@link #OTHER}, so label checks on them compare enum constants instead of
+ * strings.
+ */
+public enum PennTreebankLabel {
+    ROOT("ROOT"),
+    S("S"),
+    SBAR("SBAR"),
+    SBARQ("SBARQ"),
+    SINV("SINV"),
+    SQ("SQ"),
+    ADJP("ADJP"),
+    ADVP("ADVP"),
+    CONJP("CONJP"),
+    FRAG("FRAG"),
+    INTJ("INTJ"),
+    LST("LST"),
+    NAC("NAC"),
+    NP("NP"),
+    NX("NX"),
+    PP("PP"),
+    PRN("PRN"),
+    PRT("PRT"),
+    QP("QP"),
+    RRC("RRC"),
+    UCP("UCP"),
+    VP("VP"),
+    WHADJP("WHADJP"),
+    WHADVP("WHADVP"),
+    WHNP("WHNP"),
+    WHPP("WHPP"),
+    X("X"),
+    CC("CC"),
+    CD("CD"),
+    DT("DT"),
+    EX("EX"),
+    FW("FW"),
+    IN("IN"),
+    JJ("JJ"),
+    JJR("JJR"),
+    JJS("JJS"),
+    LS("LS"),
+    MD("MD"),
+    NN("NN"),
+    NNS("NNS"),
+    NNP("NNP"),
+    NNPS("NNPS"),
+    PDT("PDT"),
+    POS("POS"),
+    PRP("PRP"),
+    PRP_POSSESSIVE("PRP$"),
+    RB("RB"),
+    RBR("RBR"),
+    RBS("RBS"),
+    RP("RP"),
+    SYM("SYM"),
+    TO("TO"),
+    UH("UH"),
+    VB("VB"),
+    VBD("VBD"),
+    VBG("VBG"),
+    VBN("VBN"),
+    VBP("VBP"),
+    VBZ("VBZ"),
+    WDT("WDT"),
+    WP("WP"),
+    WP_POSSESSIVE("WP$"),
+    WRB("WRB"),
+    XX("XX"),
+    COMMA(","),
+    PERIOD("."),
+    COLON(":"),
+    OPENING_QUOTE("``"),
+    CLOSING_QUOTE("''"),
+    LEFT_BRACKET("-LRB-"),
+    RIGHT_BRACKET("-RRB-"),
+    HASH("#"),
+    DOLLAR("$"),
+    OTHER(null);
+
+    private static final Map<String, PennTreebankLabel> LABELS = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        for (final PennTreebankLabel label : values()) {
+            if (label.label != null) {
+                LABELS.put(label.label, label);
+            }
+        }
+    }
+
+    private final String label;
+
+    PennTreebankLabel(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Returns the constant for the given label (case-insensitive).
+     *
+     * @param label the given label
+     * @return the constant for the given label, or {@link #OTHER} if it is not a Penn Treebank label
+     */
+    public static PennTreebankLabel of(String label) {
+        final PennTreebankLabel pennTreebankLabel = LABELS.get(label);
+        return pennTreebankLabel == null ? OTHER : pennTreebankLabel;
+    }
+
+    /**
+     * Returns the label as it appears in parse trees.
+     *
+     * @return the label, or {@code null} for {@link #OTHER}
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns whether this is a noun or personal pronoun tag, which are the tags starting with "NN" or "PRP".
+     *
+     * @return whether this is a noun tag
+     */
+    public boolean isNoun() {
+        return this == NN || this == NNS || this == NNP || this == NNPS || this == PRP || this == PRP_POSSESSIVE;
+    }
+
+    /**
+     * Returns whether this is a verb tag, which are the tags starting with "VB".
+     *
+     * @return whether this is a verb tag
+     */
+    public boolean isVerb() {
+        return this == VB || this == VBD || this == VBG || this == VBN || this == VBP || this == VBZ;
+    }
+}
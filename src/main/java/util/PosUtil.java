@@ -46,6 +46,35 @@ public class PosUtil {
         return false;
     }
 
+    /**
+     * Returns whether the given leaf in the given indexed tree is a noun.
+     *
+     * @param root the indexed tree of the given sentence
+     * @param leaf the given leaf
+     * @return whether the given leaf is a noun
+     */
+    public static boolean isNoun(IndexedTree root, Tree leaf) {
+        if (leaf.isLeaf()) {
+            final String posTag = root.getParent(leaf).value().toLowerCase();
+            return posTag.equals("nn") || posTag.equals("prp");
+        }
+        System.err.println("Tree is not a leaf");
+        return false;
+    }
+
+    /**
+     * Returns whether the word with the given index in the given compact tree is a noun.
+     *
+     * @param tree  the given compact tree
+     * @param index the index of the given word
+     * @return whether the word with the given index is a noun
+     */
+    public static boolean isNoun(CompactTree tree, int index) {
+        final int posTag = tree.getParent(tree.getLeafNode(index));
+        return TreeUtil.labelIs(tree, posTag, PennTreebankLabel.NN) ||
+                TreeUtil.labelIs(tree, posTag, PennTreebankLabel.PRP);
+    }
+
     /**
      * Returns whether the word at the given index in the given sentence is a plural noun.
      *
@@ -84,4 +113,33 @@ public class PosUtil {
         System.err.println("Tree is not a leaf");
         return false;
     }
+
+    /**
+     * Returns whether the given leaf in the given indexed tree is a past-tense verb.
+     *
+     * @param root the indexed tree of the given sentence
+     * @param leaf the given leaf
+     * @return whether the given leaf is a past-tense verb
+     */
+    public static boolean isPastTenseVerb(IndexedTree root, Tree leaf) {
+        if (leaf.isLeaf()) {
+            final String posTag = root.getParent(leaf).value().toLowerCase();
+            return posTag.equals("vbn") || posTag.equals("vbd");
+        }
+        System.err.println("Tree is not a leaf");
+        return false;
+    }
+
+    /**
+     * Returns whether the word with the given index in the given compact tree is a past-tense verb.
+     *
+     * @param tree  the given compact tree
+     * @param index the index of the given word
+     * @return whether the word with the given index is a past-tense verb
+     */
+    public static boolean isPastTenseVerb(CompactTree tree, int index) {
+        final int posTag = tree.getParent(tree.getLeafNode(index));
+        return TreeUtil.labelIs(tree, posTag, PennTreebankLabel.VBN) ||
+                TreeUtil.labelIs(tree, posTag, PennTreebankLabel.VBD);
+    }
 }
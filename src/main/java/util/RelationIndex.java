@@ -0,0 +1,68 @@
+package util;
+
+import com.google.common.collect.ImmutableListMultimap;
+import edu.stanford.nlp.semgraph.SemanticGraph;
+import edu.stanford.nlp.semgraph.SemanticGraphEdge;
+import edu.stanford.nlp.trees.GrammaticalRelation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The edges of a dependency graph grouped by their relation.
+ * <p>
+ * {@link SemanticGraph#findAllRelns(GrammaticalRelation)} walks every edge of the graph for each relation it is asked
+ * for, and the extractors ask for a few relations each. This class groups the edges in one pass over the graph, so the
+ * edges of a relation are looked up without walking the other edges. The edges of each relation are in the order that
+ * {@code findAllRelns} returns them in.
+ * <p>
+ * Instances are immutable and safe to share between threads. The edges are those of the graph and must not be modified
+ * by callers.
+ */
+public final class RelationIndex {
+    private final ImmutableListMultimap<GrammaticalRelation, SemanticGraphEdge> edges;
+
+    /**
+     * Groups the edges of the given graph by their relation.
+     *
+     * @param graph the given graph
+     */
+    public RelationIndex(SemanticGraph graph) {
+        final ImmutableListMultimap.Builder<GrammaticalRelation, SemanticGraphEdge> builder =
+                ImmutableListMultimap.builder();
+        for (final SemanticGraphEdge edge : graph.edgeIterable()) {
+            if (edge.getRelation() != null) {
+                builder.put(edge.getRelation(), edge);
+            }
+        }
+        edges = builder.build();
+    }
+
+    /**
+     * Returns the edges with the given relation, which are the same as the edges returned by
+     * {@link SemanticGraph#findAllRelns(GrammaticalRelation)}.
+     *
+     * @param relation the given relation
+     * @return the edges with the relation
+     */
+    public List<SemanticGraphEdge> getEdges(GrammaticalRelation relation) {
+        return edges.get(relation);
+    }
+
+    /**
+     * Returns the edges whose relation has a short name that starts with the given prefix. The edges are grouped by
+     * relation, in the order that the relations first appear in the graph.
+     *
+     * @param prefix the given prefix, such as "nmod" for all of the nominal modifiers
+     * @return the edges with a matching relation
+     */
+    public List<SemanticGraphEdge> getEdgesWithPrefix(String prefix) {
+        final List<SemanticGraphEdge> matchingEdges = new ArrayList<>();
+        for (final GrammaticalRelation relation : edges.keySet()) {
+            if (relation.getShortName().startsWith(prefix)) {
+                matchingEdges.addAll(edges.get(relation));
+            }
+        }
+        return matchingEdges;
+    }
+}
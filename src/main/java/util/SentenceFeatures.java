@@ -0,0 +1,223 @@
+package util;
+
+import com.google.common.base.Preconditions;
+import edu.stanford.nlp.simple.Sentence;
+
+import java.util.List;
+
+/**
+ * Features of the words of a sentence that the extractors look up while scanning it, computed in one pass over its
+ * words, part of speech tags and named entity tags.
+ * <p>
+ * Finding the commas around a dependent used to scan the sentence from the dependent in both directions and look up the
+ * named entity tags of every comma and of the words beside it. This class marks the boundary commas once, as defined
+ * by {@link WordListUtil#isBoundaryComma(int, Sentence)}, and keeps the previous and next boundary comma of every word
+ * along with the number of boundary commas before it, so that the commas around a word are found in constant time.
+ * It also groups the words into runs of the same named entity tag and flags the verbs, nouns and participles.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class SentenceFeatures {
+    private static final String COMMA = ",";
+
+    private final int size;
+    private final boolean[] boundaryCommas;
+    private final int[] previousBoundaryCommas;
+    private final int[] nextBoundaryCommas;
+    private final int[] boundaryCommaCounts;
+    private final int[] nerSpanIds;
+    private final int[] nerSpanStarts;
+    private final int[] nerSpanEnds;
+    private final boolean[] verbs;
+    private final boolean[] nouns;
+    private final boolean[] participles;
+
+    /**
+     * Computes the features of a sentence from its annotations.
+     *
+     * @param words   the words of the sentence
+     * @param posTags the part of speech tags of the words
+     * @param nerTags the named entity tags of the words
+     * @throws IllegalArgumentException if the lists do not have the same size
+     */
+    public SentenceFeatures(List<String> words, List<String> posTags, List<String> nerTags) {
+        Preconditions.checkArgument(words.size() == posTags.size() && words.size() == nerTags.size(),
+                "%s words with %s part of speech tags and %s named entity tags", words.size(), posTags.size(),
+                nerTags.size());
+        size = words.size();
+        boundaryCommas = new boolean[size];
+        previousBoundaryCommas = new int[size];
+        nextBoundaryCommas = new int[size];
+        boundaryCommaCounts = new int[size + 1];
+        nerSpanIds = new int[size];
+        verbs = new boolean[size];
+        nouns = new boolean[size];
+        participles = new boolean[size];
+
+        final boolean[] locations = new boolean[size];
+        final boolean[] datesOrLocations = new boolean[size];
+        int spanCount = 0;
+        for (int i = 0; i < size; i++) {
+            final String nerTag = nerTags.get(i);
+            locations[i] = nerTag.equalsIgnoreCase("location");
+            datesOrLocations[i] = locations[i] || nerTag.equalsIgnoreCase("date");
+            if (i == 0 || !nerTag.equalsIgnoreCase(nerTags.get(i - 1))) {
+                spanCount++;
+            }
+            nerSpanIds[i] = spanCount - 1;
+
+            final String posTag = posTags.get(i).toLowerCase();
+            verbs[i] = posTag.startsWith("vb");
+            nouns[i] = posTag.startsWith("nn") || posTag.startsWith("prp");
+            participles[i] = posTag.equals("vbg") || posTag.equals("vbn");
+        }
+
+        nerSpanStarts = new int[spanCount];
+        nerSpanEnds = new int[spanCount];
+        for (int i = size - 1; i >= 0; i--) {
+            nerSpanStarts[nerSpanIds[i]] = i;
+            if (i == size - 1 || nerSpanIds[i + 1] != nerSpanIds[i]) {
+                nerSpanEnds[nerSpanIds[i]] = i + 1;
+            }
+        }
+
+        // A comma between two locations separates the parts of a single location, such as a city and its country
+        for (int i = 0; i < size; i++) {
+            final boolean betweenLocations = i > 0 && i < size - 1 && locations[i - 1] && locations[i + 1];
+            boundaryCommas[i] = words.get(i).equals(COMMA) && !betweenLocations && !datesOrLocations[i];
+            boundaryCommaCounts[i + 1] = boundaryCommaCounts[i] + (boundaryCommas[i] ? 1 : 0);
+            previousBoundaryCommas[i] = boundaryCommas[i] ? i : i > 0 ? previousBoundaryCommas[i - 1] : -1;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            nextBoundaryCommas[i] = boundaryCommas[i] ? i : i < size - 1 ? nextBoundaryCommas[i + 1] : -1;
+        }
+    }
+
+    /**
+     * Computes the features of the given sentence.
+     *
+     * @param sentence the given sentence
+     * @return the features of the sentence
+     */
+    public static SentenceFeatures of(Sentence sentence) {
+        return new SentenceFeatures(sentence.words(), sentence.posTags(), sentence.nerTags());
+    }
+
+    /**
+     * Returns the number of words of the sentence.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the word with the given index is a boundary comma. A boundary comma is not part of a date or a
+     * location.
+     *
+     * @param index the given index
+     * @return whether the word is a boundary comma
+     */
+    public boolean isBoundaryComma(int index) {
+        return boundaryCommas[index];
+    }
+
+    /**
+     * Returns the index of the last boundary comma at or before the given index.
+     *
+     * @param index the given index
+     * @return the index of the boundary comma, or -1 if there is none
+     */
+    public int getPreviousBoundaryComma(int index) {
+        return previousBoundaryCommas[index];
+    }
+
+    /**
+     * Returns the index of the first boundary comma at or after the given index.
+     *
+     * @param index the given index
+     * @return the index of the boundary comma, or -1 if there is none
+     */
+    public int getNextBoundaryComma(int index) {
+        return index < size ? nextBoundaryCommas[index] : -1;
+    }
+
+    /**
+     * Returns the number of boundary commas from the start index (inclusive) to the end index (exclusive).
+     *
+     * @param start the index of the first word
+     * @param end   the index after the last word
+     * @return the number of boundary commas between the indices
+     */
+    public int countBoundaryCommas(int start, int end) {
+        Preconditions.checkPositionIndexes(start, end, size);
+        return boundaryCommaCounts[end] - boundaryCommaCounts[start];
+    }
+
+    /**
+     * Returns the identifier of the run of words with the same named entity tag that the word with the given index is
+     * part of. Runs are numbered from the start of the sentence, so two words have the same identifier if and only if
+     * every word between them has the same named entity tag.
+     *
+     * @param index the given index
+     * @return the identifier of the named entity span
+     */
+    public int getNerSpanId(int index) {
+        return nerSpanIds[index];
+    }
+
+    /**
+     * Returns the index of the first word of the run of words with the same named entity tag as the word with the given
+     * index.
+     *
+     * @param index the given index
+     * @return the index of the first word of the named entity span
+     */
+    public int getNerSpanStart(int index) {
+        return nerSpanStarts[nerSpanIds[index]];
+    }
+
+    /**
+     * Returns the index after the last word of the run of words with the same named entity tag as the word with the
+     * given index.
+     *
+     * @param index the given index
+     * @return the index after the last word of the named entity span
+     */
+    public int getNerSpanEnd(int index) {
+        return nerSpanEnds[nerSpanIds[index]];
+    }
+
+    /**
+     * Returns whether the word with the given index is a verb.
+     *
+     * @param index the given index
+     * @return whether the word is a verb
+     * @see PosUtil#isVerb(Sentence, int)
+     */
+    public boolean isVerb(int index) {
+        return verbs[index];
+    }
+
+    /**
+     * Returns whether the word with the given index is a noun.
+     *
+     * @param index the given index
+     * @return whether the word is a noun
+     * @see PosUtil#isNoun(Sentence, int)
+     */
+    public boolean isNoun(int index) {
+        return nouns[index];
+    }
+
+    /**
+     * Returns whether the word with the given index is a present or past participle.
+     *
+     * @param index the given index
+     * @return whether the word is a participle
+     */
+    public boolean isParticiple(int index) {
+        return participles[index];
+    }
+}
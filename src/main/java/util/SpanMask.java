@@ -0,0 +1,219 @@
+package util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.DiscreteDomain;
+import com.google.common.collect.Range;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of word indices of a sentence, stored as a bitset, that marks the spans of words to remove from the sentence.
+ * <p>
+ * A {@code RangeSet<Integer>} boxes every index that is looked up and searches a tree of ranges for it. This class
+ * keeps one bit per word in an array of longs, so marking a span sets a few words of bits and removing the marked words
+ * from a sentence copies the runs of unmarked words in one pass. Sentences of up to 64 words fit in a single long.
+ * <p>
+ * Spans are closed, like the ranges that {@link WordListUtil#findBoundedPart} and {@link TreeUtil#getRangeOfTree}
+ * return. Instances are not safe to modify from multiple threads.
+ */
+public final class SpanMask {
+    private static final int BITS_PER_WORD = 64;
+
+    private long[] bits;
+
+    /**
+     * Creates an empty mask.
+     */
+    public SpanMask() {
+        bits = new long[1];
+    }
+
+    private SpanMask(long[] bits) {
+        this.bits = bits;
+    }
+
+    /**
+     * Marks the words from the first index to the last index, inclusive.
+     *
+     * @param first the index of the first word
+     * @param last  the index of the last word
+     * @throws IllegalArgumentException if the first index is negative or after the last index
+     */
+    public void add(int first, int last) {
+        Preconditions.checkArgument(first >= 0 && first <= last, "Invalid span [%s, %s]", first, last);
+        ensureCapacity(last);
+        final int firstWord = first / BITS_PER_WORD;
+        final int lastWord = last / BITS_PER_WORD;
+        // Shifts of a long only use the lowest 6 bits of the shift distance
+        final long firstMask = -1L << first;
+        final long lastMask = -1L >>> (BITS_PER_WORD - 1 - last % BITS_PER_WORD);
+        if (firstWord == lastWord) {
+            bits[firstWord] |= firstMask & lastMask;
+            return;
+        }
+        bits[firstWord] |= firstMask;
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            bits[i] = -1L;
+        }
+        bits[lastWord] |= lastMask;
+    }
+
+    /**
+     * Marks the words of the given range.
+     *
+     * @param range the given range, which must be bounded
+     * @throws IllegalArgumentException if the range is unbounded or contains a negative index
+     */
+    public void add(Range<Integer> range) {
+        Preconditions.checkArgument(range.hasLowerBound() && range.hasUpperBound(), "Unbounded span %s", range);
+        final Range<Integer> canonicalRange = range.canonical(DiscreteDomain.integers());
+        if (!canonicalRange.isEmpty()) {
+            add(canonicalRange.lowerEndpoint(), canonicalRange.upperEndpoint() - 1);
+        }
+    }
+
+    /**
+     * Marks the words that are marked in the given mask.
+     *
+     * @param other the given mask
+     */
+    public void addAll(SpanMask other) {
+        if (other.bits.length > bits.length) {
+            bits = Arrays.copyOf(bits, other.bits.length);
+        }
+        for (int i = 0; i < other.bits.length; i++) {
+            bits[i] |= other.bits[i];
+        }
+    }
+
+    /**
+     * Returns a new mask with the words that are marked in this mask or in the given mask.
+     *
+     * @param other the given mask
+     * @return the union of the masks
+     */
+    public SpanMask union(SpanMask other) {
+        final SpanMask union = new SpanMask(bits.clone());
+        union.addAll(other);
+        return union;
+    }
+
+    /**
+     * Returns whether the word with the given index is marked.
+     *
+     * @param index the given index
+     * @return whether the word is marked
+     */
+    public boolean contains(int index) {
+        final int word = index / BITS_PER_WORD;
+        return index >= 0 && word < bits.length && (bits[word] & 1L << index) != 0;
+    }
+
+    /**
+     * Returns whether no words are marked.
+     *
+     * @return whether this mask is empty
+     */
+    public boolean isEmpty() {
+        for (final long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of marked words.
+     *
+     * @return the number of marked words
+     */
+    public int cardinality() {
+        int cardinality = 0;
+        for (final long word : bits) {
+            cardinality += Long.bitCount(word);
+        }
+        return cardinality;
+    }
+
+    /**
+     * Returns the given list of words without the marked words. The given list is not modified.
+     *
+     * @param words the given list of words
+     * @return a new list of the words that are not marked
+     */
+    public List<String> removeFrom(List<String> words) {
+        final List<String> remainingWords = new ArrayList<>(words.size());
+        int start = nextClearBit(0);
+        while (start < words.size()) {
+            final int end = Math.min(nextSetBit(start), words.size());
+            for (int i = start; i < end; i++) {
+                remainingWords.add(words.get(i));
+            }
+            start = nextClearBit(end);
+        }
+        return remainingWords;
+    }
+
+    /**
+     * Returns the index of the first marked word at or after the given index.
+     *
+     * @return the index of the marked word, or {@link Integer#MAX_VALUE} if there is none
+     */
+    private int nextSetBit(int index) {
+        int word = index / BITS_PER_WORD;
+        if (word >= bits.length) {
+            return Integer.MAX_VALUE;
+        }
+        long remainingBits = bits[word] & -1L << index;
+        while (remainingBits == 0) {
+            if (++word == bits.length) {
+                return Integer.MAX_VALUE;
+            }
+            remainingBits = bits[word];
+        }
+        return word * BITS_PER_WORD + Long.numberOfTrailingZeros(remainingBits);
+    }
+
+    /**
+     * Returns the index of the first word that is not marked at or after the given index.
+     */
+    private int nextClearBit(int index) {
+        int word = index / BITS_PER_WORD;
+        if (word >= bits.length) {
+            return index;
+        }
+        long remainingBits = ~bits[word] & -1L << index;
+        while (remainingBits == 0) {
+            if (++word == bits.length) {
+                return word * BITS_PER_WORD;
+            }
+            remainingBits = ~bits[word];
+        }
+        return word * BITS_PER_WORD + Long.numberOfTrailingZeros(remainingBits);
+    }
+
+    private void ensureCapacity(int index) {
+        final int words = index / BITS_PER_WORD + 1;
+        if (words > bits.length) {
+            bits = Arrays.copyOf(bits, Math.max(words, bits.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder stringBuilder = new StringBuilder("[");
+        int start = nextSetBit(0);
+        while (start != Integer.MAX_VALUE) {
+            final int end = nextClearBit(start);
+            if (stringBuilder.length() > 1) {
+                stringBuilder.append(", ");
+            }
+            stringBuilder.append(start).append("..").append(end - 1);
+            start = nextSetBit(end);
+        }
+        return stringBuilder.append(']').toString();
+    }
+}
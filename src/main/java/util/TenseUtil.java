@@ -3,6 +3,8 @@ package util;
 import edu.stanford.nlp.simple.Sentence;
 import simplenlg.features.Tense;
 
+import java.util.List;
+
 public class TenseUtil {
     public static Tense calculateTense(Sentence sentence) {
         for (final String tag : sentence.posTags()) {
@@ -13,4 +15,50 @@ public class TenseUtil {
         }
         return Tense.PRESENT;
     }
+
+    /**
+     * Calculates the tense of a clause from the part of speech tags of its words, without parsing it. The tense is
+     * decided by the first word: a modal verb makes the clause future tense, and a past-tense verb or past participle
+     * makes it past tense.
+     *
+     * @param posTags the part of speech tags of the clause
+     * @return the tense of the clause
+     */
+    public static Tense calculateClauseTense(List<String> posTags) {
+        return posTags.isEmpty() ? Tense.PRESENT : calculateClauseTense(posTags.get(0));
+    }
+
+    /**
+     * Calculates the tense of a clause from the part of speech tags that are already on the given sentence.
+     *
+     * @param sentence the given sentence
+     * @return the tense of the sentence as a clause
+     * @see #calculateClauseTense(List)
+     */
+    public static Tense calculateClauseTense(Sentence sentence) {
+        return calculateClauseTense(sentence.posTags());
+    }
+
+    /**
+     * Calculates the tense of a clause of the given sentence from the part of speech tags that are already on the
+     * sentence.
+     *
+     * @param sentence   the given sentence
+     * @param startIndex the index of the first word of the clause in the sentence
+     * @return the tense of the clause
+     * @see #calculateClauseTense(List)
+     */
+    public static Tense calculateClauseTense(Sentence sentence, int startIndex) {
+        return calculateClauseTense(sentence.posTag(startIndex));
+    }
+
+    private static Tense calculateClauseTense(String firstTag) {
+        if (firstTag.equalsIgnoreCase("md")) {
+            return Tense.FUTURE;
+        }
+        if (firstTag.equalsIgnoreCase("vbd") || firstTag.equalsIgnoreCase("vbn")) {
+            return Tense.PAST;
+        }
+        return Tense.PRESENT;
+    }
 }
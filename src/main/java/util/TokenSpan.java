@@ -0,0 +1,111 @@
+package util;
+
+import java.nio.CharBuffer;
+import java.util.List;
+
+/**
+ * A run of consecutive words of a {@link DetokenizedText}, read as the text that the words are joined into.
+ * <p>
+ * The characters of most spans are read directly from the text of the whole sentence, so creating a span and reading
+ * it does not copy any characters. {@link #toString()} returns the same string as
+ * {@link WordListUtil#constructPhraseFromWordList(List)} for the words of the span.
+ */
+public final class TokenSpan implements CharSequence {
+    private final DetokenizedText text;
+    private final int start;
+    private final int end;
+    private final String buffer;
+    private final int charStart;
+    private final int charEnd;
+
+    TokenSpan(DetokenizedText text, int start, int end) {
+        this.text = text;
+        this.start = start;
+        this.end = end;
+        if (start == end) {
+            buffer = "";
+            charStart = 0;
+            charEnd = 0;
+        } else if (text.isSubstring(start, end)) {
+            buffer = text.getBuffer();
+            charStart = text.getCharStart(start);
+            charEnd = text.getCharEnd(end - 1);
+        } else {
+            buffer = text.render(start, end);
+            charStart = 0;
+            charEnd = buffer.length();
+        }
+    }
+
+    /**
+     * Returns the index of the first word of this span.
+     *
+     * @return the index of the first word
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the index after the last word of this span.
+     *
+     * @return the index after the last word
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the number of words in this span.
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return end - start;
+    }
+
+    /**
+     * Returns whether this span has no words.
+     *
+     * @return whether this span is empty
+     */
+    public boolean isEmpty() {
+        return start == end;
+    }
+
+    /**
+     * Returns the text that this span is a part of.
+     *
+     * @return the text of the sentence
+     */
+    public DetokenizedText getText() {
+        return text;
+    }
+
+    @Override
+    public int length() {
+        return charEnd - charStart;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of a span of length " + length());
+        }
+        return buffer.charAt(charStart + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException("Invalid range [" + start + ", " + end + ") of a span of length " +
+                    length());
+        }
+        return CharBuffer.wrap(buffer, charStart + start, charStart + end);
+    }
+
+    @Override
+    public String toString() {
+        return buffer.substring(charStart, charEnd);
+    }
+}
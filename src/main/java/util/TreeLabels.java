@@ -0,0 +1,75 @@
+package util;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns the labels of the phrase structure nodes of parse trees as small integer ids.
+ * <p>
+ * Only phrase and part of speech labels are interned, which come from the fixed tag set of the parser. The words at the
+ * leaves of a tree are never interned, so the table does not grow with the text that is parsed. Ids are assigned in
+ * the order labels are first seen and stay valid for the lifetime of the JVM.
+ */
+public final class TreeLabels {
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static volatile String[] labels = new String[0];
+
+    private TreeLabels() {
+    }
+
+    /**
+     * Returns the id of the given label, assigning a new id if the label has not been seen before.
+     *
+     * @param label the given label
+     * @return the id of the given label
+     */
+    public static int intern(String label) {
+        final Integer id = ids.get(label);
+        if (id != null) {
+            return id;
+        }
+        synchronized (TreeLabels.class) {
+            final Integer existingId = ids.get(label);
+            if (existingId != null) {
+                return existingId;
+            }
+            final int newId = labels.length;
+            final String[] newLabels = Arrays.copyOf(labels, newId + 1);
+            newLabels[newId] = label;
+            labels = newLabels;
+            ids.put(label, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * Returns the id of the given label without interning it.
+     *
+     * @param label the given label
+     * @return the id of the given label, or -1 if it has not been interned
+     */
+    public static int getId(String label) {
+        final Integer id = ids.get(label);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Returns the label with the given id.
+     *
+     * @param id the given id
+     * @return the label with the given id
+     */
+    public static String getLabel(int id) {
+        return labels[id];
+    }
+
+    /**
+     * Returns the number of interned labels.
+     *
+     * @return the number of interned labels
+     */
+    public static int size() {
+        return labels.length;
+    }
+}
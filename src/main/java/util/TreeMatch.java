@@ -0,0 +1,63 @@
+package util;
+
+import edu.stanford.nlp.trees.Tree;
+
+/**
+ * A match of a {@link TreePattern} in a tree, which is the node that the anchor of the pattern matched and the nodes
+ * that were bound to the names of the pattern.
+ */
+public final class TreeMatch {
+    private final IndexedTree tree;
+    private final TreePattern pattern;
+    private final int[] bindings;
+
+    TreeMatch(IndexedTree tree, TreePattern pattern, int[] bindings) {
+        this.tree = tree;
+        this.pattern = pattern;
+        this.bindings = bindings;
+    }
+
+    /**
+     * Returns the node that the anchor of the pattern matched.
+     *
+     * @return the matched node
+     */
+    public Tree getNode() {
+        return tree.getNode(bindings[0]);
+    }
+
+    /**
+     * Returns the node that was bound to the given name.
+     *
+     * @param name the given name
+     * @return the node bound to the given name
+     * @throws IllegalArgumentException if the pattern does not have the given name
+     */
+    public Tree getNode(String name) {
+        return tree.getNode(bindings[getSlot(name)]);
+    }
+
+    /**
+     * Returns the pre-order number of the node that was bound to the given name.
+     *
+     * @param name the given name
+     * @return the number of the node bound to the given name
+     * @throws IllegalArgumentException if the pattern does not have the given name
+     */
+    public int getNodeNumber(String name) {
+        return bindings[getSlot(name)];
+    }
+
+    private int getSlot(String name) {
+        final int slot = pattern.getNames().indexOf(name);
+        if (name == null || slot < 0) {
+            throw new IllegalArgumentException("Pattern " + pattern + " does not have the name " + name);
+        }
+        return slot;
+    }
+
+    @Override
+    public String toString() {
+        return pattern + ": " + getNode();
+    }
+}
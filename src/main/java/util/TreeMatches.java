@@ -0,0 +1,37 @@
+package util;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+/**
+ * The matches that a {@link TreePatternMatcher} found in one tree, grouped by pattern.
+ */
+public final class TreeMatches {
+    private final TreePatternMatcher matcher;
+    private final List<List<TreeMatch>> matches;
+
+    TreeMatches(TreePatternMatcher matcher, List<List<TreeMatch>> matches) {
+        this.matcher = matcher;
+        final ImmutableList.Builder<List<TreeMatch>> builder = ImmutableList.builder();
+        for (final List<TreeMatch> patternMatches : matches) {
+            builder.add(ImmutableList.copyOf(patternMatches));
+        }
+        this.matches = builder.build();
+    }
+
+    TreePatternMatcher getMatcher() {
+        return matcher;
+    }
+
+    /**
+     * Returns the matches of the given pattern in the pre-order of their anchors.
+     *
+     * @param pattern the given pattern
+     * @return the matches of the given pattern
+     * @throws IllegalArgumentException if the pattern is not one of the patterns of the matcher
+     */
+    public List<TreeMatch> get(TreePattern pattern) {
+        return matches.get(matcher.indexOf(pattern));
+    }
+}
@@ -0,0 +1,358 @@
+package util;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A pattern over the nodes of a phrase structure tree, written in a small subset of the Tregex syntax.
+ * <p>
+ * A pattern is a node description followed by any number of relations to other nodes, all of which must hold for the
+ * first node, which is called the anchor of the pattern. A node description is a label, a list of labels separated by
+ * {@code |}, or {@code __} for any node. Labels of the Penn Treebank are compared as {@link PennTreebankLabel}
+ * constants and any other label is compared case-insensitively with the words at the leaves. A description can be
+ * followed by {@code =name} to bind the node to the given name. The relations are:
+ * <ul>
+ * <li>{@code A < B}: B is a child of A</li>
+ * <li>{@code A <n B}: B is the n-th child of A, counting from 1</li>
+ * <li>{@code A > B}: B is the parent of A</li>
+ * <li>{@code A >n B}: A is the n-th child of B, counting from 1</li>
+ * <li>{@code A $+ B}: B is the sibling immediately to the right of A</li>
+ * <li>{@code A $- B}: B is the sibling immediately to the left of A</li>
+ * </ul>
+ * The node after a relation is a node description, or a pattern with relations of its own in parentheses. For example,
+ * {@code PP > VP=vp <2 NP=np} finds every PP whose parent is a VP and whose second child is an NP, and
+ * {@code VP < (CC < and)} finds every VP with the conjunction "and" as a child.
+ * <p>
+ * A pattern matches a node at most once: if several nodes satisfy a relation, the leftmost one is bound. Patterns are
+ * matched with a {@link TreePatternMatcher}, which finds the matches of many patterns in one traversal of a tree.
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TreePattern {
+    private static final String ANY_NODE = "__";
+
+    private final String pattern;
+    private final NodePattern anchor;
+    private final List<String> names;
+
+    private TreePattern(String pattern, NodePattern anchor, List<String> names) {
+        this.pattern = pattern;
+        this.anchor = anchor;
+        this.names = names;
+    }
+
+    /**
+     * Compiles the given pattern.
+     *
+     * @param pattern the given pattern
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the pattern is not valid
+     */
+    public static TreePattern compile(String pattern) {
+        final Parser parser = new Parser(pattern);
+        final NodePattern anchor = parser.parsePattern();
+        Preconditions.checkArgument(parser.isDone(), "Unexpected '%s' in pattern: %s", parser.peek(), pattern);
+        return new TreePattern(pattern, anchor, Collections.unmodifiableList(parser.names));
+    }
+
+    /**
+     * Returns the names of the bound nodes, in the order of their binding slots. The anchor always has slot 0 and is
+     * named {@code null} unless the pattern names it.
+     */
+    List<String> getNames() {
+        return names;
+    }
+
+    /**
+     * Returns the labels of the nodes that the anchor of this pattern can match.
+     *
+     * @return the labels, which include {@link PennTreebankLabel#OTHER} if the anchor can match words
+     */
+    Set<PennTreebankLabel> getAnchorCategories() {
+        return anchor.getCategories();
+    }
+
+    /**
+     * Returns whether this pattern matches the node with the given number, storing the numbers of the bound nodes in
+     * the given array if it does.
+     */
+    boolean matches(IndexedTree tree, int number, int[] bindings) {
+        return anchor.matches(tree, number, bindings);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+
+    /**
+     * A node description of a pattern and the relations that must hold for the node that it matches.
+     */
+    private static final class NodePattern {
+        private final boolean anyNode;
+        private final Set<PennTreebankLabel> categories;
+        private final List<String> words;
+        private final int slot;
+        private final List<Relation> relations = new ArrayList<>();
+
+        private NodePattern(boolean anyNode, Set<PennTreebankLabel> categories, List<String> words, int slot) {
+            this.anyNode = anyNode;
+            this.categories = categories;
+            this.words = words;
+            this.slot = slot;
+        }
+
+        private Set<PennTreebankLabel> getCategories() {
+            if (anyNode) {
+                return EnumSet.allOf(PennTreebankLabel.class);
+            }
+            final Set<PennTreebankLabel> anchorCategories = EnumSet.noneOf(PennTreebankLabel.class);
+            anchorCategories.addAll(categories);
+            if (!words.isEmpty()) {
+                anchorCategories.add(PennTreebankLabel.OTHER);
+            }
+            return anchorCategories;
+        }
+
+        private boolean matches(IndexedTree tree, int number, int[] bindings) {
+            if (!describes(tree, number)) {
+                return false;
+            }
+            for (final Relation relation : relations) {
+                if (!relation.holds(tree, number, bindings)) {
+                    return false;
+                }
+            }
+            if (slot >= 0) {
+                bindings[slot] = number;
+            }
+            return true;
+        }
+
+        private boolean describes(IndexedTree tree, int number) {
+            if (anyNode) {
+                return true;
+            }
+            final PennTreebankLabel category = tree.getCategory(number);
+            if (category != PennTreebankLabel.OTHER) {
+                return categories.contains(category);
+            }
+            final String value = tree.getNode(number).value();
+            for (final String word : words) {
+                if (word.equalsIgnoreCase(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private enum RelationType {
+        CHILD, PARENT, RIGHT_SIBLING, LEFT_SIBLING
+    }
+
+    /**
+     * A relation between the node matched by a node description and another node of the tree.
+     */
+    private static final class Relation {
+        private final RelationType type;
+        private final int position;
+        private final NodePattern target;
+
+        private Relation(RelationType type, int position, NodePattern target) {
+            this.type = type;
+            this.position = position;
+            this.target = target;
+        }
+
+        private boolean holds(IndexedTree tree, int number, int[] bindings) {
+            switch (type) {
+                case CHILD:
+                    int childPosition = 1;
+                    for (int child = tree.getFirstChild(number); child != -1; child = tree.getNextSibling(child)) {
+                        if ((position == 0 || position == childPosition) && target.matches(tree, child, bindings)) {
+                            return true;
+                        }
+                        childPosition++;
+                    }
+                    return false;
+                case PARENT:
+                    final int parent = tree.getParent(number);
+                    if (parent == -1 || position != 0 && getChild(tree, parent, position) != number) {
+                        return false;
+                    }
+                    return target.matches(tree, parent, bindings);
+                case RIGHT_SIBLING:
+                    final int rightSibling = tree.getNextSibling(number);
+                    return rightSibling != -1 && target.matches(tree, rightSibling, bindings);
+                case LEFT_SIBLING:
+                    final int leftSibling = getPreviousSibling(tree, number);
+                    return leftSibling != -1 && target.matches(tree, leftSibling, bindings);
+                default:
+                    throw new AssertionError(type);
+            }
+        }
+
+        private static int getChild(IndexedTree tree, int number, int position) {
+            int child = tree.getFirstChild(number);
+            for (int i = 1; i < position && child != -1; i++) {
+                child = tree.getNextSibling(child);
+            }
+            return child;
+        }
+
+        private static int getPreviousSibling(IndexedTree tree, int number) {
+            final int parent = tree.getParent(number);
+            if (parent == -1) {
+                return -1;
+            }
+            int previousSibling = -1;
+            for (int child = tree.getFirstChild(parent); child != number; child = tree.getNextSibling(child)) {
+                previousSibling = child;
+            }
+            return previousSibling;
+        }
+    }
+
+    /**
+     * Parses the text of a pattern into node descriptions and relations.
+     */
+    private static final class Parser {
+        private final String pattern;
+        private final List<String> tokens;
+        private final List<String> names = new ArrayList<>(Collections.singletonList((String) null));
+        private final Set<String> usedNames = new HashSet<>();
+        private int position;
+
+        private Parser(String pattern) {
+            this.pattern = pattern;
+            this.tokens = tokenize(pattern);
+        }
+
+        private static List<String> tokenize(String pattern) {
+            final List<String> tokens = new ArrayList<>();
+            int i = 0;
+            while (i < pattern.length()) {
+                final char ch = pattern.charAt(i);
+                int end = i + 1;
+                if (Character.isWhitespace(ch)) {
+                    i++;
+                    continue;
+                } else if (ch == '<' || ch == '>') {
+                    while (end < pattern.length() && Character.isDigit(pattern.charAt(end))) {
+                        end++;
+                    }
+                } else if (ch == '$') {
+                    end = Math.min(i + 2, pattern.length());
+                } else if (ch != '(' && ch != ')') {
+                    while (end < pattern.length() && !Character.isWhitespace(pattern.charAt(end)) &&
+                            "()<>".indexOf(pattern.charAt(end)) < 0) {
+                        end++;
+                    }
+                }
+                tokens.add(pattern.substring(i, end));
+                i = end;
+            }
+            return tokens;
+        }
+
+        private boolean isDone() {
+            return position == tokens.size();
+        }
+
+        private String peek() {
+            return isDone() ? null : tokens.get(position);
+        }
+
+        private String next() {
+            Preconditions.checkArgument(!isDone(), "Unexpected end of pattern: %s", pattern);
+            return tokens.get(position++);
+        }
+
+        private NodePattern parsePattern() {
+            final NodePattern node = parseDescription(position == 0);
+            while (!isDone() && isRelation(peek())) {
+                final String relation = next();
+                final NodePattern target;
+                if ("(".equals(peek())) {
+                    next();
+                    target = parsePattern();
+                    Preconditions.checkArgument(")".equals(next()), "Missing ')' in pattern: %s", pattern);
+                } else {
+                    target = parseDescription(false);
+                }
+                node.relations.add(createRelation(relation, target));
+            }
+            return node;
+        }
+
+        private NodePattern parseDescription(boolean isAnchor) {
+            final String token = next();
+            Preconditions.checkArgument(!isRelation(token) && !"(".equals(token) && !")".equals(token),
+                    "Expected a node description instead of '%s' in pattern: %s", token, pattern);
+            final int nameStart = token.indexOf('=');
+            final String description = nameStart < 0 ? token : token.substring(0, nameStart);
+            int slot = isAnchor ? 0 : -1;
+            if (nameStart >= 0) {
+                final String name = token.substring(nameStart + 1);
+                Preconditions.checkArgument(!name.isEmpty() && usedNames.add(name), "Invalid or repeated name '%s' " +
+                        "in pattern: %s", name, pattern);
+                if (isAnchor) {
+                    names.set(0, name);
+                } else {
+                    slot = names.size();
+                    names.add(name);
+                }
+            }
+
+            if (description.equals(ANY_NODE)) {
+                return new NodePattern(true, ImmutableSet.<PennTreebankLabel>of(), ImmutableList.<String>of(), slot);
+            }
+            final Set<PennTreebankLabel> categories = EnumSet.noneOf(PennTreebankLabel.class);
+            final List<String> words = new ArrayList<>();
+            for (final String label : description.split("\\|", -1)) {
+                Preconditions.checkArgument(!label.isEmpty(), "Empty label in pattern: %s", pattern);
+                final PennTreebankLabel category = PennTreebankLabel.of(label);
+                if (category == PennTreebankLabel.OTHER) {
+                    words.add(label);
+                } else {
+                    categories.add(category);
+                }
+            }
+            return new NodePattern(false, categories, ImmutableList.copyOf(words), slot);
+        }
+
+        private static boolean isRelation(String token) {
+            return token.startsWith("<") || token.startsWith(">") || token.startsWith("$");
+        }
+
+        private Relation createRelation(String relation, NodePattern target) {
+            final int position = relation.length() > 1 && relation.charAt(0) != '$' ?
+                    Integer.parseInt(relation.substring(1)) : 0;
+            switch (relation.charAt(0)) {
+                case '<':
+                    Preconditions.checkArgument(relation.length() == 1 || position > 0, "Invalid relation '%s' in " +
+                            "pattern: %s", relation, pattern);
+                    return new Relation(RelationType.CHILD, position, target);
+                case '>':
+                    Preconditions.checkArgument(relation.length() == 1 || position > 0, "Invalid relation '%s' in " +
+                            "pattern: %s", relation, pattern);
+                    return new Relation(RelationType.PARENT, position, target);
+                default:
+                    if (relation.equals("$+")) {
+                        return new Relation(RelationType.RIGHT_SIBLING, 0, target);
+                    }
+                    Preconditions.checkArgument(relation.equals("$-"), "Invalid relation '%s' in pattern: %s",
+                            relation, pattern);
+                    return new Relation(RelationType.LEFT_SIBLING, 0, target);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package util;
+
+import com.google.common.collect.ImmutableList;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds the matches of a fixed set of {@link TreePattern}s in one traversal of a tree.
+ * <p>
+ * The patterns are grouped by the labels their anchors can match when the matcher is created, so each node of a tree is
+ * only compared with the patterns that can start at it. Adding a pattern therefore does not add another walk of the
+ * tree, and a pattern whose anchor label is rare costs almost nothing on most nodes. The matches of a tree are kept
+ * with the {@link IndexedTree}, so matching the same tree again returns the earlier result.
+ * <p>
+ * Instances are immutable and safe to share between threads.
+ */
+public final class TreePatternMatcher {
+    private final List<TreePattern> patterns;
+    private final Map<TreePattern, Integer> patternIndices = new IdentityHashMap<>();
+    private final int[][] patternsByCategory;
+
+    /**
+     * Creates a matcher for the given patterns.
+     *
+     * @param patterns the given patterns
+     */
+    public TreePatternMatcher(TreePattern... patterns) {
+        this.patterns = ImmutableList.copyOf(patterns);
+        final PennTreebankLabel[] categories = PennTreebankLabel.values();
+        final List<List<Integer>> patternLists = new ArrayList<>();
+        for (int i = 0; i < categories.length; i++) {
+            patternLists.add(new ArrayList<Integer>());
+        }
+        for (int i = 0; i < patterns.length; i++) {
+            patternIndices.put(patterns[i], i);
+            for (final PennTreebankLabel category : patterns[i].getAnchorCategories()) {
+                patternLists.get(category.ordinal()).add(i);
+            }
+        }
+        patternsByCategory = new int[categories.length][];
+        for (int i = 0; i < categories.length; i++) {
+            final List<Integer> patternList = patternLists.get(i);
+            patternsByCategory[i] = new int[patternList.size()];
+            for (int k = 0; k < patternList.size(); k++) {
+                patternsByCategory[i][k] = patternList.get(k);
+            }
+        }
+    }
+
+    /**
+     * Returns the patterns of this matcher.
+     *
+     * @return the patterns
+     */
+    public List<TreePattern> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * Finds the matches of all of the patterns of this matcher in the given tree. The matches of each pattern are in
+     * the pre-order of their anchors.
+     *
+     * @param tree the given tree
+     * @return the matches in the given tree
+     */
+    public TreeMatches match(IndexedTree tree) {
+        final TreeMatches cachedMatches = tree.getMatches();
+        if (cachedMatches != null && cachedMatches.getMatcher() == this) {
+            return cachedMatches;
+        }
+
+        final List<List<TreeMatch>> matches = new ArrayList<>(patterns.size());
+        final int[][] bindings = new int[patterns.size()][];
+        for (int i = 0; i < patterns.size(); i++) {
+            matches.add(new ArrayList<TreeMatch>());
+            bindings[i] = new int[patterns.get(i).getNames().size()];
+        }
+        for (int number = 0; number < tree.size(); number++) {
+            for (final int patternIndex : patternsByCategory[tree.getCategory(number).ordinal()]) {
+                final TreePattern pattern = patterns.get(patternIndex);
+                if (pattern.matches(tree, number, bindings[patternIndex])) {
+                    matches.get(patternIndex).add(new TreeMatch(tree, pattern, bindings[patternIndex].clone()));
+                }
+            }
+        }
+
+        final TreeMatches treeMatches = new TreeMatches(this, matches);
+        tree.setMatches(treeMatches);
+        return treeMatches;
+    }
+
+    /**
+     * Returns the index of the given pattern.
+     *
+     * @throws IllegalArgumentException if the pattern is not one of the patterns of this matcher
+     */
+    int indexOf(TreePattern pattern) {
+        final Integer index = patternIndices.get(pattern);
+        if (index == null) {
+            throw new IllegalArgumentException("Pattern is not part of the matcher: " + pattern);
+        }
+        return index;
+    }
+}
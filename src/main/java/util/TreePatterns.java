@@ -0,0 +1,62 @@
+package util;
+
+import java.util.List;
+
+/**
+ * The tree patterns that the question rules and the extractors look for in constituency parses.
+ * <p>
+ * All of the patterns are matched together by one {@link TreePatternMatcher} the first time any of them is looked up
+ * for a tree, so a rule or extractor that uses a pattern from this class does not walk the tree itself.
+ */
+public final class TreePatterns {
+    /**
+     * A PP under a VP with an NP as its second child.
+     */
+    public static final TreePattern PP_UNDER_VP = TreePattern.compile("PP > VP=vp <2 NP=np");
+    /**
+     * An NP immediately followed by a VP.
+     */
+    public static final TreePattern NP_BEFORE_VP = TreePattern.compile("NP $+ VP=vp");
+    /**
+     * An NP followed by a comma and a VP.
+     */
+    public static final TreePattern NP_BEFORE_COMMA_AND_VP = TreePattern.compile("NP $+ (, $+ VP=vp)");
+    /**
+     * A VP with the conjunction "and" as one of its children.
+     */
+    public static final TreePattern VP_WITH_AND = TreePattern.compile("VP < (CC < and)");
+    /**
+     * A VP that is a child of the main clause.
+     */
+    public static final TreePattern MAIN_VP = TreePattern.compile("VP > (__ >1 ROOT)");
+    /**
+     * An NP that is a child of the main clause.
+     */
+    public static final TreePattern MAIN_NP = TreePattern.compile("NP > (__ >1 ROOT)");
+    /**
+     * Any PP.
+     */
+    public static final TreePattern PP = TreePattern.compile("PP");
+    /**
+     * Any parenthetical.
+     */
+    public static final TreePattern PRN = TreePattern.compile("PRN");
+
+    // Add all patterns that should be matched here
+    private static final TreePatternMatcher MATCHER = new TreePatternMatcher(PP_UNDER_VP, NP_BEFORE_VP,
+            NP_BEFORE_COMMA_AND_VP, VP_WITH_AND, MAIN_VP, MAIN_NP, PP, PRN);
+
+    private TreePatterns() {
+    }
+
+    /**
+     * Returns the matches of the given pattern in the given tree.
+     *
+     * @param root    the given tree
+     * @param pattern the given pattern, which must be one of the patterns of this class
+     * @return the matches of the given pattern in the pre-order of their anchors
+     */
+    public static List<TreeMatch> findMatches(IndexedTree root, TreePattern pattern) {
+        return MATCHER.match(root).get(pattern);
+    }
+}
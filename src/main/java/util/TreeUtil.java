@@ -50,6 +50,59 @@ public class TreeUtil {
         return child;
     }
 
+    /**
+     * Returns the parent of the given {@code child} tree in the given indexed tree.
+     *
+     * @param root  the indexed phrase structure tree
+     * @param child the given child tree
+     * @return the parent tree of the given child tree, or {@code null} if the child is the root
+     */
+    public static Tree getParent(IndexedTree root, Tree child) {
+        return root.getParent(child);
+    }
+
+    /**
+     * Returns the ancestor that is {@code n} generations separated from the given {@code child} tree in the given
+     * indexed tree.
+     *
+     * @param root  the indexed phrase structure tree
+     * @param child the given child tree
+     * @param n     the number of generations to go back
+     * @return the ancestor of the given child tree, or {@code null} if there are fewer than {@code n} generations
+     */
+    public static Tree getParent(IndexedTree root, Tree child, int n) {
+        for (int i = 0; i < n && child != null; i++) {
+            child = root.getParent(child);
+        }
+        return child;
+    }
+
+    /**
+     * Returns the parent of the given node in the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @return the parent of the given node, or -1 if it is the root
+     */
+    public static int getParent(CompactTree tree, int node) {
+        return tree.getParent(node);
+    }
+
+    /**
+     * Returns the ancestor that is {@code n} generations separated from the given node in the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @param n    the number of generations to go back
+     * @return the ancestor of the given node, or -1 if there are fewer than {@code n} generations
+     */
+    public static int getParent(CompactTree tree, int node, int n) {
+        for (int i = 0; i < n && node != -1; i++) {
+            node = tree.getParent(node);
+        }
+        return node;
+    }
+
     /**
      * Returns the first parent of the given word in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -66,6 +119,31 @@ public class TreeUtil {
         return null;
     }
 
+    /**
+     * Returns the first NP child of the top-level phrase of the given indexed tree.
+     *
+     * @param root the indexed phrase structure tree
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getFirstNp(IndexedTree root) {
+        return getFirstNp(root.getRoot());
+    }
+
+    /**
+     * Returns the first NP child of the top-level phrase of the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @return the NP node or -1 if no such node exists
+     */
+    public static int getFirstNp(CompactTree tree) {
+        for (int child = tree.getFirstChild(tree.getFirstChild(0)); child != -1; child = tree.getNextSibling(child)) {
+            if (labelIs(tree, child, PennTreebankLabel.NP)) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Returns the first parent of the given word in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -75,7 +153,7 @@ public class TreeUtil {
      */
     public static Tree getNpFromWord(Tree root, Tree word) {
         Tree currentTree = word;
-        while (!currentTree.label().value().equalsIgnoreCase("np")) {
+        while (!labelIs(currentTree, PennTreebankLabel.NP)) {
             currentTree = getParent(root, currentTree);
             if (currentTree == root) {
                 return null;
@@ -84,6 +162,35 @@ public class TreeUtil {
         return currentTree;
     }
 
+    /**
+     * Returns the first parent of the given word in the given indexed tree that has the label "NP".
+     *
+     * @param root the indexed phrase structure tree
+     * @param word the given word
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getNpFromWord(IndexedTree root, Tree word) {
+        Tree currentTree = word;
+        while (!labelIs(root, currentTree, PennTreebankLabel.NP)) {
+            currentTree = root.getParent(currentTree);
+            if (currentTree == root.getRoot()) {
+                return null;
+            }
+        }
+        return currentTree;
+    }
+
+    /**
+     * Returns the first ancestor of the word with the given index in the given compact tree that has the label "NP".
+     *
+     * @param tree  the given compact tree
+     * @param index the index of the given word
+     * @return the NP node or -1 if no such node exists
+     */
+    public static int getNpFromWord(CompactTree tree, int index) {
+        return findAncestorFromWord(tree, index, PennTreebankLabel.NP);
+    }
+
     /**
      * Returns the highest parent of the given word in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -93,20 +200,40 @@ public class TreeUtil {
      */
     public static Tree getHighestNpFromWord(Tree root, Tree word) {
         Tree currentTree = word;
-        while (!currentTree.label().value().equalsIgnoreCase("np")) {
+        while (!labelIs(currentTree, PennTreebankLabel.NP)) {
             currentTree = getParent(root, currentTree);
             if (currentTree == root) {
                 return null;
             }
         }
         Tree previousTree = currentTree;
-        while (labelEquals(currentTree, "np") || labelEquals(currentTree, "pp")) {
+        while (labelIs(currentTree, PennTreebankLabel.NP) || labelIs(currentTree, PennTreebankLabel.PP)) {
             previousTree = currentTree;
             currentTree = getParent(root, currentTree);
         }
         return previousTree;
     }
 
+    /**
+     * Returns the highest parent of the given word in the given indexed tree that has the label "NP".
+     *
+     * @param root the indexed phrase structure tree
+     * @param word the given word
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getHighestNpFromWord(IndexedTree root, Tree word) {
+        Tree currentTree = getNpFromWord(root, word);
+        if (currentTree == null) {
+            return null;
+        }
+        Tree previousTree = currentTree;
+        while (labelIs(root, currentTree, PennTreebankLabel.NP) || labelIs(root, currentTree, PennTreebankLabel.PP)) {
+            previousTree = currentTree;
+            currentTree = root.getParent(currentTree);
+        }
+        return previousTree;
+    }
+
     /**
      * Returns the highest parent of the given word in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -118,6 +245,37 @@ public class TreeUtil {
         return getHighestNpFromWord(root, root.getLeaves().get(index));
     }
 
+    /**
+     * Returns the highest parent of the word with the given index in the given indexed tree that has the label "NP".
+     *
+     * @param root  the indexed phrase structure tree
+     * @param index the index of the given word
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getHighestNpFromWord(IndexedTree root, int index) {
+        return getHighestNpFromWord(root, root.getLeaf(index));
+    }
+
+    /**
+     * Returns the highest ancestor of the word with the given index in the given compact tree that has the label "NP".
+     *
+     * @param tree  the given compact tree
+     * @param index the index of the given word
+     * @return the NP node or -1 if no such node exists
+     */
+    public static int getHighestNpFromWord(CompactTree tree, int index) {
+        int currentNode = getNpFromWord(tree, index);
+        if (currentNode == -1) {
+            return -1;
+        }
+        int previousNode = currentNode;
+        while (labelIs(tree, currentNode, PennTreebankLabel.NP) || labelIs(tree, currentNode, PennTreebankLabel.PP)) {
+            previousNode = currentNode;
+            currentNode = tree.getParent(currentNode);
+        }
+        return previousNode;
+    }
+
     /**
      * Returns the first parent of the word represented by the given index in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -130,6 +288,17 @@ public class TreeUtil {
         return getNpFromWord(root, wordTree);
     }
 
+    /**
+     * Returns the first parent of the word with the given index in the given indexed tree that has the label "NP".
+     *
+     * @param root  the indexed phrase structure tree
+     * @param index the given index
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getNpFromWord(IndexedTree root, int index) {
+        return getNpFromWord(root, root.getLeaf(index));
+    }
+
     /**
      * Returns the first parent of the given word in the phrase structure tree represented by {@code root} that has the label "NP".
      *
@@ -141,6 +310,17 @@ public class TreeUtil {
         return getNpFromWord(root, word.index() - 1);
     }
 
+    /**
+     * Returns the first parent of the given word in the given indexed tree that has the label "NP".
+     *
+     * @param root the indexed phrase structure tree
+     * @param word the given word
+     * @return the {@link Tree} representing the NP or {@code null} if no such tree exists
+     */
+    public static Tree getNpFromWord(IndexedTree root, IndexedWord word) {
+        return getNpFromWord(root, word.index() - 1);
+    }
+
     /**
      * Returns the first parent of the given word in the phrase structure tree represented by {@code root} that has the label "VP".
      *
@@ -150,7 +330,7 @@ public class TreeUtil {
      */
     public static Tree getVpFromWord(Tree root, Tree word) {
         Tree currentTree = word;
-        while (!currentTree.label().value().equalsIgnoreCase("vp")) {
+        while (!labelIs(currentTree, PennTreebankLabel.VP)) {
             currentTree = getParent(root, currentTree);
             if (currentTree == root) {
                 return null;
@@ -159,6 +339,50 @@ public class TreeUtil {
         return currentTree;
     }
 
+    /**
+     * Returns the first parent of the given word in the given indexed tree that has the label "VP".
+     *
+     * @param root the indexed phrase structure tree
+     * @param word the given word
+     * @return the {@link Tree} representing the VP or {@code null} if no such tree exists
+     */
+    public static Tree getVpFromWord(IndexedTree root, Tree word) {
+        Tree currentTree = word;
+        while (!labelIs(root, currentTree, PennTreebankLabel.VP)) {
+            currentTree = root.getParent(currentTree);
+            if (currentTree == root.getRoot()) {
+                return null;
+            }
+        }
+        return currentTree;
+    }
+
+    /**
+     * Returns the first ancestor of the word with the given index in the given compact tree that has the label "VP".
+     *
+     * @param tree  the given compact tree
+     * @param index the index of the given word
+     * @return the VP node or -1 if no such node exists
+     */
+    public static int getVpFromWord(CompactTree tree, int index) {
+        return findAncestorFromWord(tree, index, PennTreebankLabel.VP);
+    }
+
+    /**
+     * Returns the first node with the given label on the path from the word with the given index up to, but not
+     * including, the root of the given compact tree.
+     */
+    private static int findAncestorFromWord(CompactTree tree, int index, PennTreebankLabel label) {
+        int currentNode = tree.getLeafNode(index);
+        while (!labelIs(tree, currentNode, label)) {
+            currentNode = tree.getParent(currentNode);
+            if (currentNode == 0) {
+                return -1;
+            }
+        }
+        return currentNode;
+    }
+
     /**
      * Returns a {@link Vp} representing the full VP starting with the parent of the given tree in the sentence
      * represented by the given root.
@@ -171,7 +395,7 @@ public class TreeUtil {
         final ReversePhraseBuilder reversePhraseBuilder = new ReversePhraseBuilder();
         Tree previousTree = tree;
         Tree currentTree = getParent(root, tree);
-        while (labelEquals(currentTree, "vp")) {
+        while (labelIs(currentTree, PennTreebankLabel.VP)) {
             reversePhraseBuilder.addString(constructPhraseFromTree(currentTree.getChild(0)));
             previousTree = currentTree;
             currentTree = getParent(root, currentTree);
@@ -182,6 +406,29 @@ public class TreeUtil {
         return new Vp(reversePhraseBuilder.getWords(), previousTree);
     }
 
+    /**
+     * Returns a {@link Vp} representing the full VP starting with the parent of the given tree in the given indexed
+     * tree.
+     *
+     * @param root the indexed tree of the given sentence
+     * @param tree the given tree
+     * @return a {@link Vp} representing the full VP
+     */
+    public static Vp getFullVpFromTree(IndexedTree root, Tree tree) {
+        final ReversePhraseBuilder reversePhraseBuilder = new ReversePhraseBuilder();
+        Tree previousTree = tree;
+        Tree currentTree = root.getParent(tree);
+        while (labelIs(root, currentTree, PennTreebankLabel.VP)) {
+            reversePhraseBuilder.addString(constructPhraseFromTree(currentTree.getChild(0)));
+            previousTree = currentTree;
+            currentTree = root.getParent(currentTree);
+            if (currentTree == root.getRoot()) {
+                break;
+            }
+        }
+        return new Vp(reversePhraseBuilder.getWords(), previousTree);
+    }
+
     /**
      * Returns the first SBAR ancestor for the given tree under the given root.
      *
@@ -191,7 +438,7 @@ public class TreeUtil {
      */
     public static Tree getFirstSbar(Tree root, Tree tree) {
         Tree currentTree = getParent(root, tree);
-        while (!labelEquals(currentTree, "sbar")) {
+        while (!labelIs(currentTree, PennTreebankLabel.SBAR)) {
             currentTree = getParent(root, currentTree);
             if (currentTree == root) {
                 return null;
@@ -200,6 +447,42 @@ public class TreeUtil {
         return currentTree;
     }
 
+    /**
+     * Returns the first SBAR ancestor for the given tree in the given indexed tree.
+     *
+     * @param root the indexed tree
+     * @param tree the given tree
+     * @return the first SBAR ancestor or {@code null} if none exists
+     */
+    public static Tree getFirstSbar(IndexedTree root, Tree tree) {
+        Tree currentTree = root.getParent(tree);
+        while (!labelIs(root, currentTree, PennTreebankLabel.SBAR)) {
+            currentTree = root.getParent(currentTree);
+            if (currentTree == root.getRoot()) {
+                return null;
+            }
+        }
+        return currentTree;
+    }
+
+    /**
+     * Returns the first SBAR ancestor for the given node in the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @return the first SBAR ancestor or -1 if none exists
+     */
+    public static int getFirstSbar(CompactTree tree, int node) {
+        int currentNode = tree.getParent(node);
+        while (!labelIs(tree, currentNode, PennTreebankLabel.SBAR)) {
+            currentNode = tree.getParent(currentNode);
+            if (currentNode == 0) {
+                return -1;
+            }
+        }
+        return currentNode;
+    }
+
     /**
      * Returns whether the given NP tree is plural.
      *
@@ -216,6 +499,42 @@ public class TreeUtil {
         return false;
     }
 
+    /**
+     * Returns whether the given NP tree in the given indexed tree is plural.
+     *
+     * @param root the indexed tree containing the NP tree
+     * @param tree the given NP tree
+     * @return {@code true} if the NP tree is plural
+     */
+    public static boolean npIsPlural(IndexedTree root, Tree tree) {
+        final int lastLeafIndex = root.getLastLeafIndex(tree);
+        for (int i = root.getFirstLeafIndex(tree); i >= 0 && i <= lastLeafIndex; i++) {
+            final String posTag = root.getParent(root.getLeaf(i)).value().toLowerCase();
+            if (posTag.startsWith("nn") && posTag.startsWith("prp") && posTag.endsWith("s")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the given NP node in the given compact tree is plural.
+     *
+     * @param tree the given compact tree
+     * @param node the given NP node
+     * @return {@code true} if the NP is plural
+     */
+    public static boolean npIsPlural(CompactTree tree, int node) {
+        for (int i = tree.getFirstLeafIndex(node); i <= tree.getLastLeafIndex(node); i++) {
+            final int posTag = tree.getParent(tree.getLeafNode(i));
+            if (labelStartsWith(tree, posTag, "nn") && labelStartsWith(tree, posTag, "prp") &&
+                    labelEndsWith(tree, posTag, "s")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Returns whether the label for the given tree equals the given label (case-insensitive).
      *
@@ -224,7 +543,55 @@ public class TreeUtil {
      * @return whether the label for the given tree equals the given label (case-insensitive)
      */
     public static boolean labelEquals(Tree tree, String label) {
-        return tree.label().value().equalsIgnoreCase(label.toLowerCase());
+        return tree.label().value().equalsIgnoreCase(label);
+    }
+
+    /**
+     * Returns whether the label of the given node in the given compact tree equals the given label
+     * (case-insensitive).
+     *
+     * @param tree  the given compact tree
+     * @param node  the given node
+     * @param label the given label
+     * @return whether the label of the given node equals the given label (case-insensitive)
+     */
+    public static boolean labelEquals(CompactTree tree, int node, String label) {
+        return tree.getLabel(node).equalsIgnoreCase(label);
+    }
+
+    /**
+     * Returns whether the given tree has the given label.
+     *
+     * @param tree  the given tree
+     * @param label the given label
+     * @return whether the given tree has the given label
+     */
+    public static boolean labelIs(Tree tree, PennTreebankLabel label) {
+        return PennTreebankLabel.of(tree.label().value()) == label;
+    }
+
+    /**
+     * Returns whether the given tree in the given indexed tree has the given label.
+     *
+     * @param root  the indexed tree containing the given tree
+     * @param tree  the given tree
+     * @param label the given label
+     * @return whether the given tree has the given label
+     */
+    public static boolean labelIs(IndexedTree root, Tree tree, PennTreebankLabel label) {
+        return root.getCategory(tree) == label;
+    }
+
+    /**
+     * Returns whether the given node in the given compact tree has the given label.
+     *
+     * @param tree  the given compact tree
+     * @param node  the given node
+     * @param label the given label
+     * @return whether the given node has the given label
+     */
+    public static boolean labelIs(CompactTree tree, int node, PennTreebankLabel label) {
+        return tree.getCategory(node) == label;
     }
 
     /**
@@ -235,7 +602,25 @@ public class TreeUtil {
      * @return whether the label for the given tree starts with the given prefix (case-insensitive)
      */
     public static boolean labelStartsWith(Tree tree, String prefix) {
-        return tree.label().value().toLowerCase().startsWith(prefix.toLowerCase());
+        return tree.label().value().regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    /**
+     * Returns whether the label of the given node in the given compact tree starts with the given prefix
+     * (case-insensitive).
+     *
+     * @param tree   the given compact tree
+     * @param node   the given node
+     * @param prefix the given prefix
+     * @return whether the label of the given node starts with the given prefix (case-insensitive)
+     */
+    public static boolean labelStartsWith(CompactTree tree, int node, String prefix) {
+        return tree.getLabel(node).regionMatches(true, 0, prefix, 0, prefix.length());
+    }
+
+    private static boolean labelEndsWith(CompactTree tree, int node, String suffix) {
+        final String label = tree.getLabel(node);
+        return label.regionMatches(true, label.length() - suffix.length(), suffix, 0, suffix.length());
     }
 
     /**
@@ -246,7 +631,29 @@ public class TreeUtil {
      * @return whether the label for the given tree contains the given part (case-insensitive)
      */
     public static boolean labelContains(Tree tree, String part) {
-        return tree.label().value().toLowerCase().contains(part.toLowerCase());
+        return containsIgnoreCase(tree.label().value(), part);
+    }
+
+    /**
+     * Returns whether the label of the given node in the given compact tree contains the given part
+     * (case-insensitive).
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @param part the given part
+     * @return whether the label of the given node contains the given part (case-insensitive)
+     */
+    public static boolean labelContains(CompactTree tree, int node, String part) {
+        return containsIgnoreCase(tree.getLabel(node), part);
+    }
+
+    private static boolean containsIgnoreCase(String string, String part) {
+        for (int i = 0; i + part.length() <= string.length(); i++) {
+            if (string.regionMatches(true, i, part, 0, part.length())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -259,6 +666,17 @@ public class TreeUtil {
         return HEAD_FINDER.determineHead(tree);
     }
 
+    /**
+     * Returns the head of the given tree in the given indexed tree. The heads of the indexed tree are only found once.
+     *
+     * @param root the indexed tree containing the given tree
+     * @param tree the given tree
+     * @return the head of the tree
+     */
+    public static Tree findHead(IndexedTree root, Tree tree) {
+        return root.getHeadChild(tree);
+    }
+
     /**
      * Returns the head of the given tree in the given sentence.
      *
@@ -271,6 +689,31 @@ public class TreeUtil {
         return getLeafIndex(root, head.getLeaves().get(0));
     }
 
+    /**
+     * Returns the index of the head of the given tree in the given indexed tree. The heads of the indexed tree are
+     * only found once.
+     *
+     * @param root the indexed tree of the given sentence
+     * @param tree the given tree
+     * @return the index of the head of the tree
+     */
+    public static int findIndexOfHead(IndexedTree root, Tree tree) {
+        return root.getHeadIndex(tree);
+    }
+
+    /**
+     * Returns the index of the first leaf of the head child of the given node in the given compact tree, which is the
+     * word that {@link #findIndexOfHead(Tree, Tree)} returns for the corresponding tree.
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @return the index of the head of the node, or -1 if it has no head
+     */
+    public static int findIndexOfHead(CompactTree tree, int node) {
+        final int head = tree.getHeadChild(node);
+        return head == -1 ? -1 : tree.getFirstLeafIndex(head);
+    }
+
     /**
      * Returns the index of the given leaf in the tree represented by the given root.
      *
@@ -288,6 +731,28 @@ public class TreeUtil {
         return -1;
     }
 
+    /**
+     * Returns the index of the given leaf in the given indexed tree.
+     *
+     * @param root the indexed tree
+     * @param leaf the given leaf
+     * @return the index of the given leaf, or -1 if it is not a leaf of the tree
+     */
+    public static int getLeafIndex(IndexedTree root, Tree leaf) {
+        return root.getLeafIndex(leaf);
+    }
+
+    /**
+     * Returns the index of the given leaf node in the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @param leaf the given leaf node
+     * @return the index of the given leaf, or -1 if the node is not a leaf
+     */
+    public static int getLeafIndex(CompactTree tree, int leaf) {
+        return tree.isLeaf(leaf) ? tree.getFirstLeafIndex(leaf) : -1;
+    }
+
     /**
      * Returns the string from the sentence represented by the given root that occurs before the given tree.
      *
@@ -308,6 +773,17 @@ public class TreeUtil {
         return WordListUtil.constructPhraseFromWordList(words);
     }
 
+    /**
+     * Returns the string from the sentence represented by the given indexed tree that occurs before the given tree.
+     *
+     * @param root           the indexed tree
+     * @param childToExclude the given tree
+     * @return the string before the given tree
+     */
+    public static String getStringBeforeTree(IndexedTree root, Tree childToExclude) {
+        return root.getText().render(0, root.getFirstLeafIndex(childToExclude));
+    }
+
     /**
      * Returns the string from the sentence represented by the given root that occurs after the given tree.
      *
@@ -330,6 +806,17 @@ public class TreeUtil {
         return WordListUtil.constructPhraseFromWordList(stringAfter.getWords());
     }
 
+    /**
+     * Returns the string from the sentence represented by the given indexed tree that occurs after the given tree.
+     *
+     * @param root           the indexed tree
+     * @param childToExclude the given tree
+     * @return the string after the given tree
+     */
+    public static String getStringAfterTree(IndexedTree root, Tree childToExclude) {
+        return root.getText().render(root.getLastLeafIndex(childToExclude) + 1, root.getLeaves().size());
+    }
+
     /**
      * Returns the string from the sentence represented by the given root that occurs between the given trees.
      *
@@ -358,6 +845,18 @@ public class TreeUtil {
         return WordListUtil.constructPhraseFromWordList(stringBetween);
     }
 
+    /**
+     * Returns the string from the sentence represented by the given indexed tree that occurs between the given trees.
+     *
+     * @param root      the indexed tree
+     * @param leftTree  the given left tree
+     * @param rightTree the given right tree
+     * @return the string between the given trees
+     */
+    public static String getStringBetweenTrees(IndexedTree root, Tree leftTree, Tree rightTree) {
+        return root.getText().render(root.getLastLeafIndex(leftTree) + 1, root.getFirstLeafIndex(rightTree));
+    }
+
     /**
      * Returns the range representing the bounds of the given tree in the given sentence.
      *
@@ -384,6 +883,17 @@ public class TreeUtil {
         return Range.closed(leftIndex, rightIndex);
     }
 
+    /**
+     * Returns the range representing the bounds of the given tree in the given indexed tree.
+     *
+     * @param root the indexed tree of the given sentence
+     * @param tree the given tree
+     * @return the range of the given tree
+     */
+    public static Range<Integer> getRangeOfTree(IndexedTree root, Tree tree) {
+        return root.getSpan(tree);
+    }
+
     /**
      * Takes a {@link Tree} from the CoreNLP parser and reconstructs a String for the words. This method will try and
      * ensure that punctuation and spacing is correct in the returned phrase.
@@ -400,6 +910,39 @@ public class TreeUtil {
         return WordListUtil.constructPhraseFromWordList(words);
     }
 
+    /**
+     * Reconstructs a String for the words under the given node in the given compact tree.
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @return the String for the node
+     * @see #constructPhraseFromTree(Tree)
+     */
+    public static String constructPhraseFromTree(CompactTree tree, int node) {
+        final List<String> words = new ArrayList<>(tree.getLastLeafIndex(node) - tree.getFirstLeafIndex(node) + 1);
+        for (int i = tree.getFirstLeafIndex(node); i <= tree.getLastLeafIndex(node); i++) {
+            words.add(tree.getWord(i));
+        }
+        return WordListUtil.constructPhraseFromWordList(words);
+    }
+
+    /**
+     * Reconstructs a String for the words of the given tree from the text of the given indexed tree, without walking
+     * the leaves of the tree.
+     *
+     * @param root the indexed tree
+     * @param tree the given tree
+     * @return the String for the tree
+     * @see #constructPhraseFromTree(Tree)
+     */
+    public static String constructPhraseFromTree(IndexedTree root, Tree tree) {
+        final int firstLeafIndex = root.getFirstLeafIndex(tree);
+        if (firstLeafIndex < 0) {
+            return constructPhraseFromTree(tree);
+        }
+        return root.getText().render(firstLeafIndex, root.getLastLeafIndex(tree) + 1);
+    }
+
     /**
      * Returns whether the given tree represents a conjunction and that the conjunction is the word "and".
      *
@@ -409,4 +952,17 @@ public class TreeUtil {
     public static boolean treeIsAndConjunction(Tree tree) {
         return labelEquals(tree, "cc") && labelEquals(tree.getLeaves().get(0), "and");
     }
+
+    /**
+     * Returns whether the given node in the given compact tree represents a conjunction and that the conjunction is
+     * the word "and".
+     *
+     * @param tree the given compact tree
+     * @param node the given node
+     * @return {@code true} if the given node is a CC with the word "and" as its first leaf
+     */
+    public static boolean treeIsAndConjunction(CompactTree tree, int node) {
+        return labelIs(tree, node, PennTreebankLabel.CC) &&
+                tree.getWord(tree.getFirstLeafIndex(node)).equalsIgnoreCase("and");
+    }
 }
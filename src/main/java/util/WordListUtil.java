@@ -12,10 +12,9 @@ import java.util.Set;
 
 public class WordListUtil {
     private static final Set<String> DATE_LOCATION_NER_TAGS = ImmutableSet.of("date", "location");
-    private static final Set<String> NO_WHITESPACE_BEFORE = ImmutableSet.of(",", ";", "!", ".", "'", "''", ":", "%",
+    static final Set<String> NO_WHITESPACE_BEFORE = ImmutableSet.of(",", ";", "!", ".", "'", "''", ":", "%",
             "°");
-    private static final Set<String> NO_WHITESPACE_AFTER = ImmutableSet.of("`", "``");
-    private static final String COMMA = ",";
+    static final Set<String> NO_WHITESPACE_AFTER = ImmutableSet.of("`", "``");
 
     /**
      * Calculates whether the given dependent is enclosed within commas or the end of the given sentence after the given
@@ -27,25 +26,27 @@ public class WordListUtil {
      * @return {@code null} if the dependent is not enclosed, or a range representing the enclosure
      */
     public static Range<Integer> findBoundedPart(IndexedWord governor, IndexedWord dependent, Sentence sentence) {
-        final List<String> words = sentence.words();
+        return findBoundedPart(governor, dependent, SentenceFeatures.of(sentence));
+    }
+
+    /**
+     * Calculates whether the given dependent is enclosed within commas or the end of the sentence after the given
+     * governor, using the boundary commas in the given features of the sentence.
+     *
+     * @param governor  the given governor
+     * @param dependent the given dependent
+     * @param features  the features of the sentence
+     * @return {@code null} if the dependent is not enclosed, or a range representing the enclosure
+     */
+    public static Range<Integer> findBoundedPart(IndexedWord governor, IndexedWord dependent,
+                                                 SentenceFeatures features) {
         final int governorIndex = governor.index() - 1;
         final int dependentIndex = dependent.index() - 1;
 
         // See if the dependent is enclosed within commas
-        int leftCommaBound = -1;
-        int rightCommaBound = words.size() - 1;
-        for (int i = dependentIndex; i >= 0; i--) {
-            if (words.get(i).equals(COMMA) && isBoundaryComma(i, sentence)) {
-                leftCommaBound = i;
-                break;
-            }
-        }
-        for (int i = dependentIndex; i < words.size(); i++) {
-            if (words.get(i).equals(COMMA) && isBoundaryComma(i, sentence)) {
-                rightCommaBound = i;
-                break;
-            }
-        }
+        final int leftCommaBound = features.getPreviousBoundaryComma(dependentIndex);
+        final int nextComma = features.getNextBoundaryComma(dependentIndex);
+        final int rightCommaBound = nextComma == -1 ? features.size() - 1 : nextComma;
         if (leftCommaBound <= governorIndex || rightCommaBound <= governorIndex) {
             System.out.println("The dependent is not bounded by commas after the governor");
             return null;
@@ -100,6 +101,19 @@ public class WordListUtil {
         return modifiedWords;
     }
 
+    /**
+     * Returns the given list of words with the words marked in the given mask removed. The given list will not be
+     * modified by this method.
+     *
+     * @param words         the given list of words
+     * @param partsToRemove the mask of the words to remove
+     * @return the list of words with the given parts removed
+     * @see #removeParts(List, RangeSet)
+     */
+    public static List<String> removeParts(List<String> words, SpanMask partsToRemove) {
+        return partsToRemove.removeFrom(words);
+    }
+
     /**
      * Takes a list of words from the Stanford CoreNLP parser and reconstructs a String for the words. This method will
      * try and ensure that punctuation and spacing is correct in the returned phrase.
@@ -114,21 +128,7 @@ public class WordListUtil {
                 removeWhitespaceAtEnd(answer);
             }
 
-            switch (word) {
-                // Stanford's parser turns first quotes into specialized 'left' forms that are difficult to deal with so
-                // just turn them back into regular quotes.
-                case "`":
-                    answer.append("'");
-                    break;
-                // Stanford's parser turns double quotes into two single quotes so turn them back into proper form
-                case "''":
-                case "``":
-                    answer.append("\"");
-                    break;
-                default:
-                    answer.append(word);
-                    break;
-            }
+            answer.append(detokenizeWord(word));
 
             if (!NO_WHITESPACE_AFTER.contains(word)) {
                 answer.append(" ");
@@ -138,6 +138,27 @@ public class WordListUtil {
         return answer.toString().replaceAll(" 's ", "'s ").trim();
     }
 
+    /**
+     * Returns the text that the given word from the Stanford CoreNLP parser stands for in a reconstructed phrase.
+     *
+     * @param word the given word
+     * @return the text of the word
+     */
+    static String detokenizeWord(String word) {
+        switch (word) {
+            // Stanford's parser turns first quotes into specialized 'left' forms that are difficult to deal with so
+            // just turn them back into regular quotes.
+            case "`":
+                return "'";
+            // Stanford's parser turns double quotes into two single quotes so turn them back into proper form
+            case "''":
+            case "``":
+                return "\"";
+            default:
+                return word;
+        }
+    }
+
     private static void removeWhitespaceAtEnd(StringBuilder stringBuilder) {
         if (stringBuilder.length() > 0 && stringBuilder.charAt(stringBuilder.length() - 1) == ' ') {
             stringBuilder.setLength(stringBuilder.length() - 1);
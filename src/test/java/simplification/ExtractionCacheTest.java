@@ -0,0 +1,128 @@
+package simplification;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import tagging.AnnotatedSentence;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ExtractionCacheTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        final CountingExtractor upperCase = new UpperCaseExtractor();
+        final CountingExtractor split = new SplitExtractor();
+        final ExtractionCache upperCaseCache = new ExtractionCache(upperCase);
+        final ExtractionCache splitCache = new ExtractionCache(split);
+        upperCaseCache.extract("John ran.");
+        upperCaseCache.extract("Mary sang.");
+        splitCache.extract("John ran and Mary sang.");
+        splitCache.extract("John ran.");
+        // A result with a tab cannot be written
+        splitCache.extract("John ran\tand Mary sang.");
+
+        final File file = new File(folder.getRoot(), "cache/extractions.txt");
+        assertThat(ExtractionCache.write(file, ImmutableList.of(upperCaseCache, splitCache))).isEqualTo(4);
+
+        final CountingExtractor newUpperCase = new UpperCaseExtractor();
+        final CountingExtractor newSplit = new SplitExtractor();
+        final ExtractionCache newUpperCaseCache = new ExtractionCache(newUpperCase);
+        final ExtractionCache newSplitCache = new ExtractionCache(newSplit);
+        assertThat(ExtractionCache.read(file, ImmutableList.of(newUpperCaseCache, newSplitCache))).isEqualTo(4);
+        assertThat(newUpperCaseCache.extract("Mary sang.").getSimplifiedSentences()).containsExactly("MARY SANG.");
+        assertThat(newSplitCache.extract("John ran and Mary sang.").getSimplifiedSentences())
+                .containsExactly("John ran", "Mary sang.");
+        assertThat(newSplitCache.extract("John ran.").getSimplifiedSentences()).containsExactly("John ran.");
+        assertThat(newUpperCase.calls).isEqualTo(0);
+        assertThat(newSplit.calls).isEqualTo(0);
+        newSplitCache.extract("John ran\tand Mary sang.");
+        assertThat(newSplit.calls).isEqualTo(1);
+    }
+
+    @Test
+    public void testReadSkipsOtherExtractors() throws Exception {
+        final ExtractionCache upperCaseCache = new ExtractionCache(new UpperCaseExtractor());
+        final ExtractionCache splitCache = new ExtractionCache(new SplitExtractor());
+        upperCaseCache.extract("John ran.");
+        splitCache.extract("John ran and Mary sang.");
+        final File file = folder.newFile();
+        ExtractionCache.write(file, ImmutableList.of(upperCaseCache, splitCache));
+
+        final ExtractionCache newSplitCache = new ExtractionCache(new SplitExtractor());
+        assertThat(ExtractionCache.read(file, ImmutableList.of(newSplitCache))).isEqualTo(1);
+    }
+
+    @Test
+    public void testReadSkipsChangedExtractors() throws Exception {
+        // The results were written by an extractor with the same name but a different class file
+        final File file = folder.newFile();
+        Files.write(file.toPath(), Arrays.asList("extraction-cache\t" + ExtractionCache.FORMAT_VERSION,
+                "UpperCaseExtractor@00000000000000000000000000000000\tJohn ran.\tJOHN RAN."), Charsets.UTF_8);
+        final CountingExtractor upperCase = new UpperCaseExtractor();
+        final ExtractionCache upperCaseCache = new ExtractionCache(upperCase);
+        assertThat(ExtractionCache.read(file, ImmutableList.of(upperCaseCache))).isEqualTo(0);
+        upperCaseCache.extract("John ran.");
+        assertThat(upperCase.calls).isEqualTo(1);
+    }
+
+    @Test
+    public void testReadIgnoresOtherVersions() throws Exception {
+        final ExtractionCache upperCaseCache = new ExtractionCache(new UpperCaseExtractor());
+        upperCaseCache.extract("John ran.");
+        final File file = folder.newFile();
+        ExtractionCache.write(file, ImmutableList.of(upperCaseCache));
+        final ExtractionCache newUpperCaseCache = new ExtractionCache(new UpperCaseExtractor());
+        assertThat(ExtractionCache.read(file, ImmutableList.of(newUpperCaseCache))).isEqualTo(1);
+
+        // A file of the next version or of the format without a header is not read
+        final List<String> lines = Files.readAllLines(file.toPath(), Charsets.UTF_8);
+        lines.set(0, "extraction-cache\t" + (ExtractionCache.FORMAT_VERSION + 1));
+        Files.write(file.toPath(), lines, Charsets.UTF_8);
+        assertThat(ExtractionCache.read(file, ImmutableList.of(new ExtractionCache(new UpperCaseExtractor()))))
+                .isEqualTo(0);
+        Files.write(file.toPath(), lines.subList(1, lines.size()), Charsets.UTF_8);
+        assertThat(ExtractionCache.read(file, ImmutableList.of(new ExtractionCache(new UpperCaseExtractor()))))
+                .isEqualTo(0);
+    }
+
+    /**
+     * An extractor that counts how often it extracts a sentence.
+     */
+    private abstract static class CountingExtractor implements Extractor {
+        private int calls;
+
+        @Override
+        public SimplificationResult extract(AnnotatedSentence sentence) {
+            calls++;
+            return new SimplificationResult(simplify(sentence.text()));
+        }
+
+        protected abstract Set<String> simplify(String sentence);
+    }
+
+    private static class UpperCaseExtractor extends CountingExtractor {
+        @Override
+        protected Set<String> simplify(String sentence) {
+            return ImmutableSet.of(sentence.toUpperCase());
+        }
+    }
+
+    private static class SplitExtractor extends CountingExtractor {
+        @Override
+        protected Set<String> simplify(String sentence) {
+            return ImmutableSet.copyOf(sentence.split(" and "));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package simplification;
+
+import com.google.common.base.Joiner;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+import static simplification.SentenceNormalizer.normalize;
+
+public class SentenceNormalizerTest {
+    // The pronunciation of "Brabham"
+    private static final String PRONUNCIATION = "/\u02c8br\u00e6b\u0259m/";
+
+    @Test
+    public void testQuotes() throws Exception {
+        assertThat(normalize("He sang \"Hey Jude\" twice.")).isEqualTo("He sang Hey_Jude twice.");
+        assertThat(normalize("\"Hey Jude\" and \"Let It Be\"")).isEqualTo("Hey_Jude and Let_It_Be");
+        // An unclosed quote groups the rest of the sentence
+        assertThat(normalize("He sang \"Hey Jude twice.")).isEqualTo("He sang Hey_Jude_twice.");
+    }
+
+    @Test
+    public void testColons() throws Exception {
+        assertThat(normalize("Note: it rained.")).isEqualTo("Note it rained.");
+        assertThat(normalize("It opens at 10:30.")).isEqualTo("It opens at 10:30.");
+        // ": " is replaced before " : ", so a spaced colon leaves both of its spaces
+        assertThat(normalize("Score : 3")).isEqualTo("Score  3");
+        // Replacing ": " can make a " : ", which is then replaced as well
+        assertThat(normalize("Score :: 3")).isEqualTo("Score 3");
+        assertThat(normalize("Score:")).isEqualTo("Score:");
+        assertThat(normalize("Score :")).isEqualTo("Score :");
+        // The replacements see the spaces of quoted text as underscores
+        assertThat(normalize("\"Score: 3\"")).isEqualTo("Score:_3");
+    }
+
+    @Test
+    public void testPronunciations() throws Exception {
+        assertThat(normalize("Brabham " + PRONUNCIATION + " was a team.")).isEqualTo("Brabham was a team.");
+        assertThat(normalize("Brabham  " + PRONUNCIATION + ", a team.")).isEqualTo("Brabham, a team.");
+        assertThat(normalize("Brabham " + PRONUNCIATION + "; a team.")).isEqualTo("Brabham; a team.");
+        assertThat(normalize("It is Brabham " + PRONUNCIATION)).isEqualTo("It is Brabham");
+        assertThat(normalize(PRONUNCIATION + " is a team.")).isEqualTo(" is a team.");
+    }
+
+    @Test
+    public void testKeptSlashes() throws Exception {
+        // Runs with only ASCII characters are not pronunciations
+        assertThat(normalize("It is in /usr/ now.")).isEqualTo("It is in /usr/ now.");
+        assertThat(normalize("Bring a pen and/or a pencil.")).isEqualTo("Bring a pen and/or a pencil.");
+        // The slashes must start and end a word
+        assertThat(normalize("Brabham" + PRONUNCIATION + " was a team.")).isEqualTo(
+                "Brabham" + PRONUNCIATION + " was a team.");
+        assertThat(normalize("Brabham " + PRONUNCIATION + "s was a team.")).isEqualTo(
+                "Brabham " + PRONUNCIATION + "s was a team.");
+        assertThat(normalize("Brabham / \u00e6 / was a team.")).isEqualTo("Brabham / \u00e6 / was a team.");
+    }
+
+    @Test
+    public void testPronunciationInParentheses() throws Exception {
+        final String sentence = "Brabham (" + PRONUNCIATION + ") was a team.";
+        assertThat(normalize(sentence)).isEqualTo(sentence);
+        final String twoPronunciations = "Brabham (" + PRONUNCIATION + " or more recently " + PRONUNCIATION + ") won.";
+        assertThat(normalize(twoPronunciations)).isEqualTo(twoPronunciations);
+        // A pronunciation after the closing parenthesis is removed again
+        assertThat(normalize("Brabham (BT) " + PRONUNCIATION + " won.")).isEqualTo("Brabham (BT) won.");
+    }
+
+    @Test
+    public void testUnclosedSlashes() throws Exception {
+        assertThat(normalize("Brabham /\u02c8br\u00e6b was a team.")).isEqualTo("Brabham /\u02c8br\u00e6b was a team.");
+        assertThat(normalize("Brabham /\u02c8br\u00e6b")).isEqualTo("Brabham /\u02c8br\u00e6b");
+        assertThat(normalize("Brabham /")).isEqualTo("Brabham /");
+        // A run that is too long to be a pronunciation is kept
+        final StringBuilder longRun = new StringBuilder("Brabham /\u02c8");
+        for (int i = 0; i < 200; i++) {
+            longRun.append('a');
+        }
+        longRun.append("/ was a team.");
+        assertThat(normalize(longRun.toString())).isEqualTo(longRun.toString());
+    }
+
+    @Test
+    public void testReaderMatchesString() throws Exception {
+        final List<String> sentences = new ArrayList<>();
+        final Random random = new Random(0);
+        for (int i = 0; i < 1000; i++) {
+            sentences.add(randomSentence(random, "ab \":/(),\u00e6"));
+        }
+        sentences.add("Brabham " + PRONUNCIATION + " was a team.");
+        sentences.add("");
+        sentences.add("He sang \"Hey Jude twice.");
+
+        final StringWriter writer = new StringWriter();
+        SentenceNormalizer.normalize(new StringReader(Joiner.on('\n').join(sentences)), writer);
+        final List<String> expected = new ArrayList<>();
+        for (final String sentence : sentences) {
+            expected.add(normalize(sentence));
+        }
+        assertThat(writer.toString()).isEqualTo(Joiner.on('\n').join(expected));
+    }
+
+    @Test
+    public void testQuotesAndColonsMatchReplaceAll() throws Exception {
+        // Without slashes only the quote and colon steps apply, which used to be a loop and two replaceAll calls
+        final Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            final String sentence = randomSentence(random, "ab \":");
+            assertThat(normalize(sentence)).named(sentence).isEqualTo(normalizeWithReplaceAll(sentence));
+        }
+    }
+
+    private static String randomSentence(Random random, String alphabet) {
+        final StringBuilder sentence = new StringBuilder();
+        final int length = random.nextInt(20);
+        for (int i = 0; i < length; i++) {
+            sentence.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sentence.toString();
+    }
+
+    private static String normalizeWithReplaceAll(String sentence) {
+        final StringBuilder grouped = new StringBuilder();
+        boolean inQuotes = false;
+        for (final char ch : sentence.toCharArray()) {
+            if (ch == '"') {
+                inQuotes = !inQuotes;
+            } else {
+                grouped.append(inQuotes && ch == ' ' ? '_' : ch);
+            }
+        }
+        return grouped.toString().replaceAll(": ", " ").replaceAll(" : ", " ");
+    }
+}
@@ -6,8 +6,10 @@ import com.google.common.collect.Range;
 import com.google.common.collect.TreeRangeSet;
 import edu.stanford.nlp.simple.Sentence;
 import org.junit.Test;
+import util.SpanMask;
 import util.WordListUtil;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,6 +47,46 @@ public class WordListUtilTest {
         assertEquals(expected, WordListUtil.removeParts(WORDS, range));
     }
 
+    @Test
+    public void testRemovePartsMaskNoParts() throws Exception {
+        assertEquals(WORDS, WordListUtil.removeParts(WORDS, new SpanMask()));
+    }
+
+    @Test
+    public void testRemovePartsMaskMultipleParts() throws Exception {
+        // The spans correspond to the phrase ", my good friend," and the word 'and' in the sentence
+        final SpanMask mask = new SpanMask();
+        mask.add(1, 5);
+        mask.add(Range.closed(8, 8));
+        final List<String> expected = ImmutableList.of("John", "likes", "cats", "dogs", ".");
+        assertEquals(expected, WordListUtil.removeParts(WORDS, mask));
+    }
+
+    @Test
+    public void testRemovePartsMaskMatchesRangeSet() throws Exception {
+        final List<String> words = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            words.add(Integer.toString(i));
+        }
+        final SpanMask first = new SpanMask();
+        final TreeRangeSet<Integer> rangeSet = TreeRangeSet.create();
+        // The spans cross the boundaries between the longs of the mask
+        first.add(60, 70);
+        rangeSet.add(Range.closed(60, 70));
+        first.add(127, 128);
+        rangeSet.add(Range.closed(127, 128));
+        final SpanMask second = new SpanMask();
+        second.add(Range.closedOpen(0, 3));
+        rangeSet.add(Range.closed(0, 2));
+        second.add(190, 199);
+        rangeSet.add(Range.closed(190, 199));
+
+        final SpanMask union = first.union(second);
+        assertEquals(WordListUtil.removeParts(words, rangeSet), WordListUtil.removeParts(words, union));
+        assertEquals(26, union.cardinality());
+        assertEquals("[0..2, 60..70, 127..128, 190..199]", union.toString());
+    }
+
     @Test
     public void testConstructSentenceFromWordList() throws Exception {
         assertConstructSentenceFromWordListCorrect("This is a simple sentence");
@@ -0,0 +1,140 @@
+package tagging;
+
+import com.google.common.base.Charsets;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class AnnotationStoreTest {
+    private static final String FIRST = "John likes cats.";
+    private static final String SECOND = "Mary likes dogs.";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPutAndGet() throws Exception {
+        final File file = folder.newFile();
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            store.put(tag(FIRST));
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get(FIRST).posTags()).containsExactly("NNP", "VBZ", "NNS", ".").inOrder();
+            assertThat(store.get(SECOND)).isNull();
+            assertThat(store.getHitCount()).isEqualTo(1L);
+            assertThat(store.getMissCount()).isEqualTo(1L);
+        }
+    }
+
+    @Test
+    public void testPutWithoutAnnotations() throws Exception {
+        // A sentence that has not been annotated has nothing to store
+        final File file = folder.newFile();
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            store.put(new AnnotatedSentence(FIRST));
+            assertThat(store.size()).isEqualTo(0);
+            assertThat(store.get(FIRST)).isNull();
+        }
+    }
+
+    @Test
+    public void testReopen() throws Exception {
+        final File file = folder.newFile();
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            store.put(tag(FIRST));
+            store.put(tag(SECOND));
+        }
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(FIRST).words()).containsExactly("John", "likes", "cats", ".").inOrder();
+            assertThat(store.get(SECOND).posTags()).containsExactly("NNP", "VBZ", "NNS", ".").inOrder();
+        }
+    }
+
+    @Test
+    public void testReopenDiscardsTruncatedRecord() throws Exception {
+        final File file = folder.newFile();
+        final long firstRecordEnd;
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            store.put(tag(FIRST));
+            firstRecordEnd = file.length();
+            store.put(tag(SECOND));
+        }
+        // Cut the second record short, as if the process had been killed while writing it
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(file.length() - 3);
+        }
+
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            assertThat(store.size()).isEqualTo(1);
+            assertThat(store.get(FIRST)).isNotNull();
+            assertThat(store.get(SECOND)).isNull();
+            store.put(tag(SECOND));
+        }
+        assertThat(file.length()).isGreaterThan(firstRecordEnd);
+        try (AnnotationStore store = AnnotationStore.open(file)) {
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(store.get(SECOND)).isNotNull();
+        }
+    }
+
+    @Test
+    public void testOpenRejectsOtherBackend() throws Exception {
+        final File file = folder.newFile();
+        writeHeader(file, 0x54544153, 2, "other");
+        try {
+            AnnotationStore.open(file).close();
+            fail("A store of another parser backend was opened");
+        } catch (IOException e) {
+            assertThat(e.getMessage()).contains("other");
+        }
+    }
+
+    @Test
+    public void testOpenRejectsOtherVersion() throws Exception {
+        final File file = folder.newFile();
+        writeHeader(file, 0x54544153, 1, ParserBackends.get().getName());
+        try {
+            AnnotationStore.open(file).close();
+            fail("A store of another version was opened");
+        } catch (IOException e) {
+            assertThat(e.getMessage()).contains("is not a supported annotation store");
+        }
+    }
+
+    @Test
+    public void testOpenRejectsOtherFile() throws Exception {
+        final File file = folder.newFile();
+        writeHeader(file, 0x12345678, 2, ParserBackends.get().getName());
+        try {
+            AnnotationStore.open(file).close();
+            fail("A file that is not an annotation store was opened");
+        } catch (IOException e) {
+            assertThat(e.getMessage()).contains("is not an annotation store");
+        }
+    }
+
+    private static AnnotatedSentence tag(String text) {
+        final AnnotatedSentence sentence = new AnnotatedSentence(text);
+        sentence.posTags();
+        return sentence;
+    }
+
+    private static void writeHeader(File file, int magic, int version, String backend) throws IOException {
+        final byte[] backendName = backend.getBytes(Charsets.UTF_8);
+        final ByteBuffer header = ByteBuffer.allocate(12 + backendName.length);
+        header.putInt(magic).putInt(version).putInt(backendName.length).put(backendName).flip();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(header);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package tagging;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Compares the size and the encoding and decoding time of {@link ParsedSentenceMessage} with Java serialization of the
+ * tree, dependencies and named entities of the parsed topic sentences. The number of timed rounds can be set with the
+ * {@code benchmark.iterations} system property.
+ */
+public class ParsedSentenceEncodingBenchmark {
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 10);
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        final URL topicSentences = ParsedSentenceEncodingBenchmark.class.getResource("/topic_sentences.txt");
+        final Scanner scanner = new Scanner(new File(topicSentences.getFile()), "UTF-8");
+        final StanfordParser parser = new StanfordParser();
+        final List<ParsedSentence> parsedSentences = new ArrayList<>();
+        while (scanner.hasNext()) {
+            parsedSentences.add(parser.parseSentence(scanner.nextLine(), false));
+        }
+
+        int mismatches = 0;
+        for (final ParsedSentence parsedSentence : parsedSentences) {
+            final ParsedSentence decoded = ParsedSentence.decode(parsedSentence.encode());
+            if (!decoded.getPosTree().pennString().equals(parsedSentence.getPosTree().pennString()) ||
+                    !decoded.getDependencies().toString().equals(parsedSentence.getDependencies().toString()) ||
+                    !decoded.getNamedEntities().equals(parsedSentence.getNamedEntities())) {
+                System.out.println("Round trip mismatch: " + parsedSentence.getString());
+                mismatches++;
+            }
+        }
+        System.out.printf("%d sentences, %d round trip mismatches%n%n", parsedSentences.size(), mismatches);
+
+        long serializedBytes = 0;
+        long encodedBytes = 0;
+        for (final ParsedSentence parsedSentence : parsedSentences) {
+            serializedBytes += serialize(parsedSentence).length;
+            encodedBytes += parsedSentence.encode().length;
+        }
+
+        // Warm up both paths before timing them
+        for (int i = 0; i < ITERATIONS; i++) {
+            runSerialization(parsedSentences);
+            runEncoding(parsedSentences, true);
+        }
+
+        final long serializationNanos = runSerialization(parsedSentences);
+        final long[] encodingNanos = runEncoding(parsedSentences, false);
+        final long[] encodingWithRebuildNanos = runEncoding(parsedSentences, true);
+
+        final double sentences = parsedSentences.size();
+        System.out.printf("%-30s %10s %20s%n", "Format", "Bytes", "Encode + decode (us)");
+        System.out.printf("%-30s %10.1f %20.1f%n", "Java serialization", serializedBytes / sentences,
+                serializationNanos / sentences / ITERATIONS / 1000);
+        System.out.printf("%-30s %10.1f %20.1f%n", "Protocol buffer, lazy", encodedBytes / sentences,
+                encodingNanos[0] / sentences / ITERATIONS / 1000);
+        System.out.printf("%-30s %10.1f %20.1f%n", "Protocol buffer, rebuilt", encodedBytes / sentences,
+                encodingWithRebuildNanos[0] / sentences / ITERATIONS / 1000);
+        System.out.printf("%nProtocol buffer encoding alone: %.1f us per sentence%n",
+                encodingNanos[1] / sentences / ITERATIONS / 1000);
+    }
+
+    /**
+     * Serializes the parse information the way it was sent before {@link ParsedSentenceMessage}.
+     */
+    private static byte[] serialize(ParsedSentence parsedSentence) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(parsedSentence.getPosTree());
+            output.writeObject(parsedSentence.getDependencies());
+            output.writeObject(parsedSentence.getNamedEntities());
+        }
+        return bytes.toByteArray();
+    }
+
+    private static long runSerialization(List<ParsedSentence> parsedSentences) throws IOException,
+            ClassNotFoundException {
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (final ParsedSentence parsedSentence : parsedSentences) {
+                final byte[] bytes = serialize(parsedSentence);
+                try (final ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    input.readObject();
+                    input.readObject();
+                    input.readObject();
+                }
+            }
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Returns the total time of encoding and decoding and the time spent encoding alone.
+     */
+    private static long[] runEncoding(List<ParsedSentence> parsedSentences, boolean rebuild) throws IOException {
+        long encodingNanos = 0;
+        final long startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (final ParsedSentence parsedSentence : parsedSentences) {
+                final long encodingStartTime = System.nanoTime();
+                final byte[] bytes = parsedSentence.encode();
+                encodingNanos += System.nanoTime() - encodingStartTime;
+                final ParsedSentence decoded = ParsedSentence.decode(bytes);
+                if (rebuild) {
+                    decoded.getPosTree();
+                    decoded.getDependencies();
+                    decoded.getNamedEntities();
+                }
+            }
+        }
+        return new long[]{System.nanoTime() - startTime, encodingNanos};
+    }
+}
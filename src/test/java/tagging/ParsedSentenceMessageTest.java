@@ -0,0 +1,167 @@
+package tagging;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import edu.stanford.nlp.international.Language;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.ling.IndexedWord;
+import edu.stanford.nlp.trees.GrammaticalRelation;
+import edu.stanford.nlp.trees.PennTreebankLanguagePack;
+import edu.stanford.nlp.trees.Tree;
+import edu.stanford.nlp.trees.TypedDependency;
+import edu.stanford.nlp.trees.UniversalEnglishGrammaticalRelations;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ParsedSentenceMessageTest {
+    // "John and Mary like cats." with the object of the second conjunct copied, as in enhanced dependencies
+    private static final String TREE = "(ROOT (S (NP (NP (NNP John)) (CC and) (NP (NNP Mary))) (VP (VBP like) " +
+            "(NP (NNS cats))) (. .)))";
+    private static final String[] WORDS = {"John", "and", "Mary", "like", "cats", "."};
+    private static final String[] TAGS = {"NNP", "CC", "NNP", "VBP", "NNS", "."};
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        tree.setScore(-42.5);
+        final List<TypedDependency> dependencies = ImmutableList.of(
+                dependency("root", word(0, 0), word(4, 0), false),
+                dependency("nsubj", word(4, 0), word(1, 0), false),
+                dependency("cc", word(1, 0), word(2, 0), false),
+                dependency("conj:and", word(1, 0), word(3, 0), false),
+                dependency("nsubj", word(4, 0), word(3, 0), true),
+                dependency("dobj", word(4, 0), word(5, 0), false),
+                dependency("dobj", word(4, 1), word(5, 0), true),
+                dependency("punct", word(4, 0), word(6, 0), false));
+        final Map<String, NamedEntity> namedEntities = ImmutableMap.of("John", NamedEntity.PERSON, "Mary",
+                NamedEntity.PERSON);
+
+        final ParsedSentenceMessage message = ParsedSentenceMessage.parseFrom(ParsedSentenceMessage.encode(tree,
+                dependencies, namedEntities));
+
+        final Tree decodedTree = message.buildTree();
+        assertThat(decodedTree).isEqualTo(tree);
+        assertThat(decodedTree.pennString()).isEqualTo(tree.pennString());
+        assertThat(decodedTree.score()).isWithin(0.0).of(-42.5);
+        assertThat(new HashSet<>(message.buildDependencies())).isEqualTo(new HashSet<>(dependencies));
+        assertThat(describe(message.buildDependencies())).containsExactlyElementsIn(describe(dependencies))
+                .inOrder();
+        assertThat(message.buildNamedEntities()).isEqualTo(namedEntities);
+    }
+
+    @Test
+    public void testRoundTripParserDependencies() throws Exception {
+        // The dependencies that the server sends are Universal Dependencies, such as compound, case and nmod:in
+        final Tree tree = Tree.valueOf("(ROOT (S (NP (NNP John) (NNP Smith)) (VP (VBD ate) (NP (DT the) (NN cake)) " +
+                "(PP (IN in) (NP (DT the) (NN kitchen)))) (. .)))");
+        // The leaves of the parser's trees hold the original text of their words
+        for (final Tree leaf : tree.getLeaves()) {
+            ((CoreLabel) leaf.label()).setOriginalText(leaf.value());
+        }
+        final Collection<TypedDependency> dependencies = new PennTreebankLanguagePack().grammaticalStructureFactory()
+                .newGrammaticalStructure(tree).typedDependenciesCollapsed();
+        assertThat(describe(dependencies)).contains("nmod:in(ate-3/VBD copy 0, kitchen-8/NN copy 0)");
+
+        final ParsedSentence decoded = ParsedSentence.decode(new ParsedSentence(tree, dependencies,
+                ImmutableMap.<String, NamedEntity>of()).encode());
+        final List<TypedDependency> decodedDependencies = new ArrayList<>(decoded.getDependencies());
+        assertThat(new HashSet<>(decodedDependencies)).isEqualTo(new HashSet<>(dependencies));
+        assertThat(describe(decodedDependencies)).containsExactlyElementsIn(describe(dependencies)).inOrder();
+        final List<TypedDependency> dependencyList = new ArrayList<>(dependencies);
+        for (int i = 0; i < dependencyList.size(); i++) {
+            final GrammaticalRelation relation = decodedDependencies.get(i).reln();
+            assertThat(relation).isEqualTo(dependencyList.get(i).reln());
+            assertThat(relation.getLanguage()).isEqualTo(dependencyList.get(i).reln().getLanguage());
+            assertThat(relation.getLongName()).isNotNull();
+            assertThat(relation.getLongName()).isEqualTo(dependencyList.get(i).reln().getLongName());
+        }
+        for (final TypedDependency dependency : decodedDependencies) {
+            if (dependency.dep().word().equals("kitchen")) {
+                assertThat(decoded.getNp(dependency.dep())).isEqualTo("the kitchen");
+            } else if (dependency.dep().word().equals("Smith")) {
+                assertThat(decoded.getNp(dependency.dep())).isEqualTo("John Smith");
+            }
+        }
+    }
+
+    @Test
+    public void testRoundTripThroughParsedSentence() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final List<TypedDependency> dependencies = ImmutableList.of(
+                dependency("root", word(0, 0), word(4, 0), false),
+                dependency("nsubj", word(4, 0), word(1, 0), false));
+        final ParsedSentence parsedSentence = new ParsedSentence(tree, dependencies,
+                ImmutableMap.of("John", NamedEntity.PERSON));
+
+        final ParsedSentence decoded = ParsedSentence.decode(parsedSentence.encode());
+        assertThat(decoded.getPosTree()).isEqualTo(tree);
+        assertThat(describe(decoded.getDependencies())).containsExactlyElementsIn(describe(dependencies)).inOrder();
+        assertThat(decoded.getNamedEntities()).isEqualTo(parsedSentence.getNamedEntities());
+        assertThat(decoded.getString()).isEqualTo(parsedSentence.getString());
+    }
+
+    @Test
+    public void testRoundTripEmpty() throws Exception {
+        final Tree tree = Tree.valueOf("(ROOT (X (. .)))");
+        final ParsedSentenceMessage message = ParsedSentenceMessage.parseFrom(ParsedSentenceMessage.encode(tree,
+                ImmutableList.<TypedDependency>of(), ImmutableMap.<String, NamedEntity>of()));
+        assertThat(message.buildTree()).isEqualTo(tree);
+        assertThat(message.buildDependencies()).isEmpty();
+        assertThat(message.buildNamedEntities()).isEmpty();
+    }
+
+    private static IndexedWord word(int index, int copyCount) {
+        final CoreLabel label = new CoreLabel();
+        final String value = index == 0 ? "ROOT" : WORDS[index - 1];
+        label.setValue(value);
+        if (index > 0) {
+            label.setWord(value);
+            label.setOriginalText(value);
+            label.setTag(TAGS[index - 1]);
+        } else {
+            // As in the root that the grammatical structure factory creates
+            label.setSentIndex(-1);
+        }
+        label.setIndex(index);
+        final IndexedWord word = new IndexedWord(label);
+        word.setCopyCount(copyCount);
+        return word;
+    }
+
+    private static TypedDependency dependency(String relation, IndexedWord governor, IndexedWord dependent,
+                                              boolean extra) {
+        // Like the parser, create the conjunction relations instead of looking them up before they exist
+        final GrammaticalRelation reln = relation.startsWith("conj:") ?
+                UniversalEnglishGrammaticalRelations.getConj(relation.substring("conj:".length())) :
+                GrammaticalRelation.valueOf(Language.UniversalEnglish, relation);
+        final TypedDependency dependency = new TypedDependency(reln, governor, dependent);
+        if (extra) {
+            dependency.setExtra();
+        }
+        return dependency;
+    }
+
+    /**
+     * Describes every field of the given dependencies that is sent, since TypedDependency and IndexedWord do not
+     * compare the tag or whether a dependency is extra.
+     */
+    private static List<String> describe(Collection<TypedDependency> dependencies) {
+        final List<String> descriptions = new ArrayList<>();
+        for (final TypedDependency dependency : dependencies) {
+            descriptions.add(String.format("%s(%s, %s)%s", dependency.reln(), describe(dependency.gov()),
+                    describe(dependency.dep()), dependency.extra() ? " extra" : ""));
+        }
+        return descriptions;
+    }
+
+    private static String describe(IndexedWord word) {
+        return String.format("%s-%d/%s copy %d", word.word(), word.index(), word.tag(), word.copyCount());
+    }
+}
@@ -0,0 +1,82 @@
+package tagging;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class RequestBatcherTest {
+    @Test
+    public void testSubmit() throws Exception {
+        final RequestBatcher<String> batcher = new RequestBatcher<>(new RequestBatcher.BatchCall<String>() {
+            @Override
+            public List<String> call(List<String> inputs) {
+                final List<String> results = new ArrayList<>();
+                for (final String input : inputs) {
+                    results.add(input.toUpperCase());
+                }
+                return results;
+            }
+        }, MoreExecutors.directExecutor(), 2);
+        assertThat(batcher.submit("a").get()).isEqualTo("A");
+        assertThat(batcher.submit("b").get()).isEqualTo("B");
+    }
+
+    @Test
+    public void testSubmitAfterError() throws Exception {
+        final RequestBatcher<String> batcher = new RequestBatcher<>(new RequestBatcher.BatchCall<String>() {
+            @Override
+            public List<String> call(List<String> inputs) {
+                if (inputs.contains("error")) {
+                    throw new AssertionError("error");
+                }
+                return ImmutableList.copyOf(inputs);
+            }
+        }, MoreExecutors.directExecutor(), 2);
+        assertFails(batcher.submit("error"), AssertionError.class);
+        // The failed batch must not leave the batcher without a dispatcher
+        assertThat(batcher.submit("ok").isDone()).isTrue();
+        assertThat(batcher.submit("ok").get()).isEqualTo("ok");
+    }
+
+    @Test
+    public void testSubmitAfterRejection() throws Exception {
+        final boolean[] reject = {true};
+        final RequestBatcher<String> batcher = new RequestBatcher<>(new RequestBatcher.BatchCall<String>() {
+            @Override
+            public List<String> call(List<String> inputs) {
+                return ImmutableList.copyOf(inputs);
+            }
+        }, new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                if (reject[0]) {
+                    throw new RejectedExecutionException();
+                }
+                command.run();
+            }
+        }, 2);
+        assertFails(batcher.submit("rejected"), RejectedExecutionException.class);
+        reject[0] = false;
+        assertThat(batcher.submit("ok").get()).isEqualTo("ok");
+    }
+
+    private static void assertFails(CompletableFuture<String> future, Class<? extends Throwable> cause)
+            throws InterruptedException {
+        try {
+            future.get();
+            fail("The request did not fail");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(cause);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package tagging;
+
+import util.CompactTree;
+import util.IndexedTree;
+import util.PennTreebankLabel;
+import util.TreeUtil;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Compares the time of checking the labels of every node of the parses of the topic sentences with lower-cased label
+ * strings, with case-insensitive string comparisons and with {@link PennTreebankLabel} constants. Each check asks
+ * whether a node is an NP, a VP, a PP, an SBAR or a PRN, and whether it is a verb. The number of timed rounds can be
+ * set with the {@code benchmark.iterations} system property.
+ */
+public class TreeLabelBenchmark {
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 200);
+    private static final int CHECKS_PER_NODE = 6;
+
+    public static void main(String[] args) throws FileNotFoundException {
+        final URL topicSentences = TreeLabelBenchmark.class.getResource("/topic_sentences.txt");
+        final Scanner scanner = new Scanner(new File(topicSentences.getFile()), "UTF-8");
+        final List<IndexedTree> indexedTrees = new ArrayList<>();
+        final List<CompactTree> compactTrees = new ArrayList<>();
+        long nodes = 0;
+        while (scanner.hasNext()) {
+            final AnnotatedSentence sentence = AnnotationCache.annotate(scanner.nextLine());
+            indexedTrees.add(sentence.indexedParse());
+            compactTrees.add(sentence.compactParse());
+            nodes += sentence.indexedParse().size();
+        }
+
+        final long[] matches = new long[4];
+        final long[] nanos = new long[4];
+        // The first half of the rounds warms up each path
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < ITERATIONS / 2; i++) {
+                long startTime = System.nanoTime();
+                matches[0] += checkLowerCasedStrings(indexedTrees);
+                nanos[0] += round == 0 ? 0 : System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                matches[1] += checkStrings(indexedTrees);
+                nanos[1] += round == 0 ? 0 : System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                matches[2] += checkLabels(indexedTrees);
+                nanos[2] += round == 0 ? 0 : System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                matches[3] += checkCompactLabels(compactTrees);
+                nanos[3] += round == 0 ? 0 : System.nanoTime() - startTime;
+            }
+        }
+
+        final double checks = (double) nodes * CHECKS_PER_NODE * (ITERATIONS / 2);
+        System.out.printf("%d sentences, %d nodes%n%n", indexedTrees.size(), nodes);
+        System.out.printf("%-40s %12s %10s%n", "Label check", "ns/check", "Matches");
+        final String[] names = {"Lower-cased strings", "Case-insensitive strings", "PennTreebankLabel (IndexedTree)",
+                "PennTreebankLabel (CompactTree)"};
+        for (int i = 0; i < names.length; i++) {
+            System.out.printf("%-40s %12.2f %10d%n", names[i], nanos[i] / checks, matches[i] / ITERATIONS);
+        }
+    }
+
+    /**
+     * Checks the labels the way {@link TreeUtil} did before labels were interned, by lower-casing the label strings.
+     */
+    private static long checkLowerCasedStrings(List<IndexedTree> trees) {
+        long matches = 0;
+        for (final IndexedTree tree : trees) {
+            for (int i = 0; i < tree.size(); i++) {
+                final String label = tree.getNode(i).label().value();
+                matches += label.toLowerCase().equals("np") ? 1 : 0;
+                matches += label.toLowerCase().equals("vp") ? 1 : 0;
+                matches += label.toLowerCase().equals("pp") ? 1 : 0;
+                matches += label.toLowerCase().equals("sbar") ? 1 : 0;
+                matches += label.toLowerCase().equals("prn") ? 1 : 0;
+                matches += label.toLowerCase().startsWith("vb") ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+
+    private static long checkStrings(List<IndexedTree> trees) {
+        long matches = 0;
+        for (final IndexedTree tree : trees) {
+            for (int i = 0; i < tree.size(); i++) {
+                matches += TreeUtil.labelEquals(tree.getNode(i), "np") ? 1 : 0;
+                matches += TreeUtil.labelEquals(tree.getNode(i), "vp") ? 1 : 0;
+                matches += TreeUtil.labelEquals(tree.getNode(i), "pp") ? 1 : 0;
+                matches += TreeUtil.labelEquals(tree.getNode(i), "sbar") ? 1 : 0;
+                matches += TreeUtil.labelEquals(tree.getNode(i), "prn") ? 1 : 0;
+                matches += TreeUtil.labelStartsWith(tree.getNode(i), "vb") ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+
+    private static long checkLabels(List<IndexedTree> trees) {
+        long matches = 0;
+        for (final IndexedTree tree : trees) {
+            for (int i = 0; i < tree.size(); i++) {
+                matches += tree.getCategory(i) == PennTreebankLabel.NP ? 1 : 0;
+                matches += tree.getCategory(i) == PennTreebankLabel.VP ? 1 : 0;
+                matches += tree.getCategory(i) == PennTreebankLabel.PP ? 1 : 0;
+                matches += tree.getCategory(i) == PennTreebankLabel.SBAR ? 1 : 0;
+                matches += tree.getCategory(i) == PennTreebankLabel.PRN ? 1 : 0;
+                matches += tree.getCategory(i).isVerb() ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+
+    private static long checkCompactLabels(List<CompactTree> trees) {
+        long matches = 0;
+        for (final CompactTree tree : trees) {
+            for (int i = 0; i < tree.size(); i++) {
+                matches += TreeUtil.labelIs(tree, i, PennTreebankLabel.NP) ? 1 : 0;
+                matches += TreeUtil.labelIs(tree, i, PennTreebankLabel.VP) ? 1 : 0;
+                matches += TreeUtil.labelIs(tree, i, PennTreebankLabel.PP) ? 1 : 0;
+                matches += TreeUtil.labelIs(tree, i, PennTreebankLabel.SBAR) ? 1 : 0;
+                matches += TreeUtil.labelIs(tree, i, PennTreebankLabel.PRN) ? 1 : 0;
+                matches += tree.getCategory(i).isVerb() ? 1 : 0;
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,103 @@
+package util;
+
+import edu.stanford.nlp.trees.Tree;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompactTreeTest {
+    private static final String TREE = "(ROOT (S (NP (NNP John)) (VP (VBD said) (SBAR (IN that) (S (NP (PRP he)) " +
+            "(VP (VBZ likes) (NP (NNS cats) (CC and) (NNS dogs)))))) (. .)))";
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final CompactTree compactTree = CompactTree.fromTree(tree);
+        assertThat(compactTree.size()).isEqualTo(tree.size());
+        assertThat(compactTree.getLeafCount()).isEqualTo(tree.getLeaves().size());
+        assertThat(compactTree.toString()).isEqualTo(tree.toString());
+        assertThat(compactTree.toTree().pennString()).isEqualTo(tree.pennString());
+        assertThat(CompactTree.fromTree(compactTree.toTree()).toString()).isEqualTo(tree.toString());
+    }
+
+    @Test
+    public void testStructure() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final CompactTree compactTree = CompactTree.fromTree(tree);
+        // The nodes are numbered in pre-order
+        final List<Tree> nodes = tree.preOrderNodeList();
+        for (int i = 0; i < nodes.size(); i++) {
+            final Tree node = nodes.get(i);
+            final Tree parent = node.parent(tree);
+            assertThat(compactTree.getParent(i)).isEqualTo(parent == null ? -1 : nodes.indexOf(parent));
+            assertThat(compactTree.getNumChildren(i)).isEqualTo(node.numChildren());
+            for (int j = 0; j < node.numChildren(); j++) {
+                assertThat(compactTree.getChild(i, j)).isEqualTo(nodes.indexOf(node.getChild(j)));
+            }
+            assertThat(compactTree.isLeaf(i)).isEqualTo(node.isLeaf());
+            assertThat(compactTree.isPreTerminal(i)).isEqualTo(node.isPreTerminal());
+            assertThat(compactTree.getLabel(i)).isEqualTo(node.value());
+        }
+
+        final List<Tree> leaves = tree.getLeaves();
+        for (int i = 0; i < leaves.size(); i++) {
+            assertThat(compactTree.getLeafNode(i)).isEqualTo(nodes.indexOf(leaves.get(i)));
+            assertThat(compactTree.getWord(i)).isEqualTo(leaves.get(i).value());
+            assertThat(TreeUtil.getLeafIndex(compactTree, compactTree.getLeafNode(i))).isEqualTo(i);
+        }
+        // The object of "likes" is "cats and dogs"
+        final int object = nodes.indexOf(tree.getChild(0).getChild(1).getChild(1).getChild(1).getChild(1).getChild(1));
+        assertThat(compactTree.getFirstLeafIndex(object)).isEqualTo(5);
+        assertThat(compactTree.getLastLeafIndex(object)).isEqualTo(7);
+    }
+
+    @Test
+    public void testLeafCategories() throws Exception {
+        // The words are spelled like labels, but leaves have no label
+        final Tree tree = Tree.valueOf("(ROOT (S (VP (TO to) (VP (VB cc) (PP (IN in) (NP (DT dt) (NNS s)))))))");
+        final CompactTree compactTree = CompactTree.fromTree(tree);
+        for (int i = 0; i < compactTree.getLeafCount(); i++) {
+            final int leaf = compactTree.getLeafNode(i);
+            assertThat(compactTree.getCategory(leaf)).isEqualTo(PennTreebankLabel.OTHER);
+            assertThat(compactTree.getCategory(compactTree.getParent(leaf)))
+                    .isEqualTo(PennTreebankLabel.of(tree.getLeaves().get(i).parent(tree).value()));
+        }
+    }
+
+    @Test
+    public void testMatchesTreeUtil() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final CompactTree compactTree = CompactTree.fromTree(tree);
+        final List<Tree> nodes = tree.preOrderNodeList();
+        final List<Tree> leaves = tree.getLeaves();
+        assertThat(TreeUtil.getFirstNp(compactTree)).isEqualTo(nodes.indexOf(TreeUtil.getFirstNp(tree)));
+        for (int i = 0; i < leaves.size(); i++) {
+            assertThat(TreeUtil.getNpFromWord(compactTree, i))
+                    .isEqualTo(nodes.indexOf(TreeUtil.getNpFromWord(tree, i)));
+            assertThat(TreeUtil.getHighestNpFromWord(compactTree, i))
+                    .isEqualTo(nodes.indexOf(TreeUtil.getHighestNpFromWord(tree, i)));
+            assertThat(TreeUtil.getVpFromWord(compactTree, i))
+                    .isEqualTo(nodes.indexOf(TreeUtil.getVpFromWord(tree, leaves.get(i))));
+            assertThat(PosUtil.isNoun(compactTree, i)).isEqualTo(PosUtil.isNoun(tree, leaves.get(i)));
+            assertThat(PosUtil.isPastTenseVerb(compactTree, i)).isEqualTo(PosUtil.isPastTenseVerb(tree, leaves.get(i)));
+        }
+        // The children of the root have no ancestor below the root to look for an SBAR in
+        for (int i = 2; i < nodes.size(); i++) {
+            final Tree node = nodes.get(i);
+            assertThat(TreeUtil.getFirstSbar(compactTree, i))
+                    .isEqualTo(nodes.indexOf(TreeUtil.getFirstSbar(tree, node)));
+            assertThat(TreeUtil.constructPhraseFromTree(compactTree, i))
+                    .isEqualTo(TreeUtil.constructPhraseFromTree(node));
+            assertThat(TreeUtil.treeIsAndConjunction(compactTree, i)).isEqualTo(TreeUtil.treeIsAndConjunction(node));
+            if (!node.isLeaf()) {
+                assertThat(TreeUtil.findIndexOfHead(compactTree, i)).isEqualTo(TreeUtil.findIndexOfHead(tree, node));
+            }
+        }
+        assertTrue(TreeUtil.labelIs(compactTree, 0, PennTreebankLabel.ROOT));
+        assertFalse(TreeUtil.labelIs(compactTree, compactTree.getLeafNode(0), PennTreebankLabel.NNP));
+    }
+}
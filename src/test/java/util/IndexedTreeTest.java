@@ -0,0 +1,77 @@
+package util;
+
+import edu.stanford.nlp.trees.Tree;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class IndexedTreeTest {
+    private static final String TREE = "(ROOT (S (NP (NNP John)) (VP (VBZ likes) (NP (NNS cats) (CC and) " +
+            "(NNS dogs))) (. .)))";
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final IndexedTree indexedTree = new IndexedTree(tree);
+
+        // The indexed tree is a view of the tree it was built from, which is left as it was
+        assertThat(indexedTree.getRoot()).isSameAs(tree);
+        assertThat(indexedTree.getRoot().pennString()).isEqualTo(Tree.valueOf(TREE).pennString());
+        assertThat(indexedTree.size()).isEqualTo(tree.size());
+
+        final List<Tree> nodes = tree.preOrderNodeList();
+        for (int i = 0; i < nodes.size(); i++) {
+            final Tree node = nodes.get(i);
+            assertThat(indexedTree.getNode(i)).isSameAs(node);
+            assertThat(indexedTree.getNodeNumber(node)).isEqualTo(i);
+            assertThat(indexedTree.contains(node)).isTrue();
+            assertThat(indexedTree.getParent(node)).isSameAs(node.parent(tree));
+        }
+
+        final List<Tree> leaves = tree.getLeaves();
+        assertThat(indexedTree.getLeaves()).containsExactlyElementsIn(leaves).inOrder();
+        for (int i = 0; i < leaves.size(); i++) {
+            assertThat(indexedTree.getLeaf(i)).isSameAs(leaves.get(i));
+            assertThat(indexedTree.getLeafIndex(leaves.get(i))).isEqualTo(i);
+        }
+    }
+
+    @Test
+    public void testSpans() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final IndexedTree indexedTree = new IndexedTree(tree);
+        // The object of "likes" is "cats and dogs"
+        final Tree object = tree.getChild(0).getChild(1).getChild(1);
+        assertThat(indexedTree.getFirstLeafIndex(object)).isEqualTo(2);
+        assertThat(indexedTree.getLastLeafIndex(object)).isEqualTo(4);
+        assertThat(indexedTree.getFirstLeafIndex(tree)).isEqualTo(0);
+        assertThat(indexedTree.getLastLeafIndex(tree)).isEqualTo(5);
+        assertThat(indexedTree.getNodeNumber(Tree.valueOf("(NNP John)"))).isEqualTo(-1);
+        assertThat(indexedTree.contains(Tree.valueOf("(NNP John)"))).isFalse();
+    }
+
+    @Test
+    public void testCategories() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final IndexedTree indexedTree = new IndexedTree(tree);
+        assertThat(indexedTree.getCategory(tree)).isEqualTo(PennTreebankLabel.ROOT);
+        assertThat(indexedTree.getCategory(tree.getChild(0).getChild(1))).isEqualTo(PennTreebankLabel.VP);
+        assertThat(indexedTree.getCategory(tree.getChild(0).getChild(1).getChild(0))).isEqualTo(PennTreebankLabel.VBZ);
+    }
+
+    @Test
+    public void testLeafCategories() throws Exception {
+        // The words are spelled like labels, but leaves have no label
+        final Tree tree = Tree.valueOf("(ROOT (S (VP (TO to) (VP (VB cc) (PP (IN in) (NP (DT dt) (NNS s)))))))");
+        final IndexedTree indexedTree = new IndexedTree(tree);
+        for (final Tree leaf : tree.getLeaves()) {
+            assertThat(indexedTree.getCategory(leaf)).isEqualTo(PennTreebankLabel.OTHER);
+            assertThat(indexedTree.getCategory(indexedTree.getNodeNumber(leaf))).isEqualTo(PennTreebankLabel.OTHER);
+        }
+        assertThat(indexedTree.getCategory(indexedTree.getLeaf(2).parent(tree))).isEqualTo(PennTreebankLabel.IN);
+        final IndexedTree otherTree = new IndexedTree(Tree.valueOf("(ROOT (S (NP (NNS s))))"));
+        assertThat(otherTree.getCategory(indexedTree.getLeaf(4))).isEqualTo(PennTreebankLabel.OTHER);
+    }
+}
@@ -0,0 +1,34 @@
+package util;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SentenceFeaturesTest {
+    @Test
+    public void testBoundaryCommas() throws Exception {
+        final List<String> words = ImmutableList.of("John", ",", "who", "lives", "in", "Paris", ",", "France", ",",
+                "likes", "cats", ".");
+        final List<String> posTags = ImmutableList.of("NNP", ",", "WP", "VBZ", "IN", "NNP", ",", "NNP", ",", "VBZ",
+                "NNS", ".");
+        final List<String> nerTags = ImmutableList.of("PERSON", "O", "O", "O", "O", "LOCATION", "O", "LOCATION", "O",
+                "O", "O", "O");
+        final SentenceFeatures features = new SentenceFeatures(words, posTags, nerTags);
+
+        // The comma between the city and the country is not a boundary comma
+        assertFalse(features.isBoundaryComma(6));
+        assertThat(features.getPreviousBoundaryComma(5)).isEqualTo(1);
+        assertThat(features.getNextBoundaryComma(2)).isEqualTo(8);
+        assertThat(features.getNextBoundaryComma(9)).isEqualTo(-1);
+        assertThat(features.countBoundaryCommas(0, words.size())).isEqualTo(2);
+        assertThat(features.getNerSpanId(2)).isEqualTo(features.getNerSpanId(4));
+        assertThat(features.getNerSpanStart(5)).isEqualTo(5);
+        assertTrue(features.isVerb(3));
+        assertTrue(features.isNoun(0));
+    }
+}
@@ -0,0 +1,101 @@
+package util;
+
+import com.google.common.collect.Range;
+import com.google.common.collect.RangeSet;
+import com.google.common.collect.TreeRangeSet;
+import tagging.AnnotatedSentence;
+import tagging.AnnotationCache;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * Compares the time of marking spans of words with a {@link TreeRangeSet} and with a {@link SpanMask}, and of removing
+ * the marked words from the sentence with {@link WordListUtil#removeParts}. The spans are those of the PPs, SBARs and
+ * parentheticals in the parses of the topic sentences, which are the kinds of spans that the extractors remove. The
+ * number of timed rounds can be set with the {@code benchmark.iterations} system property.
+ */
+public class SpanMaskBenchmark {
+    private static final int ITERATIONS = Integer.getInteger("benchmark.iterations", 2000);
+
+    public static void main(String[] args) throws FileNotFoundException {
+        final URL topicSentences = SpanMaskBenchmark.class.getResource("/topic_sentences.txt");
+        final Scanner scanner = new Scanner(new File(topicSentences.getFile()), "UTF-8");
+        final List<List<String>> sentences = new ArrayList<>();
+        final List<int[]> sentenceSpans = new ArrayList<>();
+        int spanCount = 0;
+        while (scanner.hasNext()) {
+            final AnnotatedSentence sentence = AnnotationCache.annotate(scanner.nextLine());
+            final IndexedTree root = sentence.indexedParse();
+            final List<Integer> spans = new ArrayList<>();
+            for (int i = 0; i < root.size(); i++) {
+                final PennTreebankLabel label = root.getCategory(i);
+                if (label == PennTreebankLabel.PP || label == PennTreebankLabel.SBAR ||
+                        label == PennTreebankLabel.PRN) {
+                    spans.add(root.getFirstLeafIndex(root.getNode(i)));
+                    spans.add(root.getLastLeafIndex(root.getNode(i)));
+                }
+            }
+            final int[] spanArray = new int[spans.size()];
+            for (int i = 0; i < spanArray.length; i++) {
+                spanArray[i] = spans.get(i);
+            }
+            sentences.add(sentence.words());
+            sentenceSpans.add(spanArray);
+            spanCount += spanArray.length / 2;
+        }
+
+        final long[] nanos = new long[2];
+        long remainingWords = 0;
+        // The first half of the rounds warms up each path
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < ITERATIONS / 2; i++) {
+                long startTime = System.nanoTime();
+                remainingWords += removeWithRangeSet(sentences, sentenceSpans);
+                nanos[0] += round == 0 ? 0 : System.nanoTime() - startTime;
+                startTime = System.nanoTime();
+                remainingWords -= removeWithSpanMask(sentences, sentenceSpans);
+                nanos[1] += round == 0 ? 0 : System.nanoTime() - startTime;
+            }
+        }
+        if (remainingWords != 0) {
+            throw new IllegalStateException("The range set and the span mask removed different words");
+        }
+
+        final double removals = (double) sentences.size() * (ITERATIONS / 2);
+        System.out.printf("%d sentences, %d spans%n%n", sentences.size(), spanCount);
+        System.out.printf("%-20s %15s%n", "Spans", "ns/sentence");
+        System.out.printf("%-20s %15.1f%n", "TreeRangeSet", nanos[0] / removals);
+        System.out.printf("%-20s %15.1f%n", "SpanMask", nanos[1] / removals);
+    }
+
+    private static long removeWithRangeSet(List<List<String>> sentences, List<int[]> sentenceSpans) {
+        long remainingWords = 0;
+        for (int i = 0; i < sentences.size(); i++) {
+            final int[] spans = sentenceSpans.get(i);
+            final RangeSet<Integer> partsToRemove = TreeRangeSet.create();
+            for (int k = 0; k < spans.length; k += 2) {
+                partsToRemove.add(Range.closed(spans[k], spans[k + 1]));
+            }
+            remainingWords += WordListUtil.removeParts(sentences.get(i), partsToRemove).size();
+        }
+        return remainingWords;
+    }
+
+    private static long removeWithSpanMask(List<List<String>> sentences, List<int[]> sentenceSpans) {
+        long remainingWords = 0;
+        for (int i = 0; i < sentences.size(); i++) {
+            final int[] spans = sentenceSpans.get(i);
+            final SpanMask partsToRemove = new SpanMask();
+            for (int k = 0; k < spans.length; k += 2) {
+                partsToRemove.add(spans[k], spans[k + 1]);
+            }
+            remainingWords += WordListUtil.removeParts(sentences.get(i), partsToRemove).size();
+        }
+        return remainingWords;
+    }
+}
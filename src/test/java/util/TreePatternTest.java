@@ -0,0 +1,155 @@
+package util;
+
+import edu.stanford.nlp.trees.Tree;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+public class TreePatternTest {
+    private static final String TREE = "(ROOT (S (NP (NNP John)) (, ,) (VP (VBD ran) (CC and) (VP (VBD ate) " +
+            "(NP (DT the) (NN cake)) (PP (IN in) (NP (DT the) (NN kitchen))))) (. .)))";
+    private static final String COORDINATED_VP = "(VP (VBD ran) (CC and) (VP (VBD ate) (NP (DT the) (NN cake)) " +
+            "(PP (IN in) (NP (DT the) (NN kitchen)))))";
+
+    @Test
+    public void testCompileErrors() throws Exception {
+        for (final String pattern : new String[]{"", "<", "NP <", "NP < (VP", "NP < VP)", "NP VP", "NP <0 VP",
+                "NP >0 VP", "NP $* VP", "NP | VP", "NP|", "NP= < VP", "NP=a < VP=a", "NP < (< VP)"}) {
+            try {
+                TreePattern.compile(pattern);
+                fail("Compiled invalid pattern: " + pattern);
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void testDescriptions() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "NN")).containsExactly("(NN cake)", "(NN kitchen)").inOrder();
+        assertThat(match(tree, "VBD|CC")).containsExactly("(VBD ran)", "(CC and)", "(VBD ate)").inOrder();
+        // Words are compared case-insensitively with the leaves
+        assertThat(match(tree, "JOHN")).containsExactly("John");
+        assertThat(match(tree, "__")).hasSize(tree.size());
+    }
+
+    @Test
+    public void testChild() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "VP < CC")).containsExactly(COORDINATED_VP);
+        assertThat(match(tree, "NP < NN")).containsExactly("(NP (DT the) (NN cake))", "(NP (DT the) (NN kitchen))")
+                .inOrder();
+        assertThat(match(tree, "NP < (NN < cake)")).containsExactly("(NP (DT the) (NN cake))");
+    }
+
+    @Test
+    public void testNthChild() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "PP <2 NP")).containsExactly("(PP (IN in) (NP (DT the) (NN kitchen)))");
+        assertThat(match(tree, "PP <1 NP")).isEmpty();
+        assertThat(match(tree, "PP <3 __")).isEmpty();
+    }
+
+    @Test
+    public void testParent() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "NP > S")).containsExactly("(NP (NNP John))");
+        assertThat(match(tree, "NP > (VP > VP)")).containsExactly("(NP (DT the) (NN cake))");
+        assertThat(match(tree, "ROOT > __")).isEmpty();
+    }
+
+    @Test
+    public void testNthParent() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "VBD >1 VP")).containsExactly("(VBD ran)", "(VBD ate)").inOrder();
+        assertThat(match(tree, "VP >3 S")).containsExactly(COORDINATED_VP);
+        assertThat(match(tree, "VP >1 S")).isEmpty();
+    }
+
+    @Test
+    public void testSiblings() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        assertThat(match(tree, "NP $+ ,")).containsExactly("(NP (NNP John))");
+        assertThat(match(tree, "NP $+ VP")).isEmpty();
+        assertThat(match(tree, "NP $+ (, $+ VP)")).containsExactly("(NP (NNP John))");
+        assertThat(match(tree, "VP $- ,")).containsExactly(COORDINATED_VP);
+        // The first child has no sibling to its left and the last child none to its right
+        assertThat(match(tree, "NP $- __")).containsExactly("(NP (DT the) (NN cake))", "(NP (DT the) (NN kitchen))")
+                .inOrder();
+        assertThat(match(tree, ". $+ __")).isEmpty();
+    }
+
+    @Test
+    public void testBindings() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final TreePattern pattern = TreePattern.compile("PP > VP=vp <2 (NP=np < NN=noun)");
+        final List<TreeMatch> matches = new TreePatternMatcher(pattern).match(new IndexedTree(tree)).get(pattern);
+        assertThat(matches).hasSize(1);
+        final TreeMatch match = matches.get(0);
+        assertThat(match.getNode().toString()).isEqualTo("(PP (IN in) (NP (DT the) (NN kitchen)))");
+        assertThat(match.getNode("vp").label().value()).isEqualTo("VP");
+        assertThat(match.getNode("vp")).isSameAs(match.getNode().parent(tree));
+        assertThat(match.getNode("np").toString()).isEqualTo("(NP (DT the) (NN kitchen))");
+        assertThat(match.getNode("noun").toString()).isEqualTo("(NN kitchen)");
+        assertThat(match.getNodeNumber("noun")).isEqualTo(tree.preOrderNodeList().indexOf(match.getNode("noun")));
+        try {
+            match.getNode("missing");
+            fail("Found a node for a name the pattern does not have");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testLeftmostBinding() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        // Each VP matches once, with its leftmost VBD or NP child bound
+        final TreePattern pattern = TreePattern.compile("VP < VBD|NP=child");
+        final List<TreeMatch> matches = new TreePatternMatcher(pattern).match(new IndexedTree(tree)).get(pattern);
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).getNode("child").toString()).isEqualTo("(VBD ran)");
+        assertThat(matches.get(1).getNode("child").toString()).isEqualTo("(VBD ate)");
+
+        // Children that do not satisfy the nested relation are passed over for the next one
+        final TreePattern nested = TreePattern.compile("VP < (__=phrase < NP)");
+        final List<TreeMatch> nestedMatches = new TreePatternMatcher(nested).match(new IndexedTree(tree))
+                .get(nested);
+        assertThat(nestedMatches).hasSize(2);
+        assertThat(nestedMatches.get(0).getNode("phrase").label().value()).isEqualTo("VP");
+        assertThat(nestedMatches.get(1).getNode("phrase").label().value()).isEqualTo("PP");
+    }
+
+    @Test
+    public void testMatcherKeepsPatternsApart() throws Exception {
+        final Tree tree = Tree.valueOf(TREE);
+        final TreePattern nouns = TreePattern.compile("NN");
+        final TreePattern phrases = TreePattern.compile("NP");
+        final TreePatternMatcher matcher = new TreePatternMatcher(nouns, phrases);
+        final IndexedTree indexedTree = new IndexedTree(tree);
+        final TreeMatches matches = matcher.match(indexedTree);
+        assertThat(matches.get(nouns)).hasSize(2);
+        assertThat(matches.get(phrases)).hasSize(3);
+        assertThat(matcher.match(indexedTree)).isSameAs(matches);
+        try {
+            matches.get(TreePattern.compile("NN"));
+            fail("Found matches for a pattern that is not part of the matcher");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+
+    private static List<String> match(Tree tree, String pattern) {
+        final TreePattern treePattern = TreePattern.compile(pattern);
+        final List<String> nodes = new ArrayList<>();
+        final TreeMatches matches = new TreePatternMatcher(treePattern).match(new IndexedTree(tree));
+        for (final TreeMatch match : matches.get(treePattern)) {
+            nodes.add(match.getNode().toString());
+        }
+        return nodes;
+    }
+}